@@ -0,0 +1,15 @@
+package com.example.Backend.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+//caffeine caches configured through spring.cache.*; names must match spring.cache.cache-names
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PROFILES = "profiles";
+    public static final String POSTS = "posts";
+    public static final String LEARNING_PLANS = "learningPlans";
+    public static final String LEARNING_PROGRESS = "learningProgress";
+}
@@ -0,0 +1,20 @@
+package com.example.Backend.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+//services annotated @Timed(MetricsConfig.SERVICE_CALLS) are timed per public method, published as
+//service.calls{class,method,exception} with histogram buckets for percentiles in prometheus. http, mongo driver,
+//connection pool, cache and jvm/gc metrics come from actuator's own binders
+@Configuration
+public class MetricsConfig {
+
+    public static final String SERVICE_CALLS = "service.calls";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.Backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//one line per sampled request, replacing framework debug logging: every failed (5xx) or slow request, and
+//sample-rate of the rest. lines go through the async appender in logback-spring.xml, so a request thread only
+//enqueues them. per-request counts and latencies are in the http.server.requests metrics instead
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestLogFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestLogFilter.class);
+
+    private final double sampleRate;
+    private final long slowMillis;
+
+    public RequestLogFilter(@Value("${logging.requests.sample-rate:0.01}") double sampleRate,
+                            @Value("${logging.requests.slow-ms:1000}") long slowMillis) {
+        this.sampleRate = sampleRate;
+        this.slowMillis = slowMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            //an exception escaping the chain becomes a 500 only after this filter
+            int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+            if (log.isInfoEnabled() && sampled(status, millis)) {
+                //no query string: it can carry tokens and search terms; streamed responses are timed to their handover
+                log.info("{} {} {} {}ms{}", request.getMethod(), request.getRequestURI(), status, millis,
+                        request.isAsyncStarted() ? " async" : "");
+            }
+        }
+    }
+
+    boolean sampled(int status, long millis) {
+        return status >= 500 || millis >= slowMillis
+                || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.Backend.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+//@Scheduled jobs, e.g. the token revocation sync; off in one-off processes such as the bulk transfer. the jobs
+//share spring.task.scheduling.pool.size threads, which is kept at least as large as the number of jobs
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
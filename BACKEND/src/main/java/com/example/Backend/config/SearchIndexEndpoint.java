@@ -0,0 +1,26 @@
+package com.example.Backend.config;
+
+import com.example.Backend.service.SearchService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+//GET /actuator/searchindex reports the index size on this node. it is read-only: rebuilds are requested through
+//RebuildRequests (bulk imports do this), never by an api caller
+@Component
+@Endpoint(id = "searchindex")
+public class SearchIndexEndpoint {
+
+    private final SearchService searchService;
+
+    public SearchIndexEndpoint(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    @ReadOperation
+    public Map<String, Integer> stats() {
+        return Map.of("documents", searchService.size(), "terms", searchService.terms());
+    }
+}
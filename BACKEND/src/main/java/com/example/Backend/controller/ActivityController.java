@@ -0,0 +1,34 @@
+package com.example.Backend.controller;
+
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.dto.FeedItem;
+import com.example.Backend.service.ActivityService;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+
+@RestController
+@RequestMapping("/api/activity")
+public class ActivityController {
+
+    private final ActivityService activityService;
+
+    public ActivityController(ActivityService activityService) {
+        this.activityService = activityService;
+    }
+
+    //posts, plans and progress in one newest-first page; pass userId for a single user's activity
+    @GetMapping
+    public ResponseEntity<CursorPage<FeedItem>> getActivity(
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Principal principal) {
+        String viewerId = principal == null ? null : principal.getName();
+        CursorPage<FeedItem> activity = activityService.getActivity(userId, cursor, limit, viewerId);
+        return new ResponseEntity<>(activity, HttpStatus.OK);
+    }
+}
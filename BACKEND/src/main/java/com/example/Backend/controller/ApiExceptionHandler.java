@@ -0,0 +1,17 @@
+package com.example.Backend.controller;
+
+import com.example.Backend.repository.InvalidCursorException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+//errors raised below the controllers that every endpoint answers the same way
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    //any paged or streamed endpoint taking a ?cursor=
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<String> invalidCursor(InvalidCursorException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.Backend.controller;
+
+import com.example.Backend.service.PushService;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.security.Principal;
+import java.util.List;
+
+//live updates as server-sent events, authenticated with the usual bearer token: likes and comments on the items
+//the client is showing, plus the user's own notifications and new feed items. the stream lasts until the async
+//request timeout, and clients reconnect and re-read what they show when it ends
+@RestController
+@RequestMapping("/api/events")
+public class EventStreamController {
+
+    private final PushService pushService;
+
+    public EventStreamController(PushService pushService) {
+        this.pushService = pushService;
+    }
+
+    //items: ids of the posts, plans and progress entries on screen, e.g. ?items=a,b,c
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> stream(
+            @RequestParam(required = false) List<String> items,
+            Principal principal) {
+        return pushService.connect(principal.getName(), items);
+    }
+
+    //replaces the watched items when the screen changes, without reconnecting
+    @PutMapping("/{connectionId}/items")
+    public ResponseEntity<Void> watch(@PathVariable String connectionId, @RequestBody List<String> items,
+                                      Principal principal) {
+        boolean found = pushService.watch(connectionId, principal.getName(), items);
+        return new ResponseEntity<>(found ? HttpStatus.NO_CONTENT : HttpStatus.NOT_FOUND);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.Backend.controller;
+
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.dto.FeedItem;
+import com.example.Backend.service.TimelineService;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+
+@RestController
+@RequestMapping("/api/feed")
+public class FeedController {
+
+    private final TimelineService timelineService;
+
+    public FeedController(TimelineService timelineService) {
+        this.timelineService = timelineService;
+    }
+
+    //home feed: posts, plans and progress from the people the user follows, newest first; only the user's own
+    @GetMapping("/{userId}")
+    public ResponseEntity<CursorPage<FeedItem>> getFeed(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Principal principal) {
+        if (!userId.equals(principal.getName())) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        CursorPage<FeedItem> feed = timelineService.getFeed(userId, cursor, limit);
+        return new ResponseEntity<>(feed, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.Backend.controller;
+
+import com.example.Backend.dto.FeedItem;
+import com.example.Backend.dto.LearningPlanCard;
+import com.example.Backend.dto.LearningProgressCard;
+import com.example.Backend.dto.PostCard;
+import com.example.Backend.service.FeedStreamService;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.security.Principal;
+
+//streamed variants of the list endpoints: one card per NDJSON line, or per event with Accept: text/event-stream;
+//the writer pulls one item at a time, so a slow client slows the query instead of growing a buffer
+@RestController
+@RequestMapping("/api/stream")
+public class FeedStreamController {
+
+    private final FeedStreamService feedStreamService;
+
+    public FeedStreamController(FeedStreamService feedStreamService) {
+        this.feedStreamService = feedStreamService;
+    }
+
+    @GetMapping(value = "/posts", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<PostCard> streamPosts(
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Principal principal) {
+        return feedStreamService.streamPosts(userId, cursor, limit, viewerOf(principal));
+    }
+
+    @GetMapping(value = "/learning-plans", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<LearningPlanCard> streamLearningPlans(
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Principal principal) {
+        return feedStreamService.streamLearningPlans(userId, cursor, limit, viewerOf(principal));
+    }
+
+    @GetMapping(value = "/learning-progress", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<LearningProgressCard> streamLearningProgress(
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Principal principal) {
+        return feedStreamService.streamLearningProgress(userId, cursor, limit, viewerOf(principal));
+    }
+
+    //posts, plans and progress merged newest first
+    @GetMapping(value = "/activity", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<FeedItem> streamActivity(
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Principal principal) {
+        return feedStreamService.streamActivity(userId, cursor, limit, viewerOf(principal));
+    }
+
+    private String viewerOf(Principal principal) {
+        return principal == null ? null : principal.getName();
+    }
+}
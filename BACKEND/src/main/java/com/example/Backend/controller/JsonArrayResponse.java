@@ -0,0 +1,43 @@
+package com.example.Backend.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+//writes a JSON array element by element straight from a Mongo cursor, so the response never exists whole on the heap;
+//the body is the same array a List would have produced
+public final class JsonArrayResponse {
+
+    //elements written between flushes; the servlet buffer is flushed on its own whenever it fills
+    private static final int FLUSH_EVERY = 50;
+
+    private JsonArrayResponse() {
+    }
+
+    //items is opened only when the body is written and is always closed, releasing the cursor
+    public static <T> ResponseEntity<StreamingResponseBody> of(ObjectMapper objectMapper, Supplier<Stream<T>> items) {
+        StreamingResponseBody body = out -> {
+            try (Stream<T> stream = items.get();
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartArray();
+                Iterator<T> iterator = stream.iterator();
+                int written = 0;
+                while (iterator.hasNext()) {
+                    generator.writeObject(iterator.next());
+                    if (++written % FLUSH_EVERY == 0) {
+                        generator.flush();
+                    }
+                }
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+}
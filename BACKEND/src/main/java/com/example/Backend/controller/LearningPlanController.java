@@ -1,16 +1,21 @@
 package com.example.Backend.controller;
 
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.dto.LearningPlanCard;
+import com.example.Backend.dto.LikeResult;
 import com.example.Backend.model.Comment;
 import com.example.Backend.model.Like;
 import com.example.Backend.model.LearningPlan;
 import com.example.Backend.service.LearningPlanService;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.security.Principal;
 
 @RestController
 @RequestMapping("/api/learning-plan")
@@ -20,6 +25,9 @@ public class LearningPlanController {
     @Autowired
     private LearningPlanService learningPlanService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     // Create a learning plan for a specific user
     @PostMapping("/user/{userId}")
     public ResponseEntity<LearningPlan> createLearningPlanForUser(
@@ -30,10 +38,13 @@ public class LearningPlanController {
         return new ResponseEntity<>(created, HttpStatus.CREATED);
     }
 
-    // Get all learning plans
+    // Get one page of learning plans, newest first
     @GetMapping
-    public ResponseEntity<List<LearningPlan>> getAllLearningPlans() {
-        List<LearningPlan> plans = learningPlanService.getAllLearningPlans();
+    public ResponseEntity<CursorPage<LearningPlanCard>> getAllLearningPlans(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Principal principal) {
+        CursorPage<LearningPlanCard> plans = learningPlanService.getLearningPlansPage(cursor, limit, viewerOf(principal));
         return new ResponseEntity<>(plans, HttpStatus.OK);
     }
 
@@ -46,9 +57,9 @@ public class LearningPlanController {
 
     // Get learning plans by user ID
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<LearningPlan>> getLearningPlansByUserId(@PathVariable String userId) {
-        List<LearningPlan> plans = learningPlanService.getLearningPlansByUserId(userId);
-        return new ResponseEntity<>(plans, HttpStatus.OK);
+    public ResponseEntity<StreamingResponseBody> getLearningPlansByUserId(@PathVariable String userId, Principal principal) {
+        String viewerId = viewerOf(principal);
+        return JsonArrayResponse.of(objectMapper, () -> learningPlanService.getLearningPlansByUserId(userId, viewerId));
     }
 
     // Update a learning plan
@@ -67,6 +78,16 @@ public class LearningPlanController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    // Get one page of comments on a learning plan, newest first
+    @GetMapping("/{planId}/comments")
+    public ResponseEntity<CursorPage<Comment>> getComments(
+            @PathVariable String planId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<Comment> comments = learningPlanService.getComments(planId, cursor, limit);
+        return new ResponseEntity<>(comments, HttpStatus.OK);
+    }
+
     // Add a comment to a learning plan
     @PostMapping("/{planId}/comments")
     public ResponseEntity<LearningPlan> addComment(
@@ -81,8 +102,9 @@ public class LearningPlanController {
     public ResponseEntity<LearningPlan> updateComment(
             @PathVariable String planId,
             @PathVariable String commentId,
-            @RequestBody Comment comment) {
-        LearningPlan updated = learningPlanService.updateComment(planId, commentId, comment);
+            @RequestBody Comment comment,
+            Principal principal) {
+        LearningPlan updated = learningPlanService.updateComment(planId, commentId, comment, viewerOf(principal));
         return new ResponseEntity<>(updated, HttpStatus.OK);
     }
 
@@ -91,26 +113,31 @@ public class LearningPlanController {
     public ResponseEntity<LearningPlan> deleteComment(
             @PathVariable String planId,
             @PathVariable String commentId,
-            @RequestParam String userId) {
-        LearningPlan updated = learningPlanService.deleteComment(planId, commentId, userId);
+            Principal principal) {
+        LearningPlan updated = learningPlanService.deleteComment(planId, commentId, viewerOf(principal));
         return new ResponseEntity<>(updated, HttpStatus.OK);
     }
 
     // Add a like to a learning plan
     @PostMapping("/{planId}/likes")
-    public ResponseEntity<LearningPlan> addLike(
+    public ResponseEntity<LikeResult> addLike(
             @PathVariable String planId,
             @RequestBody Like like) {
-        LearningPlan updated = learningPlanService.addLike(planId, like);
-        return new ResponseEntity<>(updated, HttpStatus.CREATED);
+        LikeResult result = learningPlanService.addLike(planId, like);
+        return new ResponseEntity<>(result, HttpStatus.CREATED);
     }
 
     // Remove a like from a learning plan
     @DeleteMapping("/{planId}/likes/{userId}")
-    public ResponseEntity<LearningPlan> removeLike(
+    public ResponseEntity<LikeResult> removeLike(
             @PathVariable String planId,
             @PathVariable String userId) {
-        LearningPlan updated = learningPlanService.removeLike(planId, userId);
-        return new ResponseEntity<>(updated, HttpStatus.OK);
+        LikeResult result = learningPlanService.removeLike(planId, userId);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    //list views mark items the signed-in user has liked
+    private String viewerOf(Principal principal) {
+        return principal == null ? null : principal.getName();
     }
 }
@@ -1,16 +1,21 @@
 package com.example.Backend.controller;
 
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.dto.LearningProgressCard;
+import com.example.Backend.dto.LikeResult;
 import com.example.Backend.model.Comment;
 import com.example.Backend.model.Like;
 import com.example.Backend.model.LearningProgress;
 import com.example.Backend.service.LearningProgressService;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.security.Principal;
 
 @RestController
 @RequestMapping("/api/learning-progress")
@@ -19,6 +24,9 @@ public class LearningProgressController {
     @Autowired
     private LearningProgressService learningProgressService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     //create a learning progress record for a specific user
     @PostMapping("/user/{userId}")
     public ResponseEntity<LearningProgress> createLearningProgressForUser(
@@ -29,10 +37,13 @@ public class LearningProgressController {
         return new ResponseEntity<>(created, HttpStatus.CREATED);
     }
 
-    //get all learning progress entries
+    //get one page of learning progress entries, newest first
     @GetMapping
-    public ResponseEntity<List<LearningProgress>> getAllLearningProgress() {
-        List<LearningProgress> entries = learningProgressService.getAllLearningProgress();
+    public ResponseEntity<CursorPage<LearningProgressCard>> getAllLearningProgress(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Principal principal) {
+        CursorPage<LearningProgressCard> entries = learningProgressService.getLearningProgressPage(cursor, limit, viewerOf(principal));
         return new ResponseEntity<>(entries, HttpStatus.OK);
     }
 
@@ -45,9 +56,9 @@ public class LearningProgressController {
 
     //get learning progress entries by user ID
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<LearningProgress>> getLearningProgressByUserId(@PathVariable String userId) {
-        List<LearningProgress> entries = learningProgressService.getLearningProgressByUserId(userId);
-        return new ResponseEntity<>(entries, HttpStatus.OK);
+    public ResponseEntity<StreamingResponseBody> getLearningProgressByUserId(@PathVariable String userId, Principal principal) {
+        String viewerId = viewerOf(principal);
+        return JsonArrayResponse.of(objectMapper, () -> learningProgressService.getLearningProgressByUserId(userId, viewerId));
     }
 
     //uUapdate a learning progress entry
@@ -66,6 +77,16 @@ public class LearningProgressController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    //get one page of comments on a learning progress entry, newest first
+    @GetMapping("/{entryId}/comments")
+    public ResponseEntity<CursorPage<Comment>> getComments(
+            @PathVariable String entryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<Comment> comments = learningProgressService.getComments(entryId, cursor, limit);
+        return new ResponseEntity<>(comments, HttpStatus.OK);
+    }
+
     //ad a comment to a learning progress entry
     @PostMapping("/{entryId}/comments")
     public ResponseEntity<LearningProgress> addComment(
@@ -80,8 +101,9 @@ public class LearningProgressController {
     public ResponseEntity<LearningProgress> updateComment(
             @PathVariable String entryId,
             @PathVariable String commentId,
-            @RequestBody Comment comment) {
-        LearningProgress updated = learningProgressService.updateComment(entryId, commentId, comment);
+            @RequestBody Comment comment,
+            Principal principal) {
+        LearningProgress updated = learningProgressService.updateComment(entryId, commentId, comment, viewerOf(principal));
         return new ResponseEntity<>(updated, HttpStatus.OK);
     }
 
@@ -90,26 +112,31 @@ public class LearningProgressController {
     public ResponseEntity<LearningProgress> deleteComment(
             @PathVariable String entryId,
             @PathVariable String commentId,
-            @RequestParam String userId) {
-        LearningProgress updated = learningProgressService.deleteComment(entryId, commentId, userId);
+            Principal principal) {
+        LearningProgress updated = learningProgressService.deleteComment(entryId, commentId, viewerOf(principal));
         return new ResponseEntity<>(updated, HttpStatus.OK);
     }
 
     //ad a like to a learning progress entry
     @PostMapping("/{entryId}/likes")
-    public ResponseEntity<LearningProgress> addLike(
+    public ResponseEntity<LikeResult> addLike(
             @PathVariable String entryId,
             @RequestBody Like like) {
-        LearningProgress updated = learningProgressService.addLike(entryId, like);
-        return new ResponseEntity<>(updated, HttpStatus.CREATED);
+        LikeResult result = learningProgressService.addLike(entryId, like);
+        return new ResponseEntity<>(result, HttpStatus.CREATED);
     }
 
     //rremove a like from a learning progress entry
     @DeleteMapping("/{entryId}/likes/{userId}")
-    public ResponseEntity<LearningProgress> removeLike(
+    public ResponseEntity<LikeResult> removeLike(
             @PathVariable String entryId,
             @PathVariable String userId) {
-        LearningProgress updated = learningProgressService.removeLike(entryId, userId);
-        return new ResponseEntity<>(updated, HttpStatus.OK);
+        LikeResult result = learningProgressService.removeLike(entryId, userId);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    //list views mark items the signed-in user has liked
+    private String viewerOf(Principal principal) {
+        return principal == null ? null : principal.getName();
     }
 }
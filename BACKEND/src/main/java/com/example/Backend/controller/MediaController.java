@@ -0,0 +1,72 @@
+package com.example.Backend.controller;
+
+import com.example.Backend.dto.MediaItem;
+import com.example.Backend.service.MediaService;
+import com.example.Backend.service.StoredMedia;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/media")
+public class MediaController {
+
+    private final MediaService mediaService;
+
+    public MediaController(MediaService mediaService) {
+        this.mediaService = mediaService;
+    }
+
+    //upload one or more files; returns references to store in Post.mediaUrls
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> upload(@RequestParam("files") List<MultipartFile> files, Principal principal) {
+        try {
+            List<MediaItem> items = mediaService.upload(files, principal != null ? principal.getName() : null);
+            return new ResponseEntity<>(items, HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to store media: " + e.getMessage());
+        }
+    }
+
+    //stream media; Range requests are answered with 206 and If-None-Match with 304 by the Resource handling in Spring MVC
+    @GetMapping("/{id}")
+    public ResponseEntity<Resource> download(@PathVariable String id) {
+        Optional<StoredMedia> media = mediaService.find(id);
+        if (media.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        StoredMedia stored = media.get();
+        //blobs stored before the type allowlist may be svg or html; those are only ever served as opaque bytes
+        MediaType contentType = mediaService.isSupportedType(stored.getContentType())
+                ? MediaType.parseMediaType(stored.getContentType())
+                : MediaType.APPLICATION_OCTET_STREAM;
+
+        //media is immutable once stored, so its id is a strong validator. <img> and <video> ignore the
+        //attachment disposition; opening the url directly downloads instead of rendering on our origin
+        return ResponseEntity.ok()
+                .eTag(stored.getId())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(stored.getFilename() != null ? stored.getFilename() : stored.getId(),
+                                StandardCharsets.UTF_8).build().toString())
+                .header("X-Content-Type-Options", "nosniff")
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .contentType(contentType)
+                .body(stored.getContent());
+    }
+}
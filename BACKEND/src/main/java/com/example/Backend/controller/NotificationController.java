@@ -0,0 +1,53 @@
+package com.example.Backend.controller;
+
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.model.Notification;
+import com.example.Backend.service.NotificationService;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.Map;
+
+//the signed-in user's own notifications; the principal name is their user id
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationController {
+
+    private final NotificationService notificationService;
+
+    public NotificationController(NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    //newest activity first
+    @GetMapping
+    public ResponseEntity<CursorPage<Notification>> getNotifications(
+            Principal principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return new ResponseEntity<>(notificationService.getNotifications(principal.getName(), cursor, limit),
+                HttpStatus.OK);
+    }
+
+    //for the badge; stops counting at 100
+    @GetMapping("/unread-count")
+    public ResponseEntity<Map<String, Long>> getUnreadCount(Principal principal) {
+        return new ResponseEntity<>(Map.of("unread", notificationService.countUnread(principal.getName())),
+                HttpStatus.OK);
+    }
+
+    @PostMapping("/{id}/read")
+    public ResponseEntity<Void> markRead(@PathVariable String id, Principal principal) {
+        boolean found = notificationService.markRead(principal.getName(), id);
+        return new ResponseEntity<>(found ? HttpStatus.NO_CONTENT : HttpStatus.NOT_FOUND);
+    }
+
+    @PostMapping("/read-all")
+    public ResponseEntity<Map<String, Long>> markAllRead(Principal principal) {
+        return new ResponseEntity<>(Map.of("updated", notificationService.markAllRead(principal.getName())),
+                HttpStatus.OK);
+    }
+}
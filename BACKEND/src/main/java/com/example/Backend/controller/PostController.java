@@ -1,7 +1,8 @@
 package com.example.Backend.controller;
 
-import java.util.List;
+import java.security.Principal;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -15,7 +16,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.dto.LikeResult;
+import com.example.Backend.dto.PostCard;
 import com.example.Backend.model.Comment;
 import com.example.Backend.model.Like;
 import com.example.Backend.model.Post;
@@ -29,6 +34,9 @@ public class PostController {
     @Autowired
     private PostService postService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     // Create a post for a specific user
     @PostMapping("/user/{userId}")
     public ResponseEntity<Post> createPostForUser(@PathVariable String userId, @RequestBody Post post) {
@@ -37,10 +45,13 @@ public class PostController {
         return new ResponseEntity<>(createdPost, HttpStatus.CREATED);
     }
 
-    // get all posts
+    // get one page of posts, newest first
     @GetMapping
-    public ResponseEntity<List<Post>> getAllPosts() {
-        List<Post> posts = postService.getAllPosts();
+    public ResponseEntity<CursorPage<PostCard>> getAllPosts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Principal principal) {
+        CursorPage<PostCard> posts = postService.getPostsPage(cursor, limit, viewerOf(principal));
         return new ResponseEntity<>(posts, HttpStatus.OK);
     }
 
@@ -53,9 +64,9 @@ public class PostController {
 
     // Get posts by user ID
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Post>> getPostsByUserId(@PathVariable String userId) {
-        List<Post> posts = postService.getPostsByUserId(userId);
-        return new ResponseEntity<>(posts, HttpStatus.OK);
+    public ResponseEntity<StreamingResponseBody> getPostsByUserId(@PathVariable String userId, Principal principal) {
+        String viewerId = viewerOf(principal);
+        return JsonArrayResponse.of(objectMapper, () -> postService.getPostsByUserId(userId, viewerId));
     }
 
     // Update a post
@@ -72,6 +83,16 @@ public class PostController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    // Get one page of comments on a post, newest first
+    @GetMapping("/{postId}/comments")
+    public ResponseEntity<CursorPage<Comment>> getComments(
+            @PathVariable String postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<Comment> comments = postService.getComments(postId, cursor, limit);
+        return new ResponseEntity<>(comments, HttpStatus.OK);
+    }
+
     // Add a comment to a post
     @PostMapping("/{postId}/comments")
     public ResponseEntity<Post> addComment(@PathVariable String postId, @RequestBody Comment comment) {
@@ -84,8 +105,9 @@ public class PostController {
     public ResponseEntity<Post> updateComment(
             @PathVariable String postId,
             @PathVariable String commentId,
-            @RequestBody Comment comment) {
-        Post updatedPost = postService.updateComment(postId, commentId, comment);
+            @RequestBody Comment comment,
+            Principal principal) {
+        Post updatedPost = postService.updateComment(postId, commentId, comment, viewerOf(principal));
         return new ResponseEntity<>(updatedPost, HttpStatus.OK);
     }
 
@@ -94,22 +116,27 @@ public class PostController {
     public ResponseEntity<Post> deleteComment(
             @PathVariable String postId,
             @PathVariable String commentId,
-            @RequestParam String userId) {
-        Post updatedPost = postService.deleteComment(postId, commentId, userId);
+            Principal principal) {
+        Post updatedPost = postService.deleteComment(postId, commentId, viewerOf(principal));
         return new ResponseEntity<>(updatedPost, HttpStatus.OK);
     }
 
     // Add a like to a post
     @PostMapping("/{postId}/likes")
-    public ResponseEntity<Post> addLike(@PathVariable String postId, @RequestBody Like like) {
-        Post updatedPost = postService.addLike(postId, like);
-        return new ResponseEntity<>(updatedPost, HttpStatus.CREATED);
+    public ResponseEntity<LikeResult> addLike(@PathVariable String postId, @RequestBody Like like) {
+        LikeResult result = postService.addLike(postId, like);
+        return new ResponseEntity<>(result, HttpStatus.CREATED);
     }
 
     // Remove a like from a post
     @DeleteMapping("/{postId}/likes/{userId}")
-    public ResponseEntity<Post> removeLike(@PathVariable String postId, @PathVariable String userId) {
-        Post updatedPost = postService.removeLike(postId, userId);
-        return new ResponseEntity<>(updatedPost, HttpStatus.OK);
+    public ResponseEntity<LikeResult> removeLike(@PathVariable String postId, @PathVariable String userId) {
+        LikeResult result = postService.removeLike(postId, userId);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    //list views mark items the signed-in user has liked
+    private String viewerOf(Principal principal) {
+        return principal == null ? null : principal.getName();
     }
-}
\ No newline at end of file
+}
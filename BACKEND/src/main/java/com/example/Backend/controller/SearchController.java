@@ -0,0 +1,43 @@
+package com.example.Backend.controller;
+
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.dto.FeedItem;
+import com.example.Backend.enums.ContentType;
+import com.example.Backend.service.SearchService;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    //best matches first across posts, plans and progress; repeat type to search only some of them
+    @GetMapping
+    public ResponseEntity<CursorPage<FeedItem>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) List<ContentType> type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Principal principal) {
+        String viewerId = principal == null ? null : principal.getName();
+        Set<ContentType> types = type == null || type.isEmpty() ? null : EnumSet.copyOf(type);
+        try {
+            return new ResponseEntity<>(searchService.search(q, types, cursor, limit, viewerId), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.Backend.controller;
+
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.dto.UserProfileDTO;
+import com.example.Backend.service.SkillIndex;
+import com.example.Backend.service.SkillService;
+import com.example.Backend.service.UserService;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+public class SkillController {
+
+    private final SkillService skillService;
+    private final UserService userService;
+
+    public SkillController(SkillService skillService, UserService userService) {
+        this.skillService = skillService;
+        this.userService = userService;
+    }
+
+    //autocomplete: the most widely held skills starting with prefix
+    @GetMapping("/skills/suggest")
+    public ResponseEntity<List<SkillIndex.Suggestion>> suggest(
+            @RequestParam(defaultValue = "") String prefix,
+            @RequestParam(required = false) Integer limit) {
+        return new ResponseEntity<>(skillService.suggest(prefix, limit), HttpStatus.OK);
+    }
+
+    //people with every listed skill, e.g. ?all=react,typescript
+    @GetMapping("/users/by-skills")
+    public ResponseEntity<CursorPage<UserProfileDTO>> findBySkills(
+            @RequestParam List<String> all,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        SkillIndex.Page page = skillService.usersWithAll(all, cursor, limit);
+        boolean hasMore = page.getLast() != null;
+        CursorPage<UserProfileDTO> users = new CursorPage<>(userService.getUsersByIds(page.getUserIds()),
+                page.getLast(), hasMore);
+        return new ResponseEntity<>(users, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.Backend.dto;
+
+//how much content a user has published, per type and in total
+public class ContentCounts {
+    private long posts;
+    private long learningPlans;
+    private long learningProgress;
+
+    public ContentCounts() {
+    }
+
+    public ContentCounts(long posts, long learningPlans, long learningProgress) {
+        this.posts = posts;
+        this.learningPlans = learningPlans;
+        this.learningProgress = learningProgress;
+    }
+
+    public long getPosts() {
+        return posts;
+    }
+
+    public void setPosts(long posts) {
+        this.posts = posts;
+    }
+
+    public long getLearningPlans() {
+        return learningPlans;
+    }
+
+    public void setLearningPlans(long learningPlans) {
+        this.learningPlans = learningPlans;
+    }
+
+    public long getLearningProgress() {
+        return learningProgress;
+    }
+
+    public void setLearningProgress(long learningProgress) {
+        this.learningProgress = learningProgress;
+    }
+
+    //kept under the name the profile page already reads
+    public long getTotalPosts() {
+        return posts + learningPlans + learningProgress;
+    }
+}
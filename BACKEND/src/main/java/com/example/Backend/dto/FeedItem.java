@@ -0,0 +1,55 @@
+package com.example.Backend.dto;
+
+import com.example.Backend.enums.ContentType;
+
+import java.util.Date;
+
+//one entry of a mixed feed; type tells the client how to render item
+public class FeedItem {
+    private ContentType type;
+    private String id;
+    private Date createdAt;
+    private Object item;
+
+    public FeedItem() {
+    }
+
+    public FeedItem(ContentType type, String id, Date createdAt, Object item) {
+        this.type = type;
+        this.id = id;
+        this.createdAt = createdAt;
+        this.item = item;
+    }
+
+    public ContentType getType() {
+        return type;
+    }
+
+    public void setType(ContentType type) {
+        this.type = type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Object getItem() {
+        return item;
+    }
+
+    public void setItem(Object item) {
+        this.item = item;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.Backend.dto;
+
+import com.example.Backend.model.Comment;
+import com.example.Backend.model.LearningPlan;
+
+import java.util.Date;
+import java.util.List;
+
+//list view of a learning plan: counts instead of the likes array, and only the embedded comment preview
+public class LearningPlanCard {
+    private String id;
+    private String userId;
+    private String userName;
+    private String title;
+    private String description;
+    private String topics;
+    private String resources;
+    private Date createdAt;
+    private Date updatedAt;
+    private long likeCount;
+    private long commentCount;
+    private boolean likedByViewer;
+    private List<Comment> comments;
+
+    //expects an entity read through CardProjection: likes holds at most the viewer's own like
+    public static LearningPlanCard from(LearningPlan learningPlan, String viewerId) {
+        LearningPlanCard card = new LearningPlanCard();
+        card.setId(learningPlan.getId());
+        card.setUserId(learningPlan.getUserId());
+        card.setUserName(learningPlan.getUserName());
+        card.setTitle(learningPlan.getTitle());
+        card.setDescription(learningPlan.getDescription());
+        card.setTopics(learningPlan.getTopics());
+        card.setResources(learningPlan.getResources());
+        card.setCreatedAt(learningPlan.getCreatedAt());
+        card.setUpdatedAt(learningPlan.getUpdatedAt());
+        card.setLikeCount(learningPlan.getLikeCount());
+        card.setCommentCount(learningPlan.getCommentCount());
+        card.setLikedByViewer(viewerId != null && learningPlan.getLikes() != null
+                && learningPlan.getLikes().stream().anyMatch(like -> viewerId.equals(like.getUserId())));
+        card.setComments(learningPlan.getComments());
+        return card;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getTopics() {
+        return topics;
+    }
+
+    public void setTopics(String topics) {
+        this.topics = topics;
+    }
+
+    public String getResources() {
+        return resources;
+    }
+
+    public void setResources(String resources) {
+        this.resources = resources;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public long getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(long likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    public long getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(long commentCount) {
+        this.commentCount = commentCount;
+    }
+
+    public boolean isLikedByViewer() {
+        return likedByViewer;
+    }
+
+    public void setLikedByViewer(boolean likedByViewer) {
+        this.likedByViewer = likedByViewer;
+    }
+
+    public List<Comment> getComments() {
+        return comments;
+    }
+
+    public void setComments(List<Comment> comments) {
+        this.comments = comments;
+    }
+}
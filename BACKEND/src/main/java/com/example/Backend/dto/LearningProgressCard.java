@@ -0,0 +1,198 @@
+package com.example.Backend.dto;
+
+import com.example.Backend.model.Comment;
+import com.example.Backend.model.LearningProgress;
+
+import java.util.Date;
+import java.util.List;
+
+//list view of a progress entry: counts instead of the likes array, and only the embedded comment preview
+public class LearningProgressCard {
+    private String id;
+    private String userId;
+    private String userName;
+    private String title;
+    private String description;
+    private String templateType;
+    private String status;
+    private String tutorialName;
+    private String projectName;
+    private String skillsLearned;
+    private String challenges;
+    private String nextSteps;
+    private Date createdAt;
+    private Date updatedAt;
+    private long likeCount;
+    private long commentCount;
+    private boolean likedByViewer;
+    private List<Comment> comments;
+
+    //expects an entity read through CardProjection: likes holds at most the viewer's own like
+    public static LearningProgressCard from(LearningProgress learningProgress, String viewerId) {
+        LearningProgressCard card = new LearningProgressCard();
+        card.setId(learningProgress.getId());
+        card.setUserId(learningProgress.getUserId());
+        card.setUserName(learningProgress.getUserName());
+        card.setTitle(learningProgress.getTitle());
+        card.setDescription(learningProgress.getDescription());
+        card.setTemplateType(learningProgress.getTemplateType());
+        card.setStatus(learningProgress.getStatus());
+        card.setTutorialName(learningProgress.getTutorialName());
+        card.setProjectName(learningProgress.getProjectName());
+        card.setSkillsLearned(learningProgress.getSkillsLearned());
+        card.setChallenges(learningProgress.getChallenges());
+        card.setNextSteps(learningProgress.getNextSteps());
+        card.setCreatedAt(learningProgress.getCreatedAt());
+        card.setUpdatedAt(learningProgress.getUpdatedAt());
+        card.setLikeCount(learningProgress.getLikeCount());
+        card.setCommentCount(learningProgress.getCommentCount());
+        card.setLikedByViewer(viewerId != null && learningProgress.getLikes() != null
+                && learningProgress.getLikes().stream().anyMatch(like -> viewerId.equals(like.getUserId())));
+        card.setComments(learningProgress.getComments());
+        return card;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getTemplateType() {
+        return templateType;
+    }
+
+    public void setTemplateType(String templateType) {
+        this.templateType = templateType;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getTutorialName() {
+        return tutorialName;
+    }
+
+    public void setTutorialName(String tutorialName) {
+        this.tutorialName = tutorialName;
+    }
+
+    public String getProjectName() {
+        return projectName;
+    }
+
+    public void setProjectName(String projectName) {
+        this.projectName = projectName;
+    }
+
+    public String getSkillsLearned() {
+        return skillsLearned;
+    }
+
+    public void setSkillsLearned(String skillsLearned) {
+        this.skillsLearned = skillsLearned;
+    }
+
+    public String getChallenges() {
+        return challenges;
+    }
+
+    public void setChallenges(String challenges) {
+        this.challenges = challenges;
+    }
+
+    public String getNextSteps() {
+        return nextSteps;
+    }
+
+    public void setNextSteps(String nextSteps) {
+        this.nextSteps = nextSteps;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public long getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(long likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    public long getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(long commentCount) {
+        this.commentCount = commentCount;
+    }
+
+    public boolean isLikedByViewer() {
+        return likedByViewer;
+    }
+
+    public void setLikedByViewer(boolean likedByViewer) {
+        this.likedByViewer = likedByViewer;
+    }
+
+    public List<Comment> getComments() {
+        return comments;
+    }
+
+    public void setComments(List<Comment> comments) {
+        this.comments = comments;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.Backend.dto;
+
+//compact response for like/unlike so clients do not re-download the whole document
+public class LikeResult {
+    private String id;
+    private long likeCount;
+    private boolean liked;
+
+    public LikeResult() {
+    }
+
+    public LikeResult(String id, long likeCount, boolean liked) {
+        this.id = id;
+        this.likeCount = likeCount;
+        this.liked = liked;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public long getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(long likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    public boolean isLiked() {
+        return liked;
+    }
+
+    public void setLiked(boolean liked) {
+        this.liked = liked;
+    }
+}
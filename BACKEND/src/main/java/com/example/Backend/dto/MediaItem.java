@@ -0,0 +1,51 @@
+package com.example.Backend.dto;
+
+//reference to stored media as kept in Post.mediaUrls (serialized as JSON)
+public class MediaItem {
+    private String id;
+    private String url;
+    private String type;
+    private String fileType;
+
+    public MediaItem() {
+    }
+
+    public MediaItem(String id, String url, String type, String fileType) {
+        this.id = id;
+        this.url = url;
+        this.type = type;
+        this.fileType = fileType;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getFileType() {
+        return fileType;
+    }
+
+    public void setFileType(String fileType) {
+        this.fileType = fileType;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.Backend.dto;
+
+import com.example.Backend.model.Comment;
+import com.example.Backend.model.Post;
+
+import java.util.Date;
+import java.util.List;
+
+//list view of a post: counts instead of the likes array, and only the embedded comment preview
+public class PostCard {
+    private String id;
+    private String userId;
+    private String userName;
+    private String description;
+    private List<String> mediaUrls;
+    private Date createdAt;
+    private Date updatedAt;
+    private long likeCount;
+    private long commentCount;
+    private boolean likedByViewer;
+    private List<Comment> comments;
+
+    //expects an entity read through CardProjection: likes holds at most the viewer's own like
+    public static PostCard from(Post post, String viewerId) {
+        PostCard card = new PostCard();
+        card.setId(post.getId());
+        card.setUserId(post.getUserId());
+        card.setUserName(post.getUserName());
+        card.setDescription(post.getDescription());
+        card.setMediaUrls(post.getMediaUrls());
+        card.setCreatedAt(post.getCreatedAt());
+        card.setUpdatedAt(post.getUpdatedAt());
+        card.setLikeCount(post.getLikeCount());
+        card.setCommentCount(post.getCommentCount());
+        card.setLikedByViewer(viewerId != null && post.getLikes() != null
+                && post.getLikes().stream().anyMatch(like -> viewerId.equals(like.getUserId())));
+        card.setComments(post.getComments());
+        return card;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public List<String> getMediaUrls() {
+        return mediaUrls;
+    }
+
+    public void setMediaUrls(List<String> mediaUrls) {
+        this.mediaUrls = mediaUrls;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public long getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(long likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    public long getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(long commentCount) {
+        this.commentCount = commentCount;
+    }
+
+    public boolean isLikedByViewer() {
+        return likedByViewer;
+    }
+
+    public void setLikedByViewer(boolean likedByViewer) {
+        this.likedByViewer = likedByViewer;
+    }
+
+    public List<Comment> getComments() {
+        return comments;
+    }
+
+    public void setComments(List<Comment> comments) {
+        this.comments = comments;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.Backend.dto;
+
+import com.example.Backend.enums.ContentType;
+import com.example.Backend.enums.PushEventType;
+
+//one change pushed to live clients: what happened, to which item, and only the data needed to patch the screen
+public class PushEvent {
+    private PushEventType type;
+    private ContentType contentType;
+    private String itemId;
+    private Object data;
+
+    public PushEvent() {
+    }
+
+    public PushEvent(PushEventType type, ContentType contentType, String itemId, Object data) {
+        this.type = type;
+        this.contentType = contentType;
+        this.itemId = itemId;
+        this.data = data;
+    }
+
+    public PushEventType getType() {
+        return type;
+    }
+
+    public void setType(PushEventType type) {
+        this.type = type;
+    }
+
+    public ContentType getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(ContentType contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(String itemId) {
+        this.itemId = itemId;
+    }
+
+    public Object getData() {
+        return data;
+    }
+
+    public void setData(Object data) {
+        this.data = data;
+    }
+}
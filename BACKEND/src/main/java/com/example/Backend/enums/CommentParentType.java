@@ -0,0 +1,5 @@
+package com.example.Backend.enums;
+
+public enum CommentParentType {
+    POST, LEARNING_PLAN, LEARNING_PROGRESS
+}
@@ -0,0 +1,5 @@
+package com.example.Backend.enums;
+
+public enum NotificationType {
+    LIKE, COMMENT
+}
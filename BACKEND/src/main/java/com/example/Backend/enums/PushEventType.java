@@ -0,0 +1,6 @@
+package com.example.Backend.enums;
+
+public enum PushEventType {
+    //sent once per connection, carrying its id
+    READY, LIKES, COMMENT, NOTIFICATION, FEED_ITEM
+}
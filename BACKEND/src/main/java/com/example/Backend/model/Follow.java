@@ -0,0 +1,69 @@
+package com.example.Backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+//one edge of the follower graph: followerId follows followeeId
+@Document(collection = "follows")
+@CompoundIndex(name = "follower_followee_idx", def = "{'followerId': 1, 'followeeId': 1}", unique = true)
+@CompoundIndex(name = "followee_createdAt_idx", def = "{'followeeId': 1, 'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "follower_createdAt_idx", def = "{'followerId': 1, 'createdAt': -1, '_id': -1}")
+//only the few edges to celebrities are indexed; feed reads look them up per follower
+@CompoundIndex(name = "follower_celebrity_idx", def = "{'followerId': 1, 'celebrity': 1}",
+        partialFilter = "{'celebrity': true}")
+@AllArgsConstructor
+@NoArgsConstructor
+public class Follow {
+    @Id
+    private String id;
+    private String followerId;
+    private String followeeId;
+    private Date createdAt;
+    //the followee has more followers than timeline.celebrity-threshold, so their items are merged on read
+    private boolean celebrity;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFollowerId() {
+        return followerId;
+    }
+
+    public void setFollowerId(String followerId) {
+        this.followerId = followerId;
+    }
+
+    public String getFolloweeId() {
+        return followeeId;
+    }
+
+    public void setFolloweeId(String followeeId) {
+        this.followeeId = followeeId;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public boolean isCelebrity() {
+        return celebrity;
+    }
+
+    public void setCelebrity(boolean celebrity) {
+        this.celebrity = celebrity;
+    }
+}
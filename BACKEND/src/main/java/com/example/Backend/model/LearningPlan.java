@@ -4,9 +4,12 @@ import java.util.Date;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "learning_plan")
+@CompoundIndex(name = "createdAt_id_idx", def = "{'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "userId_createdAt_idx", def = "{'userId': 1, 'createdAt': -1, '_id': -1}")
 public class LearningPlan {
     @Id
     private String id;
@@ -19,7 +22,12 @@ public class LearningPlan {
     private Date createdAt;
     private Date updatedAt;
     private List<Like> likes;
+    private long likeCount;
+    //latest comments only; the full list lives in the comments collection
     private List<Comment> comments;
+    private long commentCount;
+    //false on documents written before comments moved out, whose embedded list may still hold all of them
+    private boolean commentsMigrated;
 
     // Getters, setters, constructors
     public LearningPlan() {
@@ -120,6 +128,14 @@ public class LearningPlan {
         this.likes = likes;
     }
 
+    public long getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(long likeCount) {
+        this.likeCount = likeCount;
+    }
+
     public List<Comment> getComments() {
         return comments;
     }
@@ -128,4 +144,20 @@ public class LearningPlan {
         this.comments = comments;
     }
 
+    public long getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(long commentCount) {
+        this.commentCount = commentCount;
+    }
+
+
+    public boolean isCommentsMigrated() {
+        return commentsMigrated;
+    }
+
+    public void setCommentsMigrated(boolean commentsMigrated) {
+        this.commentsMigrated = commentsMigrated;
+    }
 }
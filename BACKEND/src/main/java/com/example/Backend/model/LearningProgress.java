@@ -6,9 +6,12 @@ import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "learning_progress")
+@CompoundIndex(name = "createdAt_id_idx", def = "{'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "userId_createdAt_idx", def = "{'userId': 1, 'createdAt': -1, '_id': -1}")
 @AllArgsConstructor
 @NoArgsConstructor
 public class LearningProgress {
@@ -28,7 +31,12 @@ public class LearningProgress {
     private Date createdAt;
     private Date updatedAt;
     private List<Like> likes;
+    private long likeCount;
+    //latest comments only; the full list lives in the comments collection
     private List<Comment> comments;
+    private long commentCount;
+    //false on documents written before comments moved out, whose embedded list may still hold all of them
+    private boolean commentsMigrated;
 
     // Getters and setters
     public String getId() {
@@ -151,6 +159,14 @@ public class LearningProgress {
         this.likes = likes;
     }
 
+    public long getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(long likeCount) {
+        this.likeCount = likeCount;
+    }
+
     public List<Comment> getComments() {
         return comments;
     }
@@ -158,4 +174,20 @@ public class LearningProgress {
     public void setComments(List<Comment> comments) {
         this.comments = comments;
     }
+
+    public long getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(long commentCount) {
+        this.commentCount = commentCount;
+    }
+
+    public boolean isCommentsMigrated() {
+        return commentsMigrated;
+    }
+
+    public void setCommentsMigrated(boolean commentsMigrated) {
+        this.commentsMigrated = commentsMigrated;
+    }
 }
\ No newline at end of file
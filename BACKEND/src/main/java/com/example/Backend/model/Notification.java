@@ -0,0 +1,152 @@
+package com.example.Backend.model;
+
+import com.example.Backend.enums.ContentType;
+import com.example.Backend.enums.NotificationType;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+//what a user is told about activity on their content. likes on one item are folded into a single unread
+//notification ("X and N others liked..."), found through groupKey until it is read; comments are one each
+@Document(collection = "notifications")
+@CompoundIndexes({
+        @CompoundIndex(name = "recipient_createdAt_idx", def = "{'recipientId': 1, 'createdAt': -1, '_id': -1}"),
+        //only unread notifications are counted, so only they are indexed for it
+        @CompoundIndex(name = "recipient_unread_idx", def = "{'recipientId': 1}", partialFilter = "{'read': false}"),
+        @CompoundIndex(name = "groupKey_unread_idx", def = "{'groupKey': 1}", unique = true,
+                partialFilter = "{'groupKey': {'$exists': true}, 'read': false}")
+})
+@AllArgsConstructor
+@NoArgsConstructor
+public class Notification {
+    private String id;
+    private String recipientId;
+    private NotificationType type;
+    private ContentType contentType;
+    private String itemId;
+    private String groupKey;
+    //latest actors first, at most a few; actorCount holds how many there were in total
+    private List<Actor> actors = new ArrayList<>();
+    private long actorCount;
+    private String excerpt;
+    private boolean read;
+    //time of the latest activity, so a group that keeps collecting likes stays near the top
+    private Date createdAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getRecipientId() {
+        return recipientId;
+    }
+
+    public void setRecipientId(String recipientId) {
+        this.recipientId = recipientId;
+    }
+
+    public NotificationType getType() {
+        return type;
+    }
+
+    public void setType(NotificationType type) {
+        this.type = type;
+    }
+
+    public ContentType getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(ContentType contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(String itemId) {
+        this.itemId = itemId;
+    }
+
+    public String getGroupKey() {
+        return groupKey;
+    }
+
+    public void setGroupKey(String groupKey) {
+        this.groupKey = groupKey;
+    }
+
+    public List<Actor> getActors() {
+        return actors;
+    }
+
+    public void setActors(List<Actor> actors) {
+        this.actors = actors;
+    }
+
+    public long getActorCount() {
+        return actorCount;
+    }
+
+    public void setActorCount(long actorCount) {
+        this.actorCount = actorCount;
+    }
+
+    public String getExcerpt() {
+        return excerpt;
+    }
+
+    public void setExcerpt(String excerpt) {
+        this.excerpt = excerpt;
+    }
+
+    public boolean isRead() {
+        return read;
+    }
+
+    public void setRead(boolean read) {
+        this.read = read;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Actor {
+        private String userId;
+        private String name;
+
+        public String getUserId() {
+            return userId;
+        }
+
+        public void setUserId(String userId) {
+            this.userId = userId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.Backend.model;
+
+import com.example.Backend.enums.ContentType;
+import com.example.Backend.enums.NotificationType;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+//outbox entry written in the same transaction as the like or comment it reports; the dispatcher turns it into a
+//notification and deletes it, oldest (by id) first
+@Document(collection = "notification_outbox")
+@AllArgsConstructor
+@NoArgsConstructor
+public class NotificationEvent {
+    private String id;
+    private NotificationType type;
+    private ContentType contentType;
+    private String itemId;
+    private String recipientId;
+    private String actorId;
+    //commenter name as stored on the comment; likers are looked up when the batch is dispatched
+    private String actorName;
+    private String excerpt;
+    private Date createdAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public NotificationType getType() {
+        return type;
+    }
+
+    public void setType(NotificationType type) {
+        this.type = type;
+    }
+
+    public ContentType getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(ContentType contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(String itemId) {
+        this.itemId = itemId;
+    }
+
+    public String getRecipientId() {
+        return recipientId;
+    }
+
+    public void setRecipientId(String recipientId) {
+        this.recipientId = recipientId;
+    }
+
+    public String getActorId() {
+        return actorId;
+    }
+
+    public void setActorId(String actorId) {
+        this.actorId = actorId;
+    }
+
+    public String getActorName() {
+        return actorName;
+    }
+
+    public void setActorName(String actorName) {
+        this.actorName = actorName;
+    }
+
+    public String getExcerpt() {
+        return excerpt;
+    }
+
+    public void setExcerpt(String excerpt) {
+        this.excerpt = excerpt;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+}
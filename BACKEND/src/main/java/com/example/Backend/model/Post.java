@@ -6,9 +6,12 @@ import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "posts")
+@CompoundIndex(name = "createdAt_id_idx", def = "{'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "userId_createdAt_idx", def = "{'userId': 1, 'createdAt': -1, '_id': -1}")
 @AllArgsConstructor
 @NoArgsConstructor
 public class Post {
@@ -21,7 +24,12 @@ public class Post {
     private Date createdAt;
     private Date updatedAt;
     private List<Like> likes;
+    private long likeCount;
+    //latest comments only; the full list lives in the comments collection
     private List<Comment> comments;
+    private long commentCount;
+    //false on documents written before comments moved out, whose embedded list may still hold all of them
+    private boolean commentsMigrated;
 
     public String getId() {
         return id;
@@ -87,6 +95,14 @@ public class Post {
         this.likes = likes;
     }
 
+    public long getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(long likeCount) {
+        this.likeCount = likeCount;
+    }
+
     public List<Comment> getComments() {
         return comments;
     }
@@ -94,4 +110,20 @@ public class Post {
     public void setComments(List<Comment> comments) {
         this.comments = comments;
     }
+
+    public long getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(long commentCount) {
+        this.commentCount = commentCount;
+    }
+
+    public boolean isCommentsMigrated() {
+        return commentsMigrated;
+    }
+
+    public void setCommentsMigrated(boolean commentsMigrated) {
+        this.commentsMigrated = commentsMigrated;
+    }
 }
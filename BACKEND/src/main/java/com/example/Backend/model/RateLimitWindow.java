@@ -0,0 +1,67 @@
+package com.example.Backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+//hits on one rate-limit key in its current fixed window and the one before, summed over every node; dropped once
+//no sliding window needs it
+@Document(collection = "rate_limits")
+@AllArgsConstructor
+@NoArgsConstructor
+public class RateLimitWindow {
+    //the rate-limit key
+    @Id
+    private String id;
+    //index of the window count belongs to
+    private long window;
+    private long count;
+    //hits in window - 1, carried over when the first hit of a new window arrives
+    private long previous;
+    @Indexed(name = "expiresAt_ttl_idx", expireAfterSeconds = 0)
+    private Date expiresAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public long getWindow() {
+        return window;
+    }
+
+    public void setWindow(long window) {
+        this.window = window;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public long getPrevious() {
+        return previous;
+    }
+
+    public void setPrevious(long previous) {
+        this.previous = previous;
+    }
+
+    public Date getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Date expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
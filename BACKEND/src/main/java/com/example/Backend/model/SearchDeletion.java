@@ -0,0 +1,48 @@
+package com.example.Backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+//a deleted post, plan or progress id; nodes drop it from their search index on their next sync, and mongo drops
+//the document once every running node has long since seen it
+@Document(collection = "search_deletions")
+@AllArgsConstructor
+@NoArgsConstructor
+public class SearchDeletion {
+    @Id
+    private String id;
+    //nodes poll for deletions newer than their last sync
+    @Indexed(name = "deletedAt_idx")
+    private Date deletedAt;
+    @Indexed(name = "expiresAt_ttl_idx", expireAfterSeconds = 0)
+    private Date expiresAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Date getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(Date deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    public Date getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Date expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.Backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+import org.springframework.data.mongodb.core.mapping.MongoId;
+
+import java.util.List;
+
+//one document per user holding the newest entries of their home feed, newest first and capped in size
+@Document(collection = "timelines")
+@CompoundIndex(name = "entries_itemId_idx", def = "{'entries.itemId': 1}")
+@AllArgsConstructor
+@NoArgsConstructor
+public class Timeline {
+    //the owning user's id, kept as a plain string so raw aggregations can match it directly
+    @MongoId(FieldType.STRING)
+    private String id;
+    private List<TimelineEntry> entries;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public List<TimelineEntry> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<TimelineEntry> entries) {
+        this.entries = entries;
+    }
+}
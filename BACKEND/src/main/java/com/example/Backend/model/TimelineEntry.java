@@ -0,0 +1,49 @@
+package com.example.Backend.model;
+
+import com.example.Backend.enums.ContentType;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+//reference to one feed item inside a user's precomputed timeline
+@AllArgsConstructor
+@NoArgsConstructor
+public class TimelineEntry {
+    private String itemId;
+    private ContentType itemType;
+    private String authorId;
+    private Date createdAt;
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(String itemId) {
+        this.itemId = itemId;
+    }
+
+    public ContentType getItemType() {
+        return itemType;
+    }
+
+    public void setItemType(ContentType itemType) {
+        this.itemType = itemType;
+    }
+
+    public String getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(String authorId) {
+        this.authorId = authorId;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+}
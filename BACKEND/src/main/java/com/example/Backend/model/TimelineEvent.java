@@ -0,0 +1,61 @@
+package com.example.Backend.model;
+
+import com.example.Backend.enums.ContentType;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+//outbox entry written in the same transaction as the post, plan or progress entry it announces; the timeline
+//dispatcher fans it out to the author's followers and deletes it, oldest (by id) first
+@Document(collection = "timeline_outbox")
+@AllArgsConstructor
+@NoArgsConstructor
+public class TimelineEvent {
+    private String id;
+    private String itemId;
+    private ContentType itemType;
+    private String authorId;
+    private Date createdAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(String itemId) {
+        this.itemId = itemId;
+    }
+
+    public ContentType getItemType() {
+        return itemType;
+    }
+
+    public void setItemType(ContentType itemType) {
+        this.itemType = itemType;
+    }
+
+    public String getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(String authorId) {
+        this.authorId = authorId;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.Backend.repository;
+
+import com.example.Backend.enums.ContentType;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Field;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+//field includes for list views: everything a card renders, and of the likes array only the viewer's own entry
+public final class CardProjection {
+
+    private static final List<String> COMMON = List.of(
+            "userId", "userName", "createdAt", "updatedAt", "likeCount", "commentCount", "comments");
+
+    private static final List<String> POST = List.of("description", "mediaUrls");
+    private static final List<String> LEARNING_PLAN = List.of("title", "description", "topics", "resources");
+    private static final List<String> LEARNING_PROGRESS = List.of("title", "description", "templateType", "status",
+            "tutorialName", "projectName", "skillsLearned", "challenges", "nextSteps");
+
+    private CardProjection() {
+    }
+
+    public static Consumer<Field> of(ContentType type, String viewerId) {
+        return fields -> apply(fields, type, viewerId);
+    }
+
+    public static void apply(Field fields, ContentType type, String viewerId) {
+        COMMON.forEach(fields::include);
+        switch (type) {
+            case POST -> POST.forEach(fields::include);
+            case LEARNING_PLAN -> LEARNING_PLAN.forEach(fields::include);
+            case LEARNING_PROGRESS -> LEARNING_PROGRESS.forEach(fields::include);
+        }
+        //$elemMatch returns at most one like, so likedByViewer costs one small element instead of the whole array
+        if (viewerId != null) {
+            fields.elemMatch("likes", Criteria.where("userId").is(viewerId));
+        }
+    }
+}
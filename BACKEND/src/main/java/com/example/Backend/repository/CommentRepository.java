@@ -0,0 +1,21 @@
+package com.example.Backend.repository;
+
+import com.example.Backend.enums.CommentParentType;
+import com.example.Backend.model.Comment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CommentRepository extends MongoRepository<Comment, String> {
+
+    // Latest comments of a parent, served by the parent_createdAt_idx index
+    List<Comment> findByParentTypeAndParentIdOrderByCreatedAtDescIdDesc(CommentParentType parentType, String parentId,
+                                                                     Pageable pageable);
+
+    long countByParentTypeAndParentId(CommentParentType parentType, String parentId);
+
+    void deleteByParentTypeAndParentId(CommentParentType parentType, String parentId);
+}
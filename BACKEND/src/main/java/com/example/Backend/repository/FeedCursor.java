@@ -0,0 +1,49 @@
+package com.example.Backend.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+//position in a (createdAt desc, id desc) ordered feed, encoded as an opaque token
+public class FeedCursor {
+    private final Date createdAt;
+    private final String id;
+
+    public FeedCursor(Date createdAt, String id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = createdAt.getTime() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    //malformed tokens throw InvalidCursorException
+    public static FeedCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        String raw;
+        long millis;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            millis = Long.parseLong(raw.substring(0, Math.max(raw.indexOf(':'), 0)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor", e);
+        }
+        String id = raw.substring(raw.indexOf(':') + 1);
+        if (id.isEmpty()) {
+            throw new InvalidCursorException("Invalid cursor", null);
+        }
+        return new FeedCursor(new Date(millis), id);
+    }
+}
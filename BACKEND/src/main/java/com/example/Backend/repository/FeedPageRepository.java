@@ -0,0 +1,98 @@
+package com.example.Backend.repository;
+
+import com.example.Backend.dto.CursorPage;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Field;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+//keyset pagination on (createdAt, id) descending, backed by a compound index on each paged collection
+@Repository
+public class FeedPageRepository {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final int STREAM_BATCH_SIZE = 100;
+
+    private final MongoTemplate mongoTemplate;
+
+    public FeedPageRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public <T> CursorPage<T> findPage(Class<T> type, String cursor, Integer limit,
+                                      Function<T, Date> createdAt, Function<T, String> id) {
+        return findPage(type, null, cursor, limit, createdAt, id);
+    }
+
+    //same as above, restricted to documents matching filter (which must prefix the supporting index)
+    public <T> CursorPage<T> findPage(Class<T> type, Criteria filter, String cursor, Integer limit,
+                                      Function<T, Date> createdAt, Function<T, String> id) {
+        return findPage(type, filter, null, cursor, limit, createdAt, id);
+    }
+
+    //same as above, reading only the fields selected by projection (createdAt and id are always returned)
+    public <T> CursorPage<T> findPage(Class<T> type, Criteria filter, Consumer<Field> projection, String cursor,
+                                      Integer limit, Function<T, Date> createdAt, Function<T, String> id) {
+        int pageSize = normalizePageSize(limit);
+        Query query = new Query();
+        if (filter != null) {
+            query.addCriteria(filter);
+        }
+        if (projection != null) {
+            projection.accept(query.fields());
+        }
+        FeedCursor after = FeedCursor.decode(cursor);
+        if (after != null) {
+            query.addCriteria(afterCursor(after));
+        }
+        //fetch one extra document to know whether another page exists
+        query.with(Sort.by(Sort.Direction.DESC, "createdAt", "id")).limit(pageSize + 1);
+
+        List<T> results = mongoTemplate.find(query, type);
+        boolean hasMore = results.size() > pageSize;
+        List<T> items = hasMore ? results.subList(0, pageSize) : results;
+
+        String nextCursor = null;
+        if (hasMore) {
+            T last = items.get(items.size() - 1);
+            nextCursor = new FeedCursor(createdAt.apply(last), id.apply(last)).encode();
+        }
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    //every matching document, newest first, for the unpaged per-user lists; read lazily in cursor batches,
+    //so the caller must close the stream
+    public <T> Stream<T> streamAll(Class<T> type, Criteria filter, Consumer<Field> projection) {
+        Query query = new Query(filter);
+        if (projection != null) {
+            projection.accept(query.fields());
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "createdAt", "id")).cursorBatchSize(STREAM_BATCH_SIZE);
+        return mongoTemplate.stream(query, type);
+    }
+
+    public static int normalizePageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    //(createdAt, id) < (cursor.createdAt, cursor.id) in descending feed order
+    public static Criteria afterCursor(FeedCursor after) {
+        return new Criteria().orOperator(
+                Criteria.where("createdAt").lt(after.getCreatedAt()),
+                new Criteria().andOperator(
+                        Criteria.where("createdAt").is(after.getCreatedAt()),
+                        Criteria.where("id").lt(after.getId())));
+    }
+}
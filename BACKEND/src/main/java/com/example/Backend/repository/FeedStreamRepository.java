@@ -0,0 +1,44 @@
+package com.example.Backend.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Field;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.function.Consumer;
+
+//reactive counterpart of FeedPageRepository: the same keyset order, emitted document by document instead of as a page
+@Repository
+public class FeedStreamRepository {
+
+    //documents fetched per round trip, and the most that can sit buffered behind a slow client
+    public static final int BATCH_SIZE = 64;
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    public FeedStreamRepository(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+    }
+
+    //newest first from just after cursor (null for the start); filter and projection as in FeedPageRepository
+    public <T> Flux<T> stream(Class<T> type, Criteria filter, Consumer<Field> projection, String cursor) {
+        Query query = new Query();
+        if (filter != null) {
+            query.addCriteria(filter);
+        }
+        if (projection != null) {
+            projection.accept(query.fields());
+        }
+        FeedCursor after = FeedCursor.decode(cursor);
+        if (after != null) {
+            query.addCriteria(FeedPageRepository.afterCursor(after));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "createdAt", "id")).cursorBatchSize(BATCH_SIZE);
+
+        //the response writer asks for one item at a time; limitRate turns that into whole batches from the driver
+        return reactiveMongoTemplate.find(query, type).limitRate(BATCH_SIZE);
+    }
+}
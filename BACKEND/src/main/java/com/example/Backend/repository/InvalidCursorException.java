@@ -0,0 +1,9 @@
+package com.example.Backend.repository;
+
+//a cursor token that was not produced by FeedCursor.encode; the client's fault, answered with 400
+public class InvalidCursorException extends IllegalArgumentException {
+
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -9,9 +9,6 @@ import java.util.List;
 @Repository
 public interface LearningPlanRepository extends MongoRepository<LearningPlan, String> {
 
-    // Find all learning plans ordered by creation date descending
-    List<LearningPlan> findAllByOrderByCreatedAtDesc();
-
     // Find all learning plans by userId
     List<LearningPlan> findByUserId(String userId);
 
@@ -13,8 +13,5 @@ public interface LearningProgressRepository extends MongoRepository<LearningProg
     // Get all by userId
     List<LearningProgress> findByUserId(String userId);
 
-    // Get all ordered by creation date descending
-    List<LearningProgress> findAllByOrderByCreatedAtDesc();
-
     List<LearningProgress> findByUserIdOrderByCreatedAtDesc(String userId);
 }
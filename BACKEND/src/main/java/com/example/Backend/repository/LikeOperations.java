@@ -0,0 +1,69 @@
+package com.example.Backend.repository;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+
+//single-round-trip like/unlike on any document with embedded likes and a likeCount counter
+@Repository
+public class LikeOperations {
+
+    private final MongoTemplate mongoTemplate;
+
+    public LikeOperations(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    //conditional $push + $inc: matches only if the user has not liked yet, so duplicates and lost updates are impossible
+    public LikeUpdate addLike(Class<?> type, String id, String userId) {
+        Query query = new Query(Criteria.where("_id").is(toObjectId(id)).and("likes.userId").ne(userId));
+        Update update = new Update()
+                .push("likes", new Document("userId", userId).append("createdAt", new Date()))
+                .inc("likeCount", 1);
+        return apply(type, id, query, update, true);
+    }
+
+    public LikeUpdate removeLike(Class<?> type, String id, String userId) {
+        Query query = new Query(Criteria.where("_id").is(toObjectId(id)).and("likes.userId").is(userId));
+        Update update = new Update()
+                .pull("likes", new Document("userId", userId))
+                .inc("likeCount", -1);
+        return apply(type, id, query, update, false);
+    }
+
+    private LikeUpdate apply(Class<?> type, String id, Query query, Update update, boolean liked) {
+        query.fields().include("userId").include("likeCount");
+        Document updated = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Document.class,
+                mongoTemplate.getCollectionName(type));
+        if (updated != null) {
+            return new LikeUpdate(id, updated.getString("userId"), countOf(updated), liked, true);
+        }
+
+        //no-op (already liked / not liked): read just the counter to answer the client
+        Query current = new Query(Criteria.where("_id").is(toObjectId(id)));
+        current.fields().include("userId").include("likeCount");
+        Document existing = mongoTemplate.findOne(current, Document.class, mongoTemplate.getCollectionName(type));
+        if (existing == null) {
+            return null;
+        }
+        return new LikeUpdate(id, existing.getString("userId"), countOf(existing), liked, false);
+    }
+
+    //raw Document queries bypass entity mapping, so convert generated ids ourselves
+    static Object toObjectId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    private long countOf(Document document) {
+        Number count = document.get("likeCount", Number.class);
+        return count != null ? count.longValue() : 0;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.Backend.repository;
+
+//outcome of an atomic like/unlike; changed is false when the request was a no-op
+public class LikeUpdate {
+    private final String id;
+    private final String ownerId;
+    private final long likeCount;
+    private final boolean liked;
+    private final boolean changed;
+
+    public LikeUpdate(String id, String ownerId, long likeCount, boolean liked, boolean changed) {
+        this.id = id;
+        this.ownerId = ownerId;
+        this.likeCount = likeCount;
+        this.liked = liked;
+        this.changed = changed;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    public long getLikeCount() {
+        return likeCount;
+    }
+
+    public boolean isLiked() {
+        return liked;
+    }
+
+    public boolean isChanged() {
+        return changed;
+    }
+}
@@ -11,7 +11,5 @@ import com.example.Backend.model.Post;
 public interface PostRepository extends MongoRepository<Post, String> {
     List<Post> findByUserId(String userId);
 
-    List<Post> findAllByOrderByCreatedAtDesc();
-
     List<Post> findByUserIdOrderByCreatedAtDesc(String userId);
 }
@@ -0,0 +1,152 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.dto.FeedItem;
+import com.example.Backend.dto.LearningPlanCard;
+import com.example.Backend.dto.LearningProgressCard;
+import com.example.Backend.dto.PostCard;
+import com.example.Backend.enums.ContentType;
+import com.example.Backend.model.LearningPlan;
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Post;
+import com.example.Backend.repository.CardProjection;
+import com.example.Backend.repository.FeedCursor;
+import com.example.Backend.repository.FeedPageRepository;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+//posts, plans and progress as one newest-first feed, merged lazily from one cursor per collection
+@Service
+public class ActivityService {
+
+    //same order as the per-collection feeds: createdAt desc, then id desc
+    static final Comparator<FeedItem> NEWEST_FIRST = Comparator
+            .comparing(FeedItem::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(FeedItem::getId, Comparator.reverseOrder());
+
+    private final MongoTemplate mongoTemplate;
+
+    public ActivityService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    //userId is optional; when given only that user's activity is merged (userId_createdAt_idx)
+    public CursorPage<FeedItem> getActivity(String userId, String cursor, Integer limit, String viewerId) {
+        int pageSize = FeedPageRepository.normalizePageSize(limit);
+        FeedCursor after = FeedCursor.decode(cursor);
+
+        List<Source<?>> sources = new ArrayList<>();
+        try {
+            sources.add(open(Post.class, ContentType.POST, userId, after, pageSize, viewerId,
+                    Post::getId, Post::getCreatedAt, post -> PostCard.from(post, viewerId)));
+            sources.add(open(LearningPlan.class, ContentType.LEARNING_PLAN, userId, after, pageSize, viewerId,
+                    LearningPlan::getId, LearningPlan::getCreatedAt, plan -> LearningPlanCard.from(plan, viewerId)));
+            sources.add(open(LearningProgress.class, ContentType.LEARNING_PROGRESS, userId, after, pageSize, viewerId,
+                    LearningProgress::getId, LearningProgress::getCreatedAt,
+                    progress -> LearningProgressCard.from(progress, viewerId)));
+            return merge(sources, pageSize);
+        } finally {
+            sources.forEach(Source::close);
+        }
+    }
+
+    //k-way merge: a heap holds the current head of each source, so each source is only advanced when its head is taken
+    private CursorPage<FeedItem> merge(List<Source<?>> sources, int pageSize) {
+        PriorityQueue<Source<?>> heads = new PriorityQueue<>(Comparator.comparing(Source::peek, NEWEST_FIRST));
+        for (Source<?> source : sources) {
+            if (source.peek() != null) {
+                heads.add(source);
+            }
+        }
+
+        List<FeedItem> items = new ArrayList<>(pageSize);
+        while (items.size() < pageSize && !heads.isEmpty()) {
+            Source<?> source = heads.poll();
+            items.add(source.next());
+            if (source.peek() != null) {
+                heads.add(source);
+            }
+        }
+
+        //anything left in the heap means there is another page
+        boolean hasMore = !heads.isEmpty();
+        String nextCursor = null;
+        if (hasMore) {
+            FeedItem last = items.get(items.size() - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    private <T> Source<T> open(Class<T> type, ContentType contentType, String userId, FeedCursor after,
+                               int pageSize, String viewerId, Function<T, String> id, Function<T, Date> createdAt,
+                               Function<T, Object> card) {
+        Query query = new Query();
+        if (userId != null && !userId.isEmpty()) {
+            query.addCriteria(Criteria.where("userId").is(userId));
+        }
+        if (after != null) {
+            query.addCriteria(FeedPageRepository.afterCursor(after));
+        }
+        CardProjection.apply(query.fields(), contentType, viewerId);
+        //a single source can fill at most the whole page plus the one item that proves another page exists;
+        //small batches mean a source that loses the merge early never ships its remaining documents
+        query.with(Sort.by(Sort.Direction.DESC, "createdAt", "id"))
+                .limit(pageSize + 1)
+                .cursorBatchSize(Math.max(1, (pageSize + 1) / 3));
+        Stream<T> stream = mongoTemplate.stream(query, type);
+        return new Source<>(stream, contentType, id, createdAt, card);
+    }
+
+    //one open Mongo cursor with a one-item look-ahead
+    private static class Source<T> {
+        private final Stream<T> stream;
+        private final Iterator<T> iterator;
+        private final ContentType type;
+        private final Function<T, String> id;
+        private final Function<T, Date> createdAt;
+        private final Function<T, Object> card;
+        private FeedItem head;
+
+        Source(Stream<T> stream, ContentType type, Function<T, String> id, Function<T, Date> createdAt,
+               Function<T, Object> card) {
+            this.stream = stream;
+            this.iterator = stream.iterator();
+            this.type = type;
+            this.id = id;
+            this.createdAt = createdAt;
+            this.card = card;
+            advance();
+        }
+
+        FeedItem peek() {
+            return head;
+        }
+
+        FeedItem next() {
+            FeedItem current = head;
+            advance();
+            return current;
+        }
+
+        private void advance() {
+            if (iterator.hasNext()) {
+                T item = iterator.next();
+                head = new FeedItem(type, id.apply(item), createdAt.apply(item), card.apply(item));
+            } else {
+                head = null;
+            }
+        }
+
+        void close() {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,446 @@
+package com.example.Backend.service;
+
+import com.example.Backend.enums.ContentType;
+import com.example.Backend.model.LearningPlan;
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Post;
+import com.example.Backend.model.User;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+//one-off bulk copy of whole collections to and from <bulk.dir>/<collection>.ndjson, started in its own process with
+//--spring.profiles.active=bulk and --bulk.mode=import or --bulk.mode=export (application-bulk.properties keeps the
+//http port, scheduled jobs and startup migrations off; the process exits when it is done). imports are read with a
+//streaming parser and written as upserts by _id in bulk batches by parallel workers, with at most two batches per
+//worker in memory; exports follow one cursor per collection in _id order. progress is checkpointed in
+//bulk_checkpoints after every batch, so rerunning after a failure resumes where the last run stopped
+@Component
+@Profile("bulk")
+@ConditionalOnProperty(name = "bulk.mode")
+public class BulkTransfer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkTransfer.class);
+
+    static final String CHECKPOINTS = "bulk_checkpoints";
+    private static final long PROGRESS_EVERY_MS = 5000;
+
+    private final MongoTemplate mongoTemplate;
+    private final RebuildRequests rebuildRequests;
+    private final TimelineService timelineService;
+    private final ConfigurableApplicationContext context;
+    private final String mode;
+    private final List<String> collections;
+    private final Path dir;
+    private final int batchSize;
+    private final int workers;
+    private final boolean ordered;
+    private final boolean resume;
+    private final boolean exit;
+
+    public BulkTransfer(MongoTemplate mongoTemplate, RebuildRequests rebuildRequests, TimelineService timelineService,
+                        ConfigurableApplicationContext context,
+                        @Value("${bulk.mode}") String mode,
+                        @Value("${bulk.collections:users,posts,learning_plan,learning_progress,comments,follows,"
+                                + "notifications,media.files,media.chunks}") List<String> collections,
+                        @Value("${bulk.dir:bulk}") Path dir,
+                        @Value("${bulk.batch-size:1000}") int batchSize,
+                        @Value("${bulk.workers:4}") int workers,
+                        @Value("${bulk.ordered:false}") boolean ordered,
+                        @Value("${bulk.resume:true}") boolean resume,
+                        @Value("${bulk.exit:true}") boolean exit) {
+        if (!"import".equals(mode) && !"export".equals(mode)) {
+            throw new IllegalArgumentException("bulk.mode must be import or export, not " + mode);
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.rebuildRequests = rebuildRequests;
+        this.timelineService = timelineService;
+        this.context = context;
+        this.mode = mode;
+        this.collections = collections;
+        this.dir = dir;
+        this.batchSize = Math.max(1, batchSize);
+        this.workers = Math.max(1, workers);
+        this.ordered = ordered;
+        this.resume = resume;
+        this.exit = exit;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        boolean succeeded = "import".equals(mode) ? importAll() : exportAll();
+        if (exit) {
+            System.exit(SpringApplication.exit(context, () -> succeeded ? 0 : 1));
+        }
+    }
+
+    //one collection after another, each written by all the workers
+    private boolean importAll() {
+        for (String collection : collections) {
+            if (!Files.exists(file(collection))) {
+                log.warn("Nothing to import into {}: {} does not exist", collection, file(collection));
+                continue;
+            }
+            try {
+                log.info("{}", importCollection(collection, file(collection)));
+            } catch (Exception e) {
+                log.error("Import of {} failed; run it again to resume from the last checkpoint", collection, e);
+                return false;
+            }
+        }
+        rebuildDerived();
+        return true;
+    }
+
+    //imported documents bypass the write paths, so what those keep current is rebuilt from them: every node's
+    //search and skill index, and the home timelines (from follows, so after every collection is in)
+    private void rebuildDerived() {
+        if (collections.contains(mongoTemplate.getCollectionName(User.class))) {
+            rebuildRequests.request(RebuildRequests.SKILLS);
+        }
+        boolean content = false;
+        content |= backfillTimelines(Post.class, ContentType.POST);
+        content |= backfillTimelines(LearningPlan.class, ContentType.LEARNING_PLAN);
+        content |= backfillTimelines(LearningProgress.class, ContentType.LEARNING_PROGRESS);
+        if (content) {
+            rebuildRequests.request(RebuildRequests.SEARCH);
+        }
+    }
+
+    private boolean backfillTimelines(Class<?> type, ContentType contentType) {
+        String collection = mongoTemplate.getCollectionName(type);
+        if (!collections.contains(collection)) {
+            return false;
+        }
+        long items = 0;
+        try (MongoCursor<Document> cursor = mongoTemplate.getCollection(collection).find()
+                .projection(new Document("userId", 1).append("createdAt", 1)).batchSize(batchSize).cursor()) {
+            while (cursor.hasNext()) {
+                Document item = cursor.next();
+                timelineService.backfill(contentType, item.get("_id").toString(), item.getString("userId"),
+                        item.getDate("createdAt"));
+                items++;
+            }
+        }
+        log.info("Fanned {} imported {} out to home timelines", items, collection);
+        return true;
+    }
+
+    //a cursor per collection, up to one per worker at a time
+    private boolean exportAll() {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(workers, collections.size()));
+        try {
+            List<Future<Report>> reports = new ArrayList<>();
+            for (String collection : collections) {
+                reports.add(pool.submit(() -> exportCollection(collection, file(collection))));
+            }
+            boolean succeeded = true;
+            for (int i = 0; i < reports.size(); i++) {
+                try {
+                    log.info("{}", reports.get(i).get());
+                } catch (Exception e) {
+                    log.error("Export of {} failed; run it again to resume from the last checkpoint",
+                            collections.get(i), e);
+                    succeeded = false;
+                }
+            }
+            return succeeded;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Path file(String collection) {
+        return dir.resolve(collection + ".ndjson");
+    }
+
+    Report importCollection(String collection, Path file) throws IOException, InterruptedException {
+        String checkpointId = "import:" + collection;
+        String source = file.toAbsolutePath().toString();
+        long size = Files.size(file);
+        long modified = Files.getLastModifiedTime(file).toMillis();
+        //a checkpoint only counts for the same file, unchanged since
+        Document checkpoint = checkpoint(checkpointId);
+        long start = 0;
+        if (checkpoint != null && source.equals(checkpoint.getString("file"))
+                && size == checkpoint.get("size", Number.class).longValue()
+                && modified == checkpoint.get("modified", Number.class).longValue()) {
+            if (checkpoint.getBoolean("complete", false)) {
+                return Report.skipped("imported", collection);
+            }
+            start = checkpoint.get("done", Number.class).longValue();
+            log.info("Resuming import of {} after {} documents", collection, start);
+        }
+        Document identity = new Document("file", source).append("size", size).append("modified", modified);
+
+        Progress progress = new Progress(collection, checkpointId, identity, start);
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        //bounds the parsed documents waiting for or in a write
+        Semaphore inFlight = new Semaphore(workers * 2);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16);
+             NdjsonDocuments.Reader reader = NdjsonDocuments.reader(in)) {
+            if (reader.skip(start) < start) {
+                throw new IllegalStateException(file + " has fewer documents than its checkpoint");
+            }
+            long position = start;
+            List<Document> batch = new ArrayList<>(batchSize);
+            Document document;
+            while (failure.get() == null && (document = reader.next()) != null) {
+                batch.add(document);
+                if (batch.size() == batchSize) {
+                    submit(pool, inFlight, failure, progress, collection, batch, position);
+                    position += batch.size();
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty() && failure.get() == null) {
+                submit(pool, inFlight, failure, progress, collection, batch, position);
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.HOURS);
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("Import of " + collection + " stopped after "
+                    + progress.contiguous + " documents", failure.get());
+        }
+        progress.complete();
+        return progress.report("Imported");
+    }
+
+    private void submit(ExecutorService pool, Semaphore inFlight, AtomicReference<Exception> failure,
+                        Progress progress, String collection, List<Document> batch, long position)
+            throws InterruptedException {
+        inFlight.acquire();
+        pool.execute(() -> {
+            try {
+                if (failure.get() == null) {
+                    write(collection, batch);
+                    progress.written(position, batch.size());
+                }
+            } catch (Exception e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    //upserts by _id, so a batch written twice (by a run resumed from an earlier checkpoint) changes nothing. documents
+    //without an _id get a new one each time; exports always carry theirs
+    private void write(String collection, List<Document> batch) {
+        BulkOperations bulk = mongoTemplate.bulkOps(
+                ordered ? BulkOperations.BulkMode.ORDERED : BulkOperations.BulkMode.UNORDERED, collection);
+        for (Document document : batch) {
+            Object id = document.get("_id");
+            if (id == null) {
+                bulk.insert(document);
+            } else {
+                bulk.replaceOne(new Query(Criteria.where("_id").is(id)), document, FindAndReplaceOptions.options().upsert());
+            }
+        }
+        bulk.execute();
+    }
+
+    //resumes after the last _id written and cuts the file back to the checkpointed length, dropping any partial line.
+    //this relies on one _id type per collection, as $gt only compares ids of the same type
+    Report exportCollection(String collection, Path file) throws IOException {
+        String checkpointId = "export:" + collection;
+        String target = file.toAbsolutePath().toString();
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Document checkpoint = checkpoint(checkpointId);
+        boolean resuming = checkpoint != null && target.equals(checkpoint.getString("file"))
+                && !checkpoint.getBoolean("complete", false) && Files.exists(file)
+                && Files.size(file) >= checkpoint.get("bytes", Number.class).longValue();
+        Object lastId = resuming ? checkpoint.get("lastId") : null;
+        long bytes = resuming ? checkpoint.get("bytes", Number.class).longValue() : 0;
+        long start = resuming ? checkpoint.get("done", Number.class).longValue() : 0;
+        Progress progress = new Progress(collection, checkpointId, new Document("file", target), start);
+        if (resuming) {
+            log.info("Resuming export of {} after {} documents", collection, start);
+        } else {
+            //forget where an earlier export stopped before this one truncates the file
+            progress.exported(0, null, 0);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.truncate(bytes);
+            channel.position(bytes);
+            NdjsonDocuments.Writer writer = NdjsonDocuments.writer(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            try (MongoCursor<Document> cursor = mongoTemplate.getCollection(collection)
+                    .find(lastId == null ? new Document() : Filters.gt("_id", lastId))
+                    .sort(Sorts.ascending("_id"))
+                    .batchSize(batchSize)
+                    .cursor()) {
+                int pending = 0;
+                Object id = lastId;
+                while (cursor.hasNext()) {
+                    Document document = cursor.next();
+                    writer.write(document);
+                    id = document.get("_id");
+                    if (++pending == batchSize) {
+                        writer.flush();
+                        progress.exported(pending, id, channel.position());
+                        pending = 0;
+                    }
+                }
+                writer.flush();
+                progress.exported(pending, id, channel.position());
+            }
+            writer.close();
+        }
+        progress.complete();
+        return progress.report("Exported");
+    }
+
+    private Document checkpoint(String id) {
+        return resume ? mongoTemplate.findById(id, Document.class, CHECKPOINTS) : null;
+    }
+
+    //documents done in one run, the checkpoint that records them, and the periodic progress line
+    private class Progress {
+        private final String collection;
+        private final String checkpointId;
+        private final Document identity;
+        private final long startedAt = System.nanoTime();
+        private final long resumedFrom;
+        //batches written past a gap left by one still in flight, by position
+        private final TreeMap<Long, Integer> ahead = new TreeMap<>();
+        private long contiguous;
+        private long loggedAt = System.currentTimeMillis();
+
+        Progress(String collection, String checkpointId, Document identity, long resumedFrom) {
+            this.collection = collection;
+            this.checkpointId = checkpointId;
+            this.identity = identity;
+            this.resumedFrom = resumedFrom;
+            this.contiguous = resumedFrom;
+            save(new Update().set("done", resumedFrom).set("complete", false));
+        }
+
+        //workers finish batches out of order; the checkpoint only moves over an unbroken run of written ones
+        synchronized void written(long position, int count) {
+            ahead.put(position, count);
+            long before = contiguous;
+            while (!ahead.isEmpty() && ahead.firstKey() == contiguous) {
+                contiguous += ahead.pollFirstEntry().getValue();
+            }
+            if (contiguous != before) {
+                save(new Update().set("done", contiguous));
+                logProgress();
+            }
+        }
+
+        synchronized void exported(int count, Object lastId, long bytes) {
+            contiguous += count;
+            save(new Update().set("done", contiguous).set("lastId", lastId).set("bytes", bytes));
+            logProgress();
+        }
+
+        void complete() {
+            save(new Update().set("complete", true));
+        }
+
+        Report report(String verb) {
+            return new Report(verb, collection, contiguous - resumedFrom, System.nanoTime() - startedAt);
+        }
+
+        private void save(Update update) {
+            identity.forEach(update::set);
+            mongoTemplate.upsert(new Query(Criteria.where("_id").is(checkpointId)),
+                    update.set("updatedAt", new Date()), CHECKPOINTS);
+        }
+
+        private void logProgress() {
+            long now = System.currentTimeMillis();
+            if (now - loggedAt >= PROGRESS_EVERY_MS) {
+                loggedAt = now;
+                log.info("{}: {} documents, {}", collection, contiguous, report("").rate());
+            }
+        }
+    }
+
+    static class Report {
+        private final String verb;
+        private final String collection;
+        private final long documents;
+        private final long nanos;
+        private final boolean skipped;
+
+        Report(String verb, String collection, long documents, long nanos) {
+            this(verb, collection, documents, nanos, false);
+        }
+
+        private Report(String verb, String collection, long documents, long nanos, boolean skipped) {
+            this.verb = verb;
+            this.collection = collection;
+            this.documents = documents;
+            this.nanos = nanos;
+            this.skipped = skipped;
+        }
+
+        //the same file was already imported completely
+        static Report skipped(String verb, String collection) {
+            return new Report(verb, collection, 0, 0, true);
+        }
+
+        long getDocuments() {
+            return documents;
+        }
+
+        double getDocumentsPerSecond() {
+            return nanos == 0 ? 0 : documents / (nanos / 1_000_000_000.0);
+        }
+
+        private String rate() {
+            return String.format("%.0f docs/sec", getDocumentsPerSecond());
+        }
+
+        @Override
+        public String toString() {
+            if (skipped) {
+                return collection + " was already " + verb + " from this file; set bulk.resume=false to run it again";
+            }
+            return String.format("%s %d %s documents in %.1f s (%s)", verb, documents, collection,
+                    nanos / 1_000_000_000.0, rate());
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.Backend.service;
+
+import com.example.Backend.config.CacheConfig;
+import com.example.Backend.model.LearningPlan;
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Post;
+import com.example.Backend.model.User;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+//evicts cached entities on every node when their document changes anywhere, driven by a MongoDB change stream
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.enabled", havingValue = "true")
+public class CacheInvalidationBus implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    static final String TOKEN_COLLECTION = "cache_resume_tokens";
+
+    //server error codes meaning the stored position can no longer be resumed from
+    private static final Set<Integer> UNRESUMABLE = Set.of(260, 280, 286);
+
+    private final MongoTemplate mongoTemplate;
+    private final CacheManager cacheManager;
+    private final String nodeId;
+    private final long tokenSaveIntervalMillis;
+    private final Map<String, String> cacheByCollection = new HashMap<>();
+
+    private volatile boolean running;
+    private Thread listener;
+    private BsonDocument savedToken;
+    private long lastSave;
+
+    public CacheInvalidationBus(MongoTemplate mongoTemplate, CacheManager cacheManager,
+                                @Value("${cache.invalidation.node-id:${HOSTNAME:local}}") String nodeId,
+                                @Value("${cache.invalidation.token-save-interval-ms:1000}") long tokenSaveIntervalMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.cacheManager = cacheManager;
+        this.nodeId = nodeId;
+        this.tokenSaveIntervalMillis = tokenSaveIntervalMillis;
+        cacheByCollection.put(mongoTemplate.getCollectionName(User.class), CacheConfig.PROFILES);
+        cacheByCollection.put(mongoTemplate.getCollectionName(Post.class), CacheConfig.POSTS);
+        cacheByCollection.put(mongoTemplate.getCollectionName(LearningPlan.class), CacheConfig.LEARNING_PLANS);
+        cacheByCollection.put(mongoTemplate.getCollectionName(LearningProgress.class), CacheConfig.LEARNING_PROGRESS);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        listener = new Thread(this::listen, "cache-invalidation");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            try {
+                listener.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    //reconnects until stopped; the last seen token means a dropped connection or restart replays missed changes
+    private void listen() {
+        BsonDocument token = loadToken();
+        long backoff = 500;
+        while (running) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = open(token)) {
+                backoff = 500;
+                while (running) {
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change != null && change.getOperationType() == OperationType.INVALIDATE) {
+                        //the stream cannot continue past an invalidate; nothing before it is trustworthy
+                        clearAll();
+                        token = null;
+                        break;
+                    }
+                    if (change != null) {
+                        evict(change);
+                    }
+                    if (cursor.getResumeToken() != null) {
+                        token = cursor.getResumeToken();
+                        saveToken(token, false);
+                    }
+                }
+            } catch (MongoCommandException e) {
+                if (!UNRESUMABLE.contains(e.getErrorCode())) {
+                    backoff = pause(e, backoff);
+                    continue;
+                }
+                //history rolled off the oplog: the only case where every cached entry has to go
+                log.warn("Change stream cannot resume from stored position, clearing caches", e);
+                clearAll();
+                token = null;
+            } catch (MongoException e) {
+                backoff = pause(e, backoff);
+            }
+        }
+        if (token != null) {
+            saveToken(token, true);
+        }
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> open(BsonDocument token) {
+        ChangeStreamIterable<Document> stream = mongoTemplate.getDb().watch(List.of(Aggregates.match(Filters.or(
+                Filters.eq("operationType", "invalidate"),
+                Filters.and(
+                        Filters.in("ns.coll", cacheByCollection.keySet()),
+                        Filters.in("operationType", "update", "replace", "delete"))))));
+        stream.maxAwaitTime(1, TimeUnit.SECONDS);
+        if (token != null) {
+            stream.resumeAfter(token);
+        }
+        return stream.cursor();
+    }
+
+    private void evict(ChangeStreamDocument<Document> change) {
+        if (change.getNamespace() == null || change.getDocumentKey() == null) {
+            return;
+        }
+        String cacheName = cacheByCollection.get(change.getNamespace().getCollectionName());
+        Cache cache = cacheName == null ? null : cacheManager.getCache(cacheName);
+        BsonValue id = change.getDocumentKey().get("_id");
+        if (cache == null || id == null) {
+            return;
+        }
+        //cache keys are the string ids the services use
+        if (id.isObjectId()) {
+            cache.evict(id.asObjectId().getValue().toHexString());
+        } else if (id.isString()) {
+            cache.evict(id.asString().getValue());
+        }
+    }
+
+    private void clearAll() {
+        for (String cacheName : cacheByCollection.values()) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    private BsonDocument loadToken() {
+        BsonDocument stored = tokens().withDocumentClass(BsonDocument.class).find(Filters.eq("_id", nodeId)).first();
+        if (stored == null || !stored.isDocument("token")) {
+            return null;
+        }
+        savedToken = stored.getDocument("token");
+        return savedToken;
+    }
+
+    //written at most once per interval; a slightly old token only replays a few harmless evictions
+    private void saveToken(BsonDocument token, boolean force) {
+        long now = System.currentTimeMillis();
+        if (token.equals(savedToken) || (!force && now - lastSave < tokenSaveIntervalMillis)) {
+            return;
+        }
+        try {
+            tokens().replaceOne(Filters.eq("_id", nodeId),
+                    new Document("_id", nodeId).append("token", token).append("updatedAt", new Date(now)),
+                    new ReplaceOptions().upsert(true));
+            savedToken = token;
+            lastSave = now;
+        } catch (MongoException e) {
+            log.warn("Could not store change stream resume token", e);
+        }
+    }
+
+    private MongoCollection<Document> tokens() {
+        return mongoTemplate.getCollection(TOKEN_COLLECTION);
+    }
+
+    private long pause(MongoException e, long backoff) {
+        log.warn("Cache invalidation stream interrupted, reconnecting in {} ms", backoff, e);
+        try {
+            Thread.sleep(backoff);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+        return Math.min(backoff * 2, 30_000);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.Backend.service;
+
+import com.example.Backend.enums.CommentParentType;
+import com.example.Backend.model.LearningPlan;
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Post;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+//moves embedded comments into the comments collection ahead of use; idempotent, and a no-op once every parent is
+//flagged commentsMigrated. parents it has not reached yet are migrated on their first comment change instead
+@Component
+@ConditionalOnProperty(name = "comments.migrate-embedded", havingValue = "true")
+public class CommentMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentMigration.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final CommentService commentService;
+
+    public CommentMigration(MongoTemplate mongoTemplate, CommentService commentService) {
+        this.mongoTemplate = mongoTemplate;
+        this.commentService = commentService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        migrate(Post.class, CommentParentType.POST, Post::getId);
+        migrate(LearningPlan.class, CommentParentType.LEARNING_PLAN, LearningPlan::getId);
+        migrate(LearningProgress.class, CommentParentType.LEARNING_PROGRESS, LearningProgress::getId);
+    }
+
+    //the flag, not commentCount, marks a migrated parent: commentCount can already exist on a legacy parent
+    private <T> void migrate(Class<T> parentClass, CommentParentType parentType, Function<T, String> idOf) {
+        Query query = new Query(Criteria.where("commentsMigrated").ne(true));
+        query.fields().include("id");
+
+        int parents = 0;
+        try (Stream<T> stream = mongoTemplate.stream(query, parentClass)) {
+            Iterator<T> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                commentService.migrate(parentType, idOf.apply(iterator.next()), parentClass);
+                parents++;
+            }
+        }
+        log.info("Moved embedded comments of {} {} documents", parents, mongoTemplate.getCollectionName(parentClass));
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.enums.CommentParentType;
+import com.example.Backend.model.Comment;
+import com.example.Backend.repository.CommentRepository;
+import com.example.Backend.repository.FeedPageRepository;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+//comments live in their own collection; each parent keeps commentCount and a preview of the latest comments
+@Service
+public class CommentService {
+
+    private final CommentRepository commentRepository;
+    private final FeedPageRepository feedPageRepository;
+    private final MongoTemplate mongoTemplate;
+    private final int previewSize;
+
+    public CommentService(CommentRepository commentRepository, FeedPageRepository feedPageRepository,
+                          MongoTemplate mongoTemplate, @Value("${comments.preview-size:5}") int previewSize) {
+        this.commentRepository = commentRepository;
+        this.feedPageRepository = feedPageRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.previewSize = previewSize;
+    }
+
+    //returns the updated parent, or null if the parent does not exist
+    public <T> T addComment(CommentParentType parentType, String parentId, Class<T> parentClass, Comment comment) {
+        if (!migrate(parentType, parentId, parentClass)) {
+            return null;
+        }
+        if (comment.getUserName() == null || comment.getUserName().isEmpty()) {
+            comment.setUserName("Unknown User");
+        }
+        comment.setId(null);
+        comment.setParentType(parentType);
+        comment.setParentId(parentId);
+        comment.setCreatedAt(new Date());
+        comment.setUpdatedAt(new Date());
+        Comment saved = commentRepository.insert(comment);
+
+        //counter and bounded preview change together in one atomic update, without rewriting the parent
+        Update update = new Update().inc("commentCount", 1);
+        update.push("comments").slice(-previewSize).each(saved);
+        return mongoTemplate.findAndModify(byId(parentId), update,
+                FindAndModifyOptions.options().returnNew(true), parentClass);
+    }
+
+    //only the commenter may edit a comment
+    public <T> T updateComment(CommentParentType parentType, String parentId, Class<T> parentClass,
+                               String commentId, Comment commentDetails, String userId) {
+        if (!migrate(parentType, parentId, parentClass)) {
+            return null;
+        }
+        commentRepository.findById(commentId)
+                .filter(c -> belongsTo(c, parentType, parentId))
+                .filter(c -> userId != null && Objects.equals(c.getUserId(), userId))
+                .ifPresent(c -> {
+                    c.setContent(commentDetails.getContent());
+                    c.setUpdatedAt(new Date());
+                    commentRepository.save(c);
+                });
+        return refreshPreview(parentType, parentId, parentClass, 0);
+    }
+
+    //the commenter or the parent's owner may delete a comment
+    public <T> T deleteComment(CommentParentType parentType, String parentId, Class<T> parentClass,
+                               Function<T, String> ownerOf, String commentId, String userId) {
+        if (!migrate(parentType, parentId, parentClass)) {
+            return null;
+        }
+        Query ownerQuery = byId(parentId);
+        ownerQuery.fields().include("userId");
+        T parent = mongoTemplate.findOne(ownerQuery, parentClass);
+        if (parent == null) {
+            return null;
+        }
+        if (userId == null) {
+            return refreshPreview(parentType, parentId, parentClass, 0);
+        }
+        boolean isOwner = userId.equals(ownerOf.apply(parent));
+        Comment comment = commentRepository.findById(commentId)
+                .filter(c -> belongsTo(c, parentType, parentId))
+                //comments embedded before userIds were recorded can only go with the owner
+                .filter(c -> Objects.equals(c.getUserId(), userId) || isOwner)
+                .orElse(null);
+        if (comment == null) {
+            return refreshPreview(parentType, parentId, parentClass, 0);
+        }
+        //of two concurrent deletes only the one that removed the comment takes it off the count
+        long deleted = mongoTemplate.remove(byId(comment.getId()), Comment.class).getDeletedCount();
+        return refreshPreview(parentType, parentId, parentClass, deleted == 1 ? -1 : 0);
+    }
+
+    public CursorPage<Comment> getComments(CommentParentType parentType, String parentId, String cursor, Integer limit) {
+        Criteria filter = Criteria.where("parentType").is(parentType).and("parentId").is(parentId);
+        return feedPageRepository.findPage(Comment.class, filter, cursor, limit, Comment::getCreatedAt, Comment::getId);
+    }
+
+    public void deleteAllFor(CommentParentType parentType, String parentId) {
+        commentRepository.deleteByParentTypeAndParentId(parentType, parentId);
+    }
+
+    public int getPreviewSize() {
+        return previewSize;
+    }
+
+    //parents written before comments moved out still embed all of them. they are copied into the comments
+    //collection before the parent's first comment change, so a sliced $push or a rebuilt preview never drops
+    //comments that only exist on the parent; false if there is no such parent
+    public <T> boolean migrate(CommentParentType parentType, String parentId, Class<T> parentClass) {
+        Query query = byId(parentId);
+        query.fields().include("commentsMigrated").include("comments");
+        Document parent = mongoTemplate.findOne(query, Document.class, mongoTemplate.getCollectionName(parentClass));
+        if (parent == null) {
+            return false;
+        }
+        if (parent.getBoolean("commentsMigrated", false)) {
+            return true;
+        }
+
+        List<Document> embedded = parent.getList("comments", Document.class, List.of());
+        if (!embedded.isEmpty()) {
+            //upserts by comment id make a rerun, or a concurrent migration of the same parent, harmless
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Comment.class);
+            for (Document document : embedded) {
+                Comment comment = mongoTemplate.getConverter().read(Comment.class, document);
+                if (comment.getId() == null) {
+                    comment.setId(new ObjectId().toHexString());
+                }
+                comment.setParentType(parentType);
+                comment.setParentId(parentId);
+                bulk.replaceOne(byId(comment.getId()), comment, FindAndReplaceOptions.options().upsert());
+            }
+            bulk.execute();
+        }
+
+        //count and preview come from the collection, so an earlier $inc or a partial run cannot skew them; only the
+        //first migration to finish writes them
+        List<Comment> latest = commentRepository.findByParentTypeAndParentIdOrderByCreatedAtDescIdDesc(
+                parentType, parentId, PageRequest.of(0, previewSize));
+        Collections.reverse(latest);
+        long count = commentRepository.countByParentTypeAndParentId(parentType, parentId);
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(parentId).and("commentsMigrated").ne(true)),
+                new Update().set("comments", latest).set("commentCount", count).set("commentsMigrated", true),
+                parentClass);
+        return true;
+    }
+
+    //rebuild the preview from the comments collection (one indexed read of previewSize documents)
+    private <T> T refreshPreview(CommentParentType parentType, String parentId, Class<T> parentClass, int countDelta) {
+        List<Comment> latest = commentRepository.findByParentTypeAndParentIdOrderByCreatedAtDescIdDesc(
+                parentType, parentId, PageRequest.of(0, previewSize));
+        Collections.reverse(latest);
+        Update update = new Update().set("comments", latest);
+        if (countDelta != 0) {
+            update.inc("commentCount", countDelta);
+        }
+        return mongoTemplate.findAndModify(byId(parentId), update,
+                FindAndModifyOptions.options().returnNew(true), parentClass);
+    }
+
+    private boolean belongsTo(Comment comment, CommentParentType parentType, String parentId) {
+        return comment.getParentType() == parentType && parentId.equals(comment.getParentId());
+    }
+
+    private Query byId(String id) {
+        return new Query(Criteria.where("id").is(id));
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+//seeds the content counters on users created before they existed; a no-op once every user has them
+@Component
+@ConditionalOnProperty(name = "content.backfill-counts", havingValue = "true", matchIfMissing = true)
+public class ContentCountBackfill implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentCountBackfill.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final ContentCountService contentCountService;
+
+    public ContentCountBackfill(MongoTemplate mongoTemplate, ContentCountService contentCountService) {
+        this.mongoTemplate = mongoTemplate;
+        this.contentCountService = contentCountService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Query query = new Query(Criteria.where("postCount").exists(false));
+        query.fields().include("id");
+
+        int users = 0;
+        try (Stream<User> stream = mongoTemplate.stream(query, User.class)) {
+            Iterator<User> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                contentCountService.recount(iterator.next().getId());
+                users++;
+            }
+        }
+        if (users > 0) {
+            log.info("Backfilled content counters on {} users", users);
+        }
+    }
+}
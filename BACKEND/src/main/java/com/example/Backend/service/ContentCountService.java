@@ -0,0 +1,64 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.ContentCounts;
+import com.example.Backend.enums.ContentType;
+import com.example.Backend.model.LearningPlan;
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Post;
+import com.example.Backend.model.User;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+//per-user content counters on the user document, so reading them costs the same however much a user has posted
+@Service
+public class ContentCountService {
+
+    private final MongoTemplate mongoTemplate;
+
+    public ContentCountService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    //called after an item was saved (+1) or deleted (-1)
+    public void adjust(String userId, ContentType type, int delta) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(userId)),
+                new Update().inc(counterField(type), delta), User.class);
+    }
+
+    //one indexed lookup of three fields; zeros for an unknown user
+    public ContentCounts getCounts(String userId) {
+        Query query = new Query(Criteria.where("id").is(userId));
+        query.fields().include("postCount").include("learningPlanCount").include("learningProgressCount");
+        User user = mongoTemplate.findOne(query, User.class);
+        if (user == null) {
+            return new ContentCounts();
+        }
+        return new ContentCounts(user.getPostCount(), user.getLearningPlanCount(), user.getLearningProgressCount());
+    }
+
+    //recomputes the counters from the content collections; counts on userId are answered from the
+    //userId_createdAt_idx index without fetching documents
+    public ContentCounts recount(String userId) {
+        Query byUser = new Query(Criteria.where("userId").is(userId));
+        ContentCounts counts = new ContentCounts(
+                mongoTemplate.count(byUser, Post.class),
+                mongoTemplate.count(byUser, LearningPlan.class),
+                mongoTemplate.count(byUser, LearningProgress.class));
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(userId)), new Update()
+                .set("postCount", counts.getPosts())
+                .set("learningPlanCount", counts.getLearningPlans())
+                .set("learningProgressCount", counts.getLearningProgress()), User.class);
+        return counts;
+    }
+
+    private String counterField(ContentType type) {
+        return switch (type) {
+            case POST -> "postCount";
+            case LEARNING_PLAN -> "learningPlanCount";
+            case LEARNING_PROGRESS -> "learningProgressCount";
+        };
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.Backend.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+//runs independent blocking calls side by side and joins them under one deadline, scoped like StructuredTaskScope:
+//subtasks never outlive the try-with-resources block that forked them
+@Component
+public class FanOut {
+
+    private final AsyncTaskExecutor executor;
+    private final long deadlineMillis;
+
+    //boot's task executor, sized by spring.task.execution.pool.*
+    public FanOut(@Qualifier("applicationTaskExecutor") AsyncTaskExecutor executor,
+                  @Value("${fanout.deadline-ms:2000}") long deadlineMillis) {
+        this.executor = executor;
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    public Scope open() {
+        return new Scope(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMillis));
+    }
+
+    public class Scope implements AutoCloseable {
+        private final long deadline;
+        private final List<CompletableFuture<?>> forks = new ArrayList<>();
+        private final CompletableFuture<Void> failed = new CompletableFuture<>();
+        private boolean joined;
+
+        private Scope(long deadline) {
+            this.deadline = deadline;
+        }
+
+        //the result can be read once join() has returned
+        public <T> Supplier<T> fork(Callable<T> call) {
+            CompletableFuture<T> future = executor.submitCompletable(call);
+            future.whenComplete((result, error) -> {
+                if (error != null) {
+                    failed.completeExceptionally(error);
+                }
+            });
+            forks.add(future);
+            return () -> {
+                if (!joined) {
+                    throw new IllegalStateException("Subtask read before join");
+                }
+                return future.join();
+            };
+        }
+
+        //waits for every subtask; the first failure or the deadline ends the wait and cancels whatever is still running
+        public void join() throws InterruptedException, ExecutionException, TimeoutException {
+            CompletableFuture<Void> all = CompletableFuture.allOf(forks.toArray(new CompletableFuture[0]));
+            try {
+                CompletableFuture.anyOf(all, failed).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException | ExecutionException | TimeoutException e) {
+                cancelAll();
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                throw e;
+            }
+            joined = true;
+        }
+
+        @Override
+        public void close() {
+            cancelAll();
+        }
+
+        private void cancelAll() {
+            forks.forEach(future -> future.cancel(true));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.FeedItem;
+import com.example.Backend.dto.LearningPlanCard;
+import com.example.Backend.dto.LearningProgressCard;
+import com.example.Backend.dto.PostCard;
+import com.example.Backend.enums.ContentType;
+import com.example.Backend.model.LearningPlan;
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Post;
+import com.example.Backend.repository.CardProjection;
+import com.example.Backend.repository.FeedStreamRepository;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+//feeds as unbounded streams of cards: clients render the first items while later ones are still being read
+@Service
+public class FeedStreamService {
+
+    private final FeedStreamRepository feedStreamRepository;
+
+    public FeedStreamService(FeedStreamRepository feedStreamRepository) {
+        this.feedStreamRepository = feedStreamRepository;
+    }
+
+    public Flux<PostCard> streamPosts(String userId, String cursor, Integer limit, String viewerId) {
+        Flux<PostCard> cards = feedStreamRepository
+                .stream(Post.class, byUser(userId), CardProjection.of(ContentType.POST, viewerId), cursor)
+                .map(post -> PostCard.from(post, viewerId));
+        return limit(cards, limit);
+    }
+
+    public Flux<LearningPlanCard> streamLearningPlans(String userId, String cursor, Integer limit, String viewerId) {
+        Flux<LearningPlanCard> cards = feedStreamRepository
+                .stream(LearningPlan.class, byUser(userId), CardProjection.of(ContentType.LEARNING_PLAN, viewerId), cursor)
+                .map(plan -> LearningPlanCard.from(plan, viewerId));
+        return limit(cards, limit);
+    }
+
+    public Flux<LearningProgressCard> streamLearningProgress(String userId, String cursor, Integer limit, String viewerId) {
+        Flux<LearningProgressCard> cards = feedStreamRepository
+                .stream(LearningProgress.class, byUser(userId),
+                        CardProjection.of(ContentType.LEARNING_PROGRESS, viewerId), cursor)
+                .map(progress -> LearningProgressCard.from(progress, viewerId));
+        return limit(cards, limit);
+    }
+
+    //the three collections merged newest first, in the same order as ActivityService pages
+    public Flux<FeedItem> streamActivity(String userId, String cursor, Integer limit, String viewerId) {
+        Flux<FeedItem> posts = streamPosts(userId, cursor, null, viewerId)
+                .map(card -> new FeedItem(ContentType.POST, card.getId(), card.getCreatedAt(), card));
+        Flux<FeedItem> plans = streamLearningPlans(userId, cursor, null, viewerId)
+                .map(card -> new FeedItem(ContentType.LEARNING_PLAN, card.getId(), card.getCreatedAt(), card));
+        Flux<FeedItem> progress = streamLearningProgress(userId, cursor, null, viewerId)
+                .map(card -> new FeedItem(ContentType.LEARNING_PROGRESS, card.getId(), card.getCreatedAt(), card));
+        //mergeComparing holds only the current head of each source, like the heap in ActivityService
+        return limit(Flux.mergeComparing(ActivityService.NEWEST_FIRST, posts, plans, progress), limit);
+    }
+
+    private Criteria byUser(String userId) {
+        return userId == null || userId.isEmpty() ? null : Criteria.where("userId").is(userId);
+    }
+
+    //no limit means the stream runs to the end of the collection
+    private <T> Flux<T> limit(Flux<T> items, Integer limit) {
+        return limit == null || limit <= 0 ? items : items.take(limit, true);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.Follow;
+import com.example.Backend.model.User;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+//turns the old followingUsers/followedUsers arrays on users into follows edges; idempotent, a no-op once no user has them
+@Component
+@ConditionalOnProperty(name = "follows.migrate-lists", havingValue = "true")
+public class FollowMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(FollowMigration.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final FollowService followService;
+
+    public FollowMigration(MongoTemplate mongoTemplate, FollowService followService) {
+        this.mongoTemplate = mongoTemplate;
+        this.followService = followService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String users = mongoTemplate.getCollectionName(User.class);
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where("followingUsers").exists(true),
+                Criteria.where("followedUsers").exists(true)));
+        query.fields().include("followingUsers").include("followedUsers");
+
+        //either side of an edge may have been recorded on its own, so both arrays are read. the arrays stay until
+        //every edge exists and the user's counters are recomputed, so a run stopped part-way loses nothing
+        Set<String> touched = new HashSet<>();
+        Set<String> listed = new HashSet<>();
+        int migrated = 0;
+        try (Stream<Document> stream = mongoTemplate.stream(query, Document.class, users)) {
+            Iterator<Document> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                Document user = iterator.next();
+                String userId = user.getObjectId("_id").toHexString();
+
+                BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Follow.class);
+                boolean any = false;
+                for (String followeeId : ids(user, "followingUsers")) {
+                    any |= upsertEdge(bulk, userId, followeeId, touched);
+                }
+                for (String followerId : ids(user, "followedUsers")) {
+                    any |= upsertEdge(bulk, followerId, userId, touched);
+                }
+                if (any) {
+                    bulk.execute();
+                }
+                touched.add(userId);
+                listed.add(userId);
+                migrated++;
+            }
+        }
+
+        //counters are derived from the edges once all of them exist; a user's arrays go in the same write as their
+        //counters, and only if still there (a concurrent run may have finished the user already)
+        for (String userId : touched) {
+            if (!listed.contains(userId)) {
+                followService.recount(userId);
+                continue;
+            }
+            Query stillListed = new Query(new Criteria().andOperator(Criteria.where("id").is(userId),
+                    new Criteria().orOperator(Criteria.where("followingUsers").exists(true),
+                            Criteria.where("followedUsers").exists(true))));
+            if (!followService.recount(userId, stillListed,
+                    new Update().unset("followingUsers").unset("followedUsers"))) {
+                followService.recount(userId);
+            }
+        }
+        log.info("Moved follower lists of {} users into follows, recounted {} users", migrated, touched.size());
+    }
+
+    private boolean upsertEdge(BulkOperations bulk, String followerId, String followeeId, Set<String> touched) {
+        if (followerId.equals(followeeId)) {
+            return false;
+        }
+        bulk.upsert(new Query(Criteria.where("followerId").is(followerId).and("followeeId").is(followeeId)),
+                new Update().setOnInsert("createdAt", new Date()));
+        touched.add(followerId);
+        touched.add(followeeId);
+        return true;
+    }
+
+    private List<String> ids(Document user, String field) {
+        List<String> ids = user.getList(field, String.class);
+        return ids == null ? List.of() : ids;
+    }
+}
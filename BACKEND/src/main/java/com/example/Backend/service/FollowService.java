@@ -0,0 +1,152 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.model.Follow;
+import com.example.Backend.model.User;
+import com.example.Backend.repository.FeedPageRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+//follower graph stored as one document per edge; the unique (followerId, followeeId) index makes follow idempotent
+@Service
+public class FollowService {
+
+    private final MongoTemplate mongoTemplate;
+    private final FeedPageRepository feedPageRepository;
+    private final int celebrityThreshold;
+
+    public FollowService(MongoTemplate mongoTemplate, FeedPageRepository feedPageRepository,
+                         @Value("${timeline.celebrity-threshold:10000}") int celebrityThreshold) {
+        this.mongoTemplate = mongoTemplate;
+        this.feedPageRepository = feedPageRepository;
+        this.celebrityThreshold = celebrityThreshold;
+    }
+
+    //true if the edge was created, false if it already existed
+    public boolean follow(String followerId, String followeeId) {
+        try {
+            mongoTemplate.insert(new Follow(null, followerId, followeeId, new Date(), false));
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+        adjustCounts(followerId, followeeId, 1);
+        return true;
+    }
+
+    //true if an edge was removed, false if there was nothing to remove
+    public boolean unfollow(String followerId, String followeeId) {
+        long removed = mongoTemplate.remove(edge(followerId, followeeId), Follow.class).getDeletedCount();
+        if (removed == 0) {
+            return false;
+        }
+        adjustCounts(followerId, followeeId, -1);
+        return true;
+    }
+
+    public boolean isFollowing(String followerId, String followeeId) {
+        return mongoTemplate.exists(edge(followerId, followeeId), Follow.class);
+    }
+
+    //newest followers first, keyset-paged on the (followeeId, createdAt, _id) index
+    public CursorPage<Follow> getFollowers(String userId, String cursor, Integer limit) {
+        return feedPageRepository.findPage(Follow.class, Criteria.where("followeeId").is(userId), cursor, limit,
+                Follow::getCreatedAt, Follow::getId);
+    }
+
+    //most recently followed accounts first, keyset-paged on the (followerId, createdAt, _id) index
+    public CursorPage<Follow> getFollowing(String userId, String cursor, Integer limit) {
+        return feedPageRepository.findPage(Follow.class, Criteria.where("followerId").is(userId), cursor, limit,
+                Follow::getCreatedAt, Follow::getId);
+    }
+
+    //every follower id, streamed from the index rather than loaded as one array
+    public List<String> followerIds(String userId) {
+        return ids(Criteria.where("followeeId").is(userId), "followerId", Follow::getFollowerId);
+    }
+
+    public List<String> followingIds(String userId) {
+        return ids(Criteria.where("followerId").is(userId), "followeeId", Follow::getFolloweeId);
+    }
+
+    //followed accounts above the celebrity threshold, read from the partial index over flagged edges only
+    public List<String> followedCelebrityIds(String userId) {
+        return ids(Criteria.where("followerId").is(userId).and("celebrity").is(true), "followeeId",
+                Follow::getFolloweeId);
+    }
+
+    public long followerCount(String userId) {
+        Query query = new Query(Criteria.where("id").is(userId));
+        query.fields().include("followerCount");
+        User user = mongoTemplate.findOne(query, User.class);
+        return user == null ? 0 : user.getFollowerCount();
+    }
+
+    //recomputes both counters of a user and the celebrity flag on their edges, for repair after a partial failure
+    public void recount(String userId) {
+        recount(userId, new Query(Criteria.where("id").is(userId)), new Update());
+    }
+
+    //recount writing the counters as part of update, to the user only if target still matches them; false if not
+    public boolean recount(String userId, Query target, Update update) {
+        long followers = mongoTemplate.count(new Query(Criteria.where("followeeId").is(userId)), Follow.class);
+        long following = mongoTemplate.count(new Query(Criteria.where("followerId").is(userId)), Follow.class);
+        update.set("followerCount", followers).set("followingCount", following);
+        if (mongoTemplate.updateFirst(target, update, User.class).getMatchedCount() == 0) {
+            return false;
+        }
+        markCelebrity(userId, followers > celebrityThreshold);
+        return true;
+    }
+
+    private List<String> ids(Criteria criteria, String field, Function<Follow, String> idOf) {
+        Query query = new Query(criteria);
+        query.fields().include(field);
+        List<String> result = new ArrayList<>();
+        try (Stream<Follow> stream = mongoTemplate.stream(query, Follow.class)) {
+            stream.forEach(follow -> result.add(idOf.apply(follow)));
+        }
+        return result;
+    }
+
+    //only after the edge write actually changed something. the followee's new count says whether this follow
+    //crossed the celebrity threshold: the one that crosses it flags every edge, later ones flag just their own.
+    //edges written before the crossing follow's $inc are all in place by the time it flags them
+    private void adjustCounts(String followerId, String followeeId, int delta) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(followerId)),
+                new Update().inc("followingCount", delta), User.class);
+        Query followee = new Query(Criteria.where("id").is(followeeId));
+        followee.fields().include("followerCount");
+        User user = mongoTemplate.findAndModify(followee, new Update().inc("followerCount", delta),
+                FindAndModifyOptions.options().returnNew(true), User.class);
+        if (user == null) {
+            return;
+        }
+        long followers = user.getFollowerCount();
+        if (delta > 0 && followers == celebrityThreshold + 1L) {
+            markCelebrity(followeeId, true);
+        } else if (delta > 0 && followers > celebrityThreshold) {
+            mongoTemplate.updateFirst(edge(followerId, followeeId), new Update().set("celebrity", true), Follow.class);
+        } else if (delta < 0 && followers == celebrityThreshold) {
+            markCelebrity(followeeId, false);
+        }
+    }
+
+    private void markCelebrity(String followeeId, boolean celebrity) {
+        mongoTemplate.updateMulti(new Query(Criteria.where("followeeId").is(followeeId).and("celebrity").ne(celebrity)),
+                new Update().set("celebrity", celebrity), Follow.class);
+    }
+
+    private Query edge(String followerId, String followeeId) {
+        return new Query(Criteria.where("followerId").is(followerId).and("followeeId").is(followeeId));
+    }
+}
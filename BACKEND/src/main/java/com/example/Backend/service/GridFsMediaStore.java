@@ -0,0 +1,91 @@
+package com.example.Backend.service;
+
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.GridFSBuckets;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.mongodb.client.gridfs.model.GridFSUploadOptions;
+import com.mongodb.client.model.Filters;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.util.Optional;
+
+@Service
+@ConditionalOnProperty(name = "media.store", havingValue = "gridfs", matchIfMissing = true)
+public class GridFsMediaStore implements MediaStore {
+
+    private final GridFSBucket bucket;
+
+    public GridFsMediaStore(MongoDatabaseFactory mongoDatabaseFactory,
+                            @Value("${media.gridfs.bucket:media}") String bucketName) {
+        this.bucket = GridFSBuckets.create(mongoDatabaseFactory.getMongoDatabase(), bucketName);
+    }
+
+    @Override
+    public StoredMedia save(InputStream content, String filename, String contentType, String ownerId) {
+        Document metadata = new Document("contentType", contentType).append("ownerId", ownerId);
+        //the driver reads the stream chunk by chunk (255 KB), so uploads never sit on the heap in full
+        ObjectId id = bucket.uploadFromStream(filename != null ? filename : "media", content,
+                new GridFSUploadOptions().metadata(metadata));
+        return find(id.toHexString()).orElseThrow();
+    }
+
+    @Override
+    public Optional<StoredMedia> find(String id) {
+        if (!ObjectId.isValid(id)) {
+            return Optional.empty();
+        }
+        ObjectId objectId = new ObjectId(id);
+        GridFSFile file = bucket.find(Filters.eq("_id", objectId)).first();
+        if (file == null) {
+            return Optional.empty();
+        }
+        Document metadata = file.getMetadata() != null ? file.getMetadata() : new Document();
+        return Optional.of(new StoredMedia(id, file.getFilename(), metadata.getString("contentType"),
+                file.getLength(), metadata.getString("ownerId"), new GridFsFileResource(bucket, file)));
+    }
+
+    @Override
+    public void delete(String id) {
+        if (ObjectId.isValid(id)) {
+            bucket.delete(new ObjectId(id));
+        }
+    }
+
+    //opens a fresh download stream per read so range requests can skip into the file
+    private static class GridFsFileResource extends AbstractResource {
+        private final GridFSBucket bucket;
+        private final GridFSFile file;
+
+        GridFsFileResource(GridFSBucket bucket, GridFSFile file) {
+            this.bucket = bucket;
+            this.file = file;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return bucket.openDownloadStream(file.getObjectId());
+        }
+
+        @Override
+        public long contentLength() {
+            return file.getLength();
+        }
+
+        @Override
+        public String getFilename() {
+            return file.getFilename();
+        }
+
+        @Override
+        public String getDescription() {
+            return "GridFS file [" + file.getObjectId().toHexString() + "]";
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.example.Backend.service;
+
+import com.example.Backend.enums.ContentType;
+import com.example.Backend.repository.LikeOperations;
+import com.example.Backend.repository.LikeUpdate;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//opt-in write coalescing for likes on viral documents. once a document takes more than threshold likes in a second,
+//its likes are admitted in memory (checked against the users already known to like it, counted with a LongAdder)
+//and written every flush interval as one conditional update plus its outbox events, instead of one contended
+//transaction each. a crash loses at most the likes admitted since the last flush
+@Service
+public class HotLikeBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(HotLikeBuffer.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final LikeOperations likeOperations;
+    private final NotificationService notificationService;
+    private final PushService pushService;
+    private final boolean enabled;
+    private final int threshold;
+    private final int coolDownFlushes;
+    private final Cache<String, RateWindow> rates;
+    private final Map<String, HotDocument> hot = new ConcurrentHashMap<>();
+
+    public HotLikeBuffer(MongoTemplate mongoTemplate, LikeOperations likeOperations,
+                         NotificationService notificationService, PushService pushService, MeterRegistry meterRegistry,
+                         @Value("${likes.hot-key.enabled:false}") boolean enabled,
+                         @Value("${likes.hot-key.threshold-per-second:50}") int threshold,
+                         @Value("${likes.hot-key.cool-down-flushes:40}") int coolDownFlushes) {
+        this.mongoTemplate = mongoTemplate;
+        this.likeOperations = likeOperations;
+        this.notificationService = notificationService;
+        this.pushService = pushService;
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.coolDownFlushes = coolDownFlushes;
+        this.rates = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(10, TimeUnit.SECONDS)
+                .build();
+        meterRegistry.gauge("likes.hot.documents", hot, Map::size);
+    }
+
+    //the like as seen by the buffer, or null when the document is not hot and the caller writes the like itself
+    public LikeUpdate addLike(Class<?> type, ContentType contentType, String id, String userId) {
+        if (!enabled) {
+            return null;
+        }
+        HotDocument document = hot.get(id);
+        if (document == null) {
+            if (!rates.get(id, key -> new RateWindow()).hit(threshold)) {
+                return null;
+            }
+            //a document that does not exist maps to nothing, and the caller's own write reports it missing
+            document = hot.computeIfAbsent(id, key -> load(type, contentType, id));
+            if (document == null) {
+                return null;
+            }
+        }
+        return document.add(userId);
+    }
+
+    //null when the document is not hot; otherwise a pending like is simply dropped, and a stored one is removed
+    //in step with the flushes so a flush in progress cannot write it back
+    public LikeUpdate removeLike(String id, String userId) {
+        if (!enabled) {
+            return null;
+        }
+        HotDocument document = hot.get(id);
+        return document == null ? null : document.remove(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${likes.hot-key.flush-interval-ms:250}")
+    public void flush() {
+        hot.values().forEach(HotDocument::flush);
+    }
+
+    //a clean shutdown writes what is pending
+    @PreDestroy
+    public void flushAll() {
+        flush();
+    }
+
+    int hotDocuments() {
+        return hot.size();
+    }
+
+    private HotDocument load(Class<?> type, ContentType contentType, String id) {
+        Query query = new Query(Criteria.where("_id").is(toObjectId(id)));
+        query.fields().include("userId").include("likeCount").include("likes.userId");
+        Document stored = mongoTemplate.findOne(query, Document.class, mongoTemplate.getCollectionName(type));
+        if (stored == null) {
+            return null;
+        }
+        HotDocument document = new HotDocument(type, contentType, id, stored.getString("userId"));
+        List<Document> likes = stored.getList("likes", Document.class, List.of());
+        likes.forEach(like -> document.known.add(like.getString("userId")));
+        document.stored = countOf(stored);
+        log.info("Coalescing likes on {} {} ({} likes so far)", contentType, id, document.stored);
+        return document;
+    }
+
+    //one pipeline update that appends only users not already in likes and raises likeCount by exactly that many,
+    //so a user liking through two nodes, or once before and once after the document turned hot, counts once
+    static AggregationUpdate appendUnseen(List<Document> likes) {
+        Document seen = new Document("$ifNull", List.of("$likes.userId", List.of()));
+        Document unseen = new Document("$filter", new Document("input", new Document("$literal", likes))
+                .append("as", "like")
+                .append("cond", new Document("$not", List.of(new Document("$in", List.of("$$like.userId", seen))))));
+        return AggregationUpdate.from(List.of(
+                stage(new Document("$set", new Document("_unseen", unseen))),
+                stage(new Document("$set", new Document("likes", new Document("$concatArrays",
+                        List.of(new Document("$ifNull", List.of("$likes", List.of())), "$_unseen")))
+                        .append("likeCount", new Document("$add", List.of(
+                                new Document("$ifNull", List.of("$likeCount", 0)), new Document("$size", "$_unseen")))))),
+                stage(new Document("$unset", "_unseen"))));
+    }
+
+    private static AggregationOperation stage(Document stage) {
+        return context -> stage;
+    }
+
+    private static Object toObjectId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    private static long countOf(Document document) {
+        Number count = document.get("likeCount", Number.class);
+        return count != null ? count.longValue() : 0;
+    }
+
+    //likes admitted since the last flush, by user, with the time each was made
+    private static class Pending {
+        private final Map<String, Long> likes = new ConcurrentHashMap<>();
+        private final LongAdder count = new LongAdder();
+    }
+
+    private class HotDocument {
+        private final Class<?> type;
+        private final ContentType contentType;
+        private final String id;
+        private final String ownerId;
+        //users whose like is stored or being stored
+        private final Set<String> known = ConcurrentHashMap.newKeySet();
+        //likes share the read side; swapping out the pending batch takes the write side
+        private final ReentrantReadWriteLock swap = new ReentrantReadWriteLock();
+        //held by a flush and by an unlike, so neither can reorder the other's write
+        private final ReentrantLock writes = new ReentrantLock();
+        private volatile Pending pending = new Pending();
+        private volatile long stored;
+        private volatile long inFlight;
+        private volatile boolean retired;
+        private boolean dirty;
+        private int idleFlushes;
+
+        HotDocument(Class<?> type, ContentType contentType, String id, String ownerId) {
+            this.type = type;
+            this.contentType = contentType;
+            this.id = id;
+            this.ownerId = ownerId;
+        }
+
+        LikeUpdate add(String userId) {
+            swap.readLock().lock();
+            try {
+                if (retired) {
+                    return null;
+                }
+                Pending current = pending;
+                boolean added = !known.contains(userId)
+                        && current.likes.putIfAbsent(userId, System.currentTimeMillis()) == null;
+                if (added) {
+                    current.count.increment();
+                }
+                return new LikeUpdate(id, ownerId, estimate(current), true, added);
+            } finally {
+                swap.readLock().unlock();
+            }
+        }
+
+        LikeUpdate remove(String userId) {
+            writes.lock();
+            try {
+                swap.writeLock().lock();
+                try {
+                    if (retired) {
+                        return null;
+                    }
+                    if (pending.likes.remove(userId) != null) {
+                        pending.count.decrement();
+                        return new LikeUpdate(id, ownerId, estimate(pending), false, true);
+                    }
+                    known.remove(userId);
+                } finally {
+                    swap.writeLock().unlock();
+                }
+                LikeUpdate result = likeOperations.removeLike(type, id, userId);
+                if (result != null && result.isChanged()) {
+                    stored = result.getLikeCount();
+                    dirty = true;
+                }
+                return result;
+            } finally {
+                writes.unlock();
+            }
+        }
+
+        void flush() {
+            writes.lock();
+            try {
+                Pending batch;
+                swap.writeLock().lock();
+                try {
+                    batch = pending;
+                    if (batch.likes.isEmpty()) {
+                        //quiet for long enough: later likes take the normal path again
+                        if (++idleFlushes >= coolDownFlushes) {
+                            retired = true;
+                            hot.remove(id);
+                        }
+                    } else {
+                        idleFlushes = 0;
+                        pending = new Pending();
+                        known.addAll(batch.likes.keySet());
+                        inFlight = batch.count.sum();
+                    }
+                } finally {
+                    swap.writeLock().unlock();
+                }
+                if (!batch.likes.isEmpty()) {
+                    write(batch);
+                }
+                if (dirty) {
+                    pushService.likesChanged(contentType, id, stored);
+                    dirty = false;
+                }
+            } finally {
+                writes.unlock();
+            }
+        }
+
+        private void write(Pending batch) {
+            List<Document> likes = new ArrayList<>(batch.likes.size());
+            batch.likes.forEach((userId, at) -> likes.add(new Document("userId", userId).append("createdAt", new Date(at))));
+            //the document as it was before the update, with only those of this batch's users it already held:
+            //they are the ones appendUnseen drops, so they are neither counted again nor notified about
+            Set<String> users = batch.likes.keySet();
+            Query query = new BasicQuery(new Document("_id", toObjectId(id)), new Document("likeCount", 1)
+                    .append("seen", new Document("$filter", new Document("input",
+                            new Document("$ifNull", List.of("$likes.userId", List.of())))
+                            .append("cond", new Document("$in", List.of("$$this", List.copyOf(users)))))));
+            try {
+                Long written = notificationService.withOutbox(() -> {
+                    Document before = mongoTemplate.findAndModify(query, appendUnseen(likes),
+                            FindAndModifyOptions.options().returnNew(false), Document.class,
+                            mongoTemplate.getCollectionName(type));
+                    if (before == null) {
+                        return null;
+                    }
+                    Set<String> appended = new HashSet<>(users);
+                    before.getList("seen", String.class, List.of()).forEach(appended::remove);
+                    notificationService.createLikeNotifications(contentType, id, ownerId, appended);
+                    return countOf(before) + appended.size();
+                });
+                inFlight = 0;
+                if (written == null) {
+                    //deleted meanwhile
+                    retired = true;
+                    hot.remove(id);
+                    return;
+                }
+                stored = written;
+                dirty = true;
+            } catch (RuntimeException e) {
+                //kept for the next flush rather than lost
+                log.warn("Could not write {} buffered likes on {}, retrying: {}", likes.size(), id, e.getMessage());
+                requeue(batch);
+            }
+        }
+
+        private void requeue(Pending batch) {
+            swap.writeLock().lock();
+            try {
+                batch.likes.forEach((userId, at) -> {
+                    known.remove(userId);
+                    if (pending.likes.putIfAbsent(userId, at) == null) {
+                        pending.count.increment();
+                    }
+                });
+                inFlight = 0;
+            } finally {
+                swap.writeLock().unlock();
+            }
+        }
+
+        //what the client is shown until the next flush reports the stored count
+        private long estimate(Pending current) {
+            return stored + inFlight + current.count.sum();
+        }
+    }
+
+    //likes on one document in the current second, to spot documents turning hot
+    private static class RateWindow {
+        private final AtomicLong second = new AtomicLong();
+        private final AtomicInteger count = new AtomicInteger();
+
+        boolean hit(int threshold) {
+            long now = System.currentTimeMillis() / 1000;
+            long current = second.get();
+            if (current != now && second.compareAndSet(current, now)) {
+                count.set(0);
+            }
+            return count.incrementAndGet() > threshold;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.Post;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+//one-shot rewrite of posts that still carry base64 media; run once with media.migrate-inline=true
+@Component
+@ConditionalOnProperty(name = "media.migrate-inline", havingValue = "true")
+public class InlineMediaMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(InlineMediaMigration.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final MediaService mediaService;
+
+    public InlineMediaMigration(MongoTemplate mongoTemplate, MediaService mediaService) {
+        this.mongoTemplate = mongoTemplate;
+        this.mediaService = mediaService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Query query = new Query(Criteria.where("mediaUrls").regex("data:[^;,]*;base64,"));
+        query.fields().include("userId").include("mediaUrls");
+
+        int migrated = 0;
+        //stream one post at a time so the migration never holds more than a single post's media in memory
+        try (Stream<Post> stream = mongoTemplate.stream(query, Post.class)) {
+            Iterator<Post> posts = stream.iterator();
+            while (posts.hasNext()) {
+                Post post = posts.next();
+                if (!mediaService.hasInline(post.getMediaUrls())) {
+                    continue;
+                }
+                List<String> mediaUrls;
+                try {
+                    mediaUrls = mediaService.externalizeInline(post.getMediaUrls(), post.getUserId());
+                } catch (IllegalArgumentException e) {
+                    //e.g. inline svg: left inline rather than served from our origin
+                    log.warn("Left inline media of post {} in place: {}", post.getId(), e.getMessage());
+                    continue;
+                }
+                //only rewrite if the post was not edited while its media was being copied
+                mongoTemplate.updateFirst(
+                        new Query(Criteria.where("id").is(post.getId()).and("mediaUrls").is(post.getMediaUrls())),
+                        new Update().set("mediaUrls", mediaUrls),
+                        Post.class);
+                migrated++;
+            }
+        }
+        log.info("Moved inline media out of {} posts", migrated);
+    }
+}
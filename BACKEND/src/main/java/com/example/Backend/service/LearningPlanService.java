@@ -1,22 +1,69 @@
 package com.example.Backend.service;
 
+import com.example.Backend.config.CacheConfig;
+import com.example.Backend.config.MetricsConfig;
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.dto.LearningPlanCard;
+import com.example.Backend.dto.LikeResult;
+import com.example.Backend.enums.CommentParentType;
+import com.example.Backend.enums.ContentType;
 import com.example.Backend.model.Comment;
 import com.example.Backend.model.LearningPlan;
 import com.example.Backend.model.Like;
+import com.example.Backend.repository.CardProjection;
+import com.example.Backend.repository.FeedPageRepository;
 import com.example.Backend.repository.LearningPlanRepository;
+import com.example.Backend.repository.LikeOperations;
+import com.example.Backend.repository.LikeUpdate;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+@Timed(value = MetricsConfig.SERVICE_CALLS, histogram = true)
 @Service
 public class LearningPlanService {
 
     @Autowired
     private LearningPlanRepository learningPlanRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private FeedPageRepository feedPageRepository;
+
+    @Autowired
+    private LikeOperations likeOperations;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private ContentCountService contentCountService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private PushService pushService;
+
+    @Autowired
+    private NotificationService notificationService;
+
     // Create a new learning plan
     public LearningPlan createLearningPlan(LearningPlan plan) {
         if (plan.getUserId() == null || plan.getUserId().isEmpty()) {
@@ -28,105 +75,137 @@ public class LearningPlanService {
         plan.setCreatedAt(new Date());
         plan.setUpdatedAt(new Date());
         plan.setLikes(new ArrayList<>());
+        plan.setLikeCount(0);
         plan.setComments(new ArrayList<>());
-        return learningPlanRepository.save(plan);
+        plan.setCommentCount(0);
+        plan.setCommentsMigrated(true);
+        //followers' timelines are filled in the background; the request returns once the plan is saved
+        LearningPlan saved = notificationService.withOutbox(() -> {
+            LearningPlan stored = learningPlanRepository.save(plan);
+            timelineService.publish(ContentType.LEARNING_PLAN, stored.getId(), stored.getUserId(),
+                    stored.getCreatedAt());
+            return stored;
+        });
+        contentCountService.adjust(saved.getUserId(), ContentType.LEARNING_PLAN, 1);
+        searchService.index(saved);
+        return saved;
     }
 
-    // Get all learning plans
-    public List<LearningPlan> getAllLearningPlans() {
-        return learningPlanRepository.findAllByOrderByCreatedAtDesc();
+    // Get one page of learning plans, newest first
+    public CursorPage<LearningPlanCard> getLearningPlansPage(String cursor, Integer limit, String viewerId) {
+        return feedPageRepository.findPage(LearningPlan.class, null, CardProjection.of(ContentType.LEARNING_PLAN, viewerId), cursor, limit,
+                LearningPlan::getCreatedAt, LearningPlan::getId)
+                .map(item -> LearningPlanCard.from(item, viewerId));
     }
 
     // Get a learning plan by ID
+    @Cacheable(cacheNames = CacheConfig.LEARNING_PLANS, key = "#id")
     public LearningPlan getLearningPlanById(String id) {
         return learningPlanRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("Learning plan not found"));
     }
 
     // Get plans by user ID
-    public List<LearningPlan> getLearningPlansByUserId(String userId) {
-        return learningPlanRepository.findByUserId(userId);
+    //backed by an open cursor: the caller must close the stream
+    public Stream<LearningPlanCard> getLearningPlansByUserId(String userId, String viewerId) {
+        if (userId == null) {
+            return Stream.empty();
+        }
+        return feedPageRepository.streamAll(LearningPlan.class, Criteria.where("userId").is(userId),
+                        CardProjection.of(ContentType.LEARNING_PLAN, viewerId))
+                .map(item -> LearningPlanCard.from(item, viewerId));
     }
 
     // Update learning plan
+    @CacheEvict(cacheNames = CacheConfig.LEARNING_PLANS, key = "#id")
     public LearningPlan updateLearningPlan(String id, LearningPlan planDetails) {
-        LearningPlan plan = getLearningPlanById(id);
-        plan.setTitle(planDetails.getTitle());
-        plan.setDescription(planDetails.getDescription());
-        plan.setTopics(planDetails.getTopics());
-        plan.setResources(planDetails.getResources());
-        plan.setUpdatedAt(new Date());
-        return learningPlanRepository.save(plan);
+        //only the edited fields are written, so likes and comments committed meanwhile are kept
+        LearningPlan saved = mongoTemplate.findAndModify(new Query(Criteria.where("id").is(id)),
+                new Update().set("title", planDetails.getTitle())
+                        .set("description", planDetails.getDescription())
+                        .set("topics", planDetails.getTopics())
+                        .set("resources", planDetails.getResources())
+                        .set("updatedAt", new Date()),
+                FindAndModifyOptions.options().returnNew(true), LearningPlan.class);
+        if (saved == null) {
+            throw new NoSuchElementException("Learning plan not found");
+        }
+        searchService.index(saved);
+        return saved;
     }
 
     // Delete learning plan
+    @CacheEvict(cacheNames = CacheConfig.LEARNING_PLANS, key = "#id")
     public void deleteLearningPlan(String id) {
         LearningPlan plan = getLearningPlanById(id);
         learningPlanRepository.delete(plan);
+        commentService.deleteAllFor(CommentParentType.LEARNING_PLAN, id);
+        timelineService.retract(id);
+        contentCountService.adjust(plan.getUserId(), ContentType.LEARNING_PLAN, -1);
+        searchService.remove(id);
     }
 
     // Add comment
+    @CacheEvict(cacheNames = CacheConfig.LEARNING_PLANS, key = "#planId")
     public LearningPlan addComment(String planId, Comment comment) {
-        LearningPlan plan = getLearningPlanById(planId);
-        if (plan.getComments() == null) {
-            plan.setComments(new ArrayList<>());
+        LearningPlan plan = commentService.addComment(CommentParentType.LEARNING_PLAN, planId, LearningPlan.class, comment);
+        if (plan == null) {
+            throw new NoSuchElementException("Learning plan not found");
         }
-        if (comment.getUserName() == null || comment.getUserName().isEmpty()) {
-            comment.setUserName("Unknown User");
-        }
-        comment.setId(UUID.randomUUID().toString());
-        comment.setCreatedAt(new Date());
-        comment.setUpdatedAt(new Date());
-        plan.getComments().add(comment);
-        return learningPlanRepository.save(plan);
+        pushService.commentAdded(ContentType.LEARNING_PLAN, planId, comment);
+        return plan;
+    }
+
+    // Get one page of comments, newest first
+    public CursorPage<Comment> getComments(String planId, String cursor, Integer limit) {
+        return commentService.getComments(CommentParentType.LEARNING_PLAN, planId, cursor, limit);
     }
 
     // Update comment
-    public LearningPlan updateComment(String planId, String commentId, Comment commentDetails) {
-        LearningPlan plan = getLearningPlanById(planId);
-        plan.getComments().stream()
-                .filter(c -> c.getId().equals(commentId))
-                .findFirst()
-                .ifPresent(c -> {
-                    c.setContent(commentDetails.getContent());
-                    c.setUpdatedAt(new Date());
-                });
-        return learningPlanRepository.save(plan);
+    @CacheEvict(cacheNames = CacheConfig.LEARNING_PLANS, key = "#planId")
+    public LearningPlan updateComment(String planId, String commentId, Comment commentDetails, String userId) {
+        LearningPlan plan = commentService.updateComment(CommentParentType.LEARNING_PLAN, planId, LearningPlan.class,
+                commentId, commentDetails, userId);
+        if (plan == null) {
+            throw new NoSuchElementException("Learning plan not found");
+        }
+        return plan;
     }
 
     // Delete comment
+    @CacheEvict(cacheNames = CacheConfig.LEARNING_PLANS, key = "#planId")
     public LearningPlan deleteComment(String planId, String commentId, String userId) {
-        LearningPlan plan = getLearningPlanById(planId);
-        boolean isOwner = plan.getUserId().equals(userId);
-        plan.setComments(plan.getComments().stream()
-                .filter(c -> !(c.getId().equals(commentId) && (c.getUserId().equals(userId) || isOwner)))
-                .collect(Collectors.toList()));
-        return learningPlanRepository.save(plan);
+        LearningPlan plan = commentService.deleteComment(CommentParentType.LEARNING_PLAN, planId, LearningPlan.class,
+                LearningPlan::getUserId, commentId, userId);
+        if (plan == null) {
+            throw new NoSuchElementException("Learning plan not found");
+        }
+        return plan;
     }
 
     // Add like
-    public LearningPlan addLike(String planId, Like like) {
-        LearningPlan plan = getLearningPlanById(planId);
-        if (plan.getLikes() == null) {
-            plan.setLikes(new ArrayList<>());
+    @CacheEvict(cacheNames = CacheConfig.LEARNING_PLANS, key = "#planId")
+    public LikeResult addLike(String planId, Like like) {
+        LikeUpdate result = likeOperations.addLike(LearningPlan.class, planId, like.getUserId());
+        if (result == null) {
+            throw new NoSuchElementException("Learning plan not found");
         }
-        boolean alreadyLiked = plan.getLikes().stream()
-                .anyMatch(l -> l.getUserId().equals(like.getUserId()));
-
-        if (!alreadyLiked) {
-            like.setCreatedAt(new Date());
-            plan.getLikes().add(like);
-            return learningPlanRepository.save(plan);
+        if (result.isChanged()) {
+            pushService.likesChanged(ContentType.LEARNING_PLAN, planId, result.getLikeCount());
         }
-        return plan;
+        return new LikeResult(planId, result.getLikeCount(), true);
     }
 
     // Remove like
-    public LearningPlan removeLike(String planId, String userId) {
-        LearningPlan plan = getLearningPlanById(planId);
-        plan.setLikes(plan.getLikes().stream()
-                .filter(like -> !like.getUserId().equals(userId))
-                .collect(Collectors.toList()));
-        return learningPlanRepository.save(plan);
+    @CacheEvict(cacheNames = CacheConfig.LEARNING_PLANS, key = "#planId")
+    public LikeResult removeLike(String planId, String userId) {
+        LikeUpdate result = likeOperations.removeLike(LearningPlan.class, planId, userId);
+        if (result == null) {
+            throw new NoSuchElementException("Learning plan not found");
+        }
+        if (result.isChanged()) {
+            pushService.likesChanged(ContentType.LEARNING_PLAN, planId, result.getLikeCount());
+        }
+        return new LikeResult(planId, result.getLikeCount(), false);
     }
 }
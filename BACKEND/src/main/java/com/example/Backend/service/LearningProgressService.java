@@ -1,26 +1,67 @@
 package com.example.Backend.service;
 
+import com.example.Backend.config.CacheConfig;
+import com.example.Backend.config.MetricsConfig;
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.dto.LearningProgressCard;
+import com.example.Backend.dto.LikeResult;
+import com.example.Backend.enums.CommentParentType;
+import com.example.Backend.enums.ContentType;
 import com.example.Backend.model.Comment;
 import com.example.Backend.model.LearningProgress;
 import com.example.Backend.model.Like;
+import com.example.Backend.repository.CardProjection;
+import com.example.Backend.repository.FeedPageRepository;
 import com.example.Backend.repository.LearningProgressRepository;
+import com.example.Backend.repository.LikeOperations;
+import com.example.Backend.repository.LikeUpdate;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+@Timed(value = MetricsConfig.SERVICE_CALLS, histogram = true)
 @Service
 public class LearningProgressService {
 
 
     private final LearningProgressRepository learningProgressRepository;
+    private final MongoTemplate mongoTemplate;
     private final NotificationService notificationService;
+    private final FeedPageRepository feedPageRepository;
+    private final LikeOperations likeOperations;
+    private final CommentService commentService;
+    private final TimelineService timelineService;
+    private final ContentCountService contentCountService;
+    private final SearchService searchService;
+    private final PushService pushService;
 
-    public LearningProgressService(LearningProgressRepository learningProgressRepository, NotificationService notificationService) {
+    public LearningProgressService(LearningProgressRepository learningProgressRepository, MongoTemplate mongoTemplate,
+                                   NotificationService notificationService,
+                                   FeedPageRepository feedPageRepository, LikeOperations likeOperations,
+                                   CommentService commentService, TimelineService timelineService,
+                                   ContentCountService contentCountService, SearchService searchService,
+                                   PushService pushService) {
         this.learningProgressRepository = learningProgressRepository;
+        this.mongoTemplate = mongoTemplate;
         this.notificationService = notificationService;
+        this.feedPageRepository = feedPageRepository;
+        this.likeOperations = likeOperations;
+        this.commentService = commentService;
+        this.timelineService = timelineService;
+        this.contentCountService = contentCountService;
+        this.searchService = searchService;
+        this.pushService = pushService;
     }
 
     //create a new learning progress entry
@@ -62,118 +103,159 @@ public class LearningProgressService {
         progress.setCreatedAt(new Date());
         progress.setUpdatedAt(new Date());
         progress.setLikes(new ArrayList<>());
+        progress.setLikeCount(0);
         progress.setComments(new ArrayList<>());
-        return learningProgressRepository.save(progress);
+        progress.setCommentCount(0);
+        progress.setCommentsMigrated(true);
+        //followers' timelines are filled in the background; the request returns once the entry is saved
+        LearningProgress saved = notificationService.withOutbox(() -> {
+            LearningProgress stored = learningProgressRepository.save(progress);
+            timelineService.publish(ContentType.LEARNING_PROGRESS, stored.getId(), stored.getUserId(),
+                    stored.getCreatedAt());
+            return stored;
+        });
+        contentCountService.adjust(saved.getUserId(), ContentType.LEARNING_PROGRESS, 1);
+        searchService.index(saved);
+        return saved;
     }
 
-    //get all learning progress entries
-    public List<LearningProgress> getAllLearningProgress() {
-        return learningProgressRepository.findAllByOrderByCreatedAtDesc();
+    //get one page of learning progress entries, newest first
+    public CursorPage<LearningProgressCard> getLearningProgressPage(String cursor, Integer limit, String viewerId) {
+        return feedPageRepository.findPage(LearningProgress.class, null, CardProjection.of(ContentType.LEARNING_PROGRESS, viewerId), cursor, limit,
+                LearningProgress::getCreatedAt, LearningProgress::getId)
+                .map(item -> LearningProgressCard.from(item, viewerId));
     }
 
     //get a learning progress entry by ID
+    @Cacheable(cacheNames = CacheConfig.LEARNING_PROGRESS, key = "#id")
     public LearningProgress getLearningProgressById(String id) {
         return learningProgressRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("Learning progress not found"));
     }
 
     //get entries by user ID
-    public List<LearningProgress> getLearningProgressByUserId(String userId) {
-        return learningProgressRepository.findByUserId(userId);
+    //backed by an open cursor: the caller must close the stream
+    public Stream<LearningProgressCard> getLearningProgressByUserId(String userId, String viewerId) {
+        if (userId == null) {
+            return Stream.empty();
+        }
+        return feedPageRepository.streamAll(LearningProgress.class, Criteria.where("userId").is(userId),
+                        CardProjection.of(ContentType.LEARNING_PROGRESS, viewerId))
+                .map(item -> LearningProgressCard.from(item, viewerId));
     }
 
     //update learning progress entry
+    @CacheEvict(cacheNames = CacheConfig.LEARNING_PROGRESS, key = "#id")
     public LearningProgress updateLearningProgress(String id, LearningProgress progressDetails) {
-        LearningProgress progress = getLearningProgressById(id);
-        progress.setTitle(progressDetails.getTitle());
-        progress.setDescription(progressDetails.getDescription());
-        progress.setTemplateType(progressDetails.getTemplateType());
-        progress.setStatus(progressDetails.getStatus());
-        progress.setTutorialName(progressDetails.getTutorialName());
-        progress.setProjectName(progressDetails.getProjectName());
-        progress.setSkillsLearned(progressDetails.getSkillsLearned());
-        progress.setChallenges(progressDetails.getChallenges());
-        progress.setNextSteps(progressDetails.getNextSteps());
-        progress.setUpdatedAt(new Date());
-        return learningProgressRepository.save(progress);
+        //only the edited fields are written, so likes and comments committed meanwhile are kept
+        LearningProgress saved = mongoTemplate.findAndModify(new Query(Criteria.where("id").is(id)),
+                new Update().set("title", progressDetails.getTitle())
+                        .set("description", progressDetails.getDescription())
+                        .set("templateType", progressDetails.getTemplateType())
+                        .set("status", progressDetails.getStatus())
+                        .set("tutorialName", progressDetails.getTutorialName())
+                        .set("projectName", progressDetails.getProjectName())
+                        .set("skillsLearned", progressDetails.getSkillsLearned())
+                        .set("challenges", progressDetails.getChallenges())
+                        .set("nextSteps", progressDetails.getNextSteps())
+                        .set("updatedAt", new Date()),
+                FindAndModifyOptions.options().returnNew(true), LearningProgress.class);
+        if (saved == null) {
+            throw new NoSuchElementException("Learning progress not found");
+        }
+        searchService.index(saved);
+        return saved;
     }
 
     //delete learning progress entry
+    @CacheEvict(cacheNames = CacheConfig.LEARNING_PROGRESS, key = "#id")
     public void deleteLearningProgress(String id) {
         LearningProgress progress = getLearningProgressById(id);
         learningProgressRepository.delete(progress);
+        commentService.deleteAllFor(CommentParentType.LEARNING_PROGRESS, id);
+        timelineService.retract(id);
+        contentCountService.adjust(progress.getUserId(), ContentType.LEARNING_PROGRESS, -1);
+        searchService.remove(id);
     }
 
     //add comment
+    @CacheEvict(cacheNames = CacheConfig.LEARNING_PROGRESS, key = "#entryId")
     public LearningProgress addComment(String entryId, Comment comment) {
-        LearningProgress progress = getLearningProgressById(entryId);
-        if (progress.getComments() == null) {
-            progress.setComments(new ArrayList<>());
-        }
-        if (comment.getUserName() == null || comment.getUserName().isEmpty()) {
-            comment.setUserName("Unknown User");
-        }
-        comment.setId(UUID.randomUUID().toString());
-        comment.setCreatedAt(new Date());
-        comment.setUpdatedAt(new Date());
-        progress.getComments().add(comment);
-        if (!progress.getUserId().equals(comment.getUserId())) {
-            notificationService.createCommentNotification(entryId, progress.getUserId(), comment.getUserId(),
-                    comment.getContent());
+        //the comment and its notification event are stored together or not at all
+        LearningProgress progress = notificationService.withOutbox(() -> {
+            LearningProgress updated = commentService.addComment(CommentParentType.LEARNING_PROGRESS, entryId,
+                    LearningProgress.class, comment);
+            if (updated != null && !updated.getUserId().equals(comment.getUserId())) {
+                notificationService.createCommentNotification(ContentType.LEARNING_PROGRESS, entryId,
+                        updated.getUserId(), comment);
+            }
+            return updated;
+        });
+        if (progress == null) {
+            throw new NoSuchElementException("Learning progress not found");
         }
-        return learningProgressRepository.save(progress);
+        pushService.commentAdded(ContentType.LEARNING_PROGRESS, entryId, comment);
+        return progress;
+    }
+
+    //get one page of comments, newest first
+    public CursorPage<Comment> getComments(String entryId, String cursor, Integer limit) {
+        return commentService.getComments(CommentParentType.LEARNING_PROGRESS, entryId, cursor, limit);
     }
 
     //update comment
-    public LearningProgress updateComment(String entryId, String commentId, Comment commentDetails) {
-        LearningProgress progress = getLearningProgressById(entryId);
-        progress.getComments().stream()
-                .filter(c -> c.getId().equals(commentId))
-                .findFirst()
-                .ifPresent(c -> {
-                    c.setContent(commentDetails.getContent());
-                    c.setUpdatedAt(new Date());
-                });
-        return learningProgressRepository.save(progress);
+    @CacheEvict(cacheNames = CacheConfig.LEARNING_PROGRESS, key = "#entryId")
+    public LearningProgress updateComment(String entryId, String commentId, Comment commentDetails, String userId) {
+        LearningProgress progress = commentService.updateComment(CommentParentType.LEARNING_PROGRESS, entryId,
+                LearningProgress.class, commentId, commentDetails, userId);
+        if (progress == null) {
+            throw new NoSuchElementException("Learning progress not found");
+        }
+        return progress;
     }
 
     //delete comment
+    @CacheEvict(cacheNames = CacheConfig.LEARNING_PROGRESS, key = "#entryId")
     public LearningProgress deleteComment(String entryId, String commentId, String userId) {
-        LearningProgress progress = getLearningProgressById(entryId);
-        boolean isOwner = progress.getUserId().equals(userId);
-        progress.setComments(progress.getComments().stream()
-                .filter(c -> !(c.getId().equals(commentId) && (c.getUserId().equals(userId) || isOwner)))
-                .collect(Collectors.toList()));
-        return learningProgressRepository.save(progress);
+        LearningProgress progress = commentService.deleteComment(CommentParentType.LEARNING_PROGRESS, entryId,
+                LearningProgress.class, LearningProgress::getUserId, commentId, userId);
+        if (progress == null) {
+            throw new NoSuchElementException("Learning progress not found");
+        }
+        return progress;
     }
 
     //add like
-    public LearningProgress addLike(String entryId, Like like) {
-        LearningProgress progress = getLearningProgressById(entryId);
-        if (progress.getLikes() == null) {
-            progress.setLikes(new ArrayList<>());
-        }
-        boolean alreadyLiked = progress.getLikes().stream()
-                .anyMatch(l -> l.getUserId().equals(like.getUserId()));
-
-        if (!alreadyLiked) {
-            like.setCreatedAt(new Date());
-            progress.getLikes().add(like);
-            // Trigger notification if liker is not the post owner
-            if (!progress.getUserId().equals(like.getUserId())) {
-                notificationService.createLikeNotification(entryId, progress.getUserId(), like.getUserId());
+    @CacheEvict(cacheNames = CacheConfig.LEARNING_PROGRESS, key = "#entryId")
+    public LikeResult addLike(String entryId, Like like) {
+        LikeUpdate result = notificationService.withOutbox(() -> {
+            LikeUpdate update = likeOperations.addLike(LearningProgress.class, entryId, like.getUserId());
+            //notify only when this call added the like, and never for liking your own content
+            if (update != null && update.isChanged() && !like.getUserId().equals(update.getOwnerId())) {
+                notificationService.createLikeNotification(ContentType.LEARNING_PROGRESS, entryId,
+                        update.getOwnerId(), like.getUserId());
             }
-            return learningProgressRepository.save(progress);
+            return update;
+        });
+        if (result == null) {
+            throw new NoSuchElementException("Learning progress not found");
         }
-        return progress;
+        if (result.isChanged()) {
+            pushService.likesChanged(ContentType.LEARNING_PROGRESS, entryId, result.getLikeCount());
+        }
+        return new LikeResult(entryId, result.getLikeCount(), true);
     }
 
     //remove like
-    public LearningProgress removeLike(String entryId, String userId) {
-        LearningProgress progress = getLearningProgressById(entryId);
-        progress.setLikes(progress.getLikes().stream()
-                .filter(like -> !like.getUserId().equals(userId))
-                .collect(Collectors.toList()));
-        return learningProgressRepository.save(progress);
+    @CacheEvict(cacheNames = CacheConfig.LEARNING_PROGRESS, key = "#entryId")
+    public LikeResult removeLike(String entryId, String userId) {
+        LikeUpdate result = likeOperations.removeLike(LearningProgress.class, entryId, userId);
+        if (result == null) {
+            throw new NoSuchElementException("Learning progress not found");
+        }
+        if (result.isChanged()) {
+            pushService.likesChanged(ContentType.LEARNING_PROGRESS, entryId, result.getLikeCount());
+        }
+        return new LikeResult(entryId, result.getLikeCount(), false);
     }
 }
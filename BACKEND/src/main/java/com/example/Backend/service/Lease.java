@@ -0,0 +1,44 @@
+package com.example.Backend.service;
+
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+import java.util.UUID;
+
+//a named lease in the leases collection, so a background job runs on one node at a time
+class Lease {
+
+    private static final String LEASES = "leases";
+
+    private final MongoTemplate mongoTemplate;
+    private final String name;
+    private final long millis;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    Lease(MongoTemplate mongoTemplate, String name, long millis) {
+        this.mongoTemplate = mongoTemplate;
+        this.name = name;
+        this.millis = millis;
+    }
+
+    //claims or renews the lease; a lease left by a stopped node is taken over once it runs out
+    boolean hold() {
+        Date now = new Date();
+        Query query = new Query(Criteria.where("_id").is(name)
+                .orOperator(Criteria.where("owner").is(nodeId), Criteria.where("until").lt(now)));
+        Update update = new Update().set("owner", nodeId).set("until", new Date(now.getTime() + millis));
+        try {
+            return mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), Document.class, LEASES) != null;
+        } catch (DuplicateKeyException e) {
+            //another node holds it
+            return false;
+        }
+    }
+}
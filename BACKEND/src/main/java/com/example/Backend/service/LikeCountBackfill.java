@@ -0,0 +1,48 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.LearningPlan;
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Post;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+
+//seeds likeCount on documents written before the counter existed, server-side in one update per collection
+@Component
+@ConditionalOnProperty(name = "likes.backfill-counts", havingValue = "true", matchIfMissing = true)
+public class LikeCountBackfill implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LikeCountBackfill.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    public LikeCountBackfill(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        AggregationUpdate update = AggregationUpdate.update()
+                .set("likeCount").toValue(ArrayOperators.Size.lengthOfArray(
+                        ConditionalOperators.ifNull("likes").then(Collections.emptyList())));
+        for (Class<?> type : List.of(Post.class, LearningPlan.class, LearningProgress.class)) {
+            long modified = mongoTemplate.updateMulti(new Query(Criteria.where("likeCount").exists(false)), update, type)
+                    .getModifiedCount();
+            if (modified > 0) {
+                log.info("Backfilled likeCount on {} {} documents", modified, mongoTemplate.getCollectionName(type));
+            }
+        }
+    }
+}
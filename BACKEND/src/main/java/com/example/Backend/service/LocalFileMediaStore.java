@@ -0,0 +1,92 @@
+package com.example.Backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.UUID;
+
+//filesystem-backed store for tests and single-node development (media.store=local)
+@Service
+@ConditionalOnProperty(name = "media.store", havingValue = "local")
+public class LocalFileMediaStore implements MediaStore {
+
+    private final Path root;
+
+    public LocalFileMediaStore(@Value("${media.local.root:media}") String root) throws IOException {
+        this.root = Paths.get(root).toAbsolutePath();
+        Files.createDirectories(this.root);
+    }
+
+    @Override
+    public StoredMedia save(InputStream content, String filename, String contentType, String ownerId) throws IOException {
+        String id = UUID.randomUUID().toString().replace("-", "");
+        Files.copy(content, dataPath(id), StandardCopyOption.REPLACE_EXISTING);
+
+        Properties metadata = new Properties();
+        metadata.setProperty("filename", filename != null ? filename : "media");
+        if (contentType != null) {
+            metadata.setProperty("contentType", contentType);
+        }
+        if (ownerId != null) {
+            metadata.setProperty("ownerId", ownerId);
+        }
+        try (OutputStream out = Files.newOutputStream(metaPath(id))) {
+            metadata.store(out, null);
+        }
+        return find(id).orElseThrow();
+    }
+
+    @Override
+    public Optional<StoredMedia> find(String id) {
+        if (!isValidId(id) || !Files.exists(dataPath(id))) {
+            return Optional.empty();
+        }
+        Properties metadata = new Properties();
+        try (InputStream in = Files.newInputStream(metaPath(id))) {
+            metadata.load(in);
+            return Optional.of(new StoredMedia(id, metadata.getProperty("filename"),
+                    metadata.getProperty("contentType"), Files.size(dataPath(id)), metadata.getProperty("ownerId"),
+                    new FileSystemResource(dataPath(id))));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void delete(String id) {
+        if (!isValidId(id)) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(dataPath(id));
+            Files.deleteIfExists(metaPath(id));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path dataPath(String id) {
+        return root.resolve(id);
+    }
+
+    private Path metaPath(String id) {
+        return root.resolve(id + ".meta");
+    }
+
+    //ids are generated hex strings; anything else could escape the root directory
+    private boolean isValidId(String id) {
+        return id != null && id.matches("[0-9a-f]{32}");
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.Backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+//in-memory window counters for tests and single-node development (ratelimit.store=local)
+@Service
+@ConditionalOnProperty(name = "ratelimit.store", havingValue = "local")
+public class LocalRateLimitStore implements RateLimitStore {
+
+    private final Cache<String, AtomicLong> windows;
+
+    public LocalRateLimitStore(@Value("${ratelimit.window-seconds:60}") long windowSeconds,
+                               @Value("${ratelimit.max-keys:100000}") long maxKeys) {
+        this.windows = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(2 * windowSeconds))
+                .maximumSize(2 * maxKeys)
+                .build();
+    }
+
+    @Override
+    public WindowCounts hit(String key, long windowMillis, long now) {
+        long window = now / windowMillis;
+        long current = windows.get(key + "@" + window, id -> new AtomicLong()).incrementAndGet();
+        AtomicLong previous = windows.getIfPresent(key + "@" + (window - 1));
+        return new WindowCounts(previous != null ? previous.get() : 0, current);
+    }
+}
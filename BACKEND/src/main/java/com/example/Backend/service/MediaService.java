@@ -0,0 +1,168 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.MediaItem;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+public class MediaService {
+
+    public static final String MEDIA_PATH = "/api/media/";
+    //served from our own origin, so only types browsers render passively; svg and html can carry script
+    private static final Set<String> SUPPORTED_TYPES = Set.of(
+            "image/jpeg", "image/png", "image/gif", "image/webp", "video/mp4");
+
+    private final MediaStore mediaStore;
+    private final ObjectMapper objectMapper;
+
+    public MediaService(MediaStore mediaStore, ObjectMapper objectMapper) {
+        this.mediaStore = mediaStore;
+        this.objectMapper = objectMapper;
+    }
+
+    //store uploaded files; multipart parts are spooled to disk by the container and streamed from there
+    public List<MediaItem> upload(List<MultipartFile> files, String ownerId) throws IOException {
+        List<MediaItem> items = new ArrayList<>();
+        for (MultipartFile file : files) {
+            String contentType = file.getContentType();
+            if (!isSupportedType(contentType)) {
+                throw new IllegalArgumentException("Only JPEG, PNG, GIF, WebP and MP4 uploads are supported");
+            }
+            try (InputStream in = file.getInputStream()) {
+                StoredMedia stored = mediaStore.save(in, file.getOriginalFilename(), contentType, ownerId);
+                items.add(toItem(stored));
+            }
+        }
+        return items;
+    }
+
+    public Optional<StoredMedia> find(String id) {
+        return mediaStore.find(id);
+    }
+
+    //move any inline base64 entries into the media store, leaving only URL references behind
+    public List<String> externalizeInline(List<String> mediaUrls, String ownerId) {
+        if (mediaUrls == null) {
+            return null;
+        }
+        List<String> result = new ArrayList<>(mediaUrls.size());
+        for (String entry : mediaUrls) {
+            String dataUrl = inlineDataUrl(entry);
+            result.add(dataUrl == null ? entry : toEntry(storeDataUrl(dataUrl, ownerId)));
+        }
+        return result;
+    }
+
+    public boolean hasInline(List<String> mediaUrls) {
+        return mediaUrls != null && mediaUrls.stream().anyMatch(entry -> inlineDataUrl(entry) != null);
+    }
+
+    //remove blobs referenced by a post that is being deleted or whose media was replaced. a post can reference
+    //anyone's media url, so only blobs the post's author uploaded are deleted
+    public void deleteReferenced(List<String> mediaUrls, String ownerId) {
+        if (mediaUrls == null || ownerId == null) {
+            return;
+        }
+        for (String entry : mediaUrls) {
+            String id = referencedId(entry);
+            if (id != null && mediaStore.find(id).filter(media -> ownerId.equals(media.getOwnerId())).isPresent()) {
+                mediaStore.delete(id);
+            }
+        }
+    }
+
+    public boolean isSupportedType(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        int parameters = contentType.indexOf(';');
+        String type = parameters < 0 ? contentType : contentType.substring(0, parameters);
+        return SUPPORTED_TYPES.contains(type.trim().toLowerCase(Locale.ROOT));
+    }
+
+    public String referencedId(String entry) {
+        JsonNode node = parseEntry(entry);
+        String url = node != null ? node.path("url").asText(null) : entry;
+        if (url == null || !url.startsWith(MEDIA_PATH)) {
+            return null;
+        }
+        return url.substring(MEDIA_PATH.length());
+    }
+
+    private StoredMedia storeDataUrl(String dataUrl, String ownerId) {
+        //data:<mime>;base64,<payload>
+        int comma = dataUrl.indexOf(',');
+        int semicolon = dataUrl.indexOf(';');
+        if (comma < 0 || semicolon < 0 || semicolon > comma) {
+            throw new IllegalArgumentException("Unsupported inline media format");
+        }
+        String contentType = dataUrl.substring("data:".length(), semicolon);
+        if (!isSupportedType(contentType)) {
+            throw new IllegalArgumentException("Unsupported inline media type: " + contentType);
+        }
+        InputStream decoded = Base64.getMimeDecoder().wrap(new ByteArrayInputStream(
+                dataUrl.substring(comma + 1).getBytes(StandardCharsets.US_ASCII)));
+        try {
+            return mediaStore.save(decoded, "inline", contentType, ownerId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String inlineDataUrl(String entry) {
+        if (entry == null) {
+            return null;
+        }
+        if (entry.startsWith("data:")) {
+            return entry;
+        }
+        JsonNode node = parseEntry(entry);
+        if (node != null) {
+            String dataUrl = node.path("dataUrl").asText(null);
+            if (dataUrl != null && dataUrl.startsWith("data:")) {
+                return dataUrl;
+            }
+        }
+        return null;
+    }
+
+    private JsonNode parseEntry(String entry) {
+        if (entry == null || !entry.startsWith("{")) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(entry);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private MediaItem toItem(StoredMedia stored) {
+        String contentType = stored.getContentType();
+        String type = contentType != null && contentType.startsWith("video/") ? "video" : "image";
+        return new MediaItem(stored.getId(), MEDIA_PATH + stored.getId(), type, contentType);
+    }
+
+    private String toEntry(StoredMedia stored) {
+        try {
+            return objectMapper.writeValueAsString(toItem(stored));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.Backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+//blob storage for post media; implementations must stream content rather than buffer it on the heap
+public interface MediaStore {
+
+    StoredMedia save(InputStream content, String filename, String contentType, String ownerId) throws IOException;
+
+    Optional<StoredMedia> find(String id);
+
+    void delete(String id);
+}
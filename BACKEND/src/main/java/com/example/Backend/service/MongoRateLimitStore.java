@@ -0,0 +1,53 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.RateLimitWindow;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+
+//window counters in the rate_limits collection, shared by every node (ratelimit.store=mongo, the default)
+@Service
+@ConditionalOnProperty(name = "ratelimit.store", havingValue = "mongo", matchIfMissing = true)
+public class MongoRateLimitStore implements RateLimitStore {
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoRateLimitStore(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    //one round trip per key: a single document holds the current window's count and the previous one's, rolled
+    //forward by the same pipeline update that counts the hit, and the updated document comes back
+    @Override
+    public WindowCounts hit(String key, long windowMillis, long now) {
+        long window = now / windowMillis;
+        Document sameWindow = new Document("$eq", List.of("$window", window));
+        Document lastWindow = new Document("$eq", List.of("$window", window - 1));
+        //every expression reads the document as it was before this update
+        Document roll = new Document("$set", new Document()
+                .append("previous", new Document("$switch", new Document()
+                        .append("branches", List.of(
+                                new Document("case", sameWindow).append("then", "$previous"),
+                                new Document("case", lastWindow).append("then", "$count")))
+                        .append("default", 0L)))
+                .append("count", new Document("$cond", List.of(sameWindow, new Document("$add", List.of("$count", 1L)), 1L)))
+                .append("window", window)
+                //kept until the window after next, the last one whose sliding estimate still reads it
+                .append("expiresAt", new Date((window + 2) * windowMillis)));
+
+        Document updated = mongoTemplate.getCollection(mongoTemplate.getCollectionName(RateLimitWindow.class))
+                .findOneAndUpdate(new Document("_id", key), List.of(roll),
+                        new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER));
+        if (updated == null) {
+            return new WindowCounts(0, 1);
+        }
+        RateLimitWindow current = mongoTemplate.getConverter().read(RateLimitWindow.class, updated);
+        return new WindowCounts(current.getPrevious(), current.getCount());
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.Backend.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+//mongo documents as NDJSON: one object per line, with the extended json wrappers ({"$oid"}, {"$date"},
+//{"$numberLong"}, {"$numberDecimal"}, {"$binary"}) for values plain json would lose the type of. read and written
+//token by token with the jackson streaming api, so only the current document is ever on the heap
+public final class NdjsonDocuments {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private NdjsonDocuments() {
+    }
+
+    //closing the reader closes the stream
+    public static Reader reader(InputStream in) throws IOException {
+        return new Reader(JSON.createParser(in));
+    }
+
+    public static Writer writer(OutputStream out) throws IOException {
+        JsonGenerator generator = JSON.createGenerator(out);
+        //each document ends its own line instead
+        generator.setRootValueSeparator(null);
+        return new Writer(generator);
+    }
+
+    public static class Reader implements Closeable {
+
+        private final JsonParser parser;
+
+        private Reader(JsonParser parser) {
+            this.parser = parser;
+        }
+
+        //null at the end of the input
+        public Document next() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return null;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "expected a document, found " + token);
+            }
+            Object value = object();
+            if (!(value instanceof Document document)) {
+                throw new JsonParseException(parser, "expected a document, found " + value.getClass().getSimpleName());
+            }
+            return document;
+        }
+
+        //passes over documents without building them, to resume part-way through a file; returns how many it skipped
+        public long skip(long documents) throws IOException {
+            long skipped = 0;
+            while (skipped < documents && parser.nextToken() != null) {
+                parser.skipChildren();
+                skipped++;
+            }
+            return skipped;
+        }
+
+        //line of the current document, for error messages
+        public int line() {
+            return parser.currentLocation().getLineNr();
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+
+        private Object value(JsonToken token) throws IOException {
+            switch (token) {
+                case START_OBJECT:
+                    return object();
+                case START_ARRAY:
+                    List<Object> list = new ArrayList<>();
+                    JsonToken element;
+                    while ((element = parser.nextToken()) != JsonToken.END_ARRAY) {
+                        list.add(value(element));
+                    }
+                    return list;
+                case VALUE_STRING:
+                    return parser.getText();
+                case VALUE_NUMBER_INT:
+                    //int32 where it fits, as the shell does; the writer wraps longs that would fit in $numberLong
+                    long number = parser.getLongValue();
+                    return number == (int) number ? (Object) (int) number : (Object) number;
+                case VALUE_NUMBER_FLOAT:
+                    return parser.getDoubleValue();
+                case VALUE_TRUE:
+                    return true;
+                case VALUE_FALSE:
+                    return false;
+                case VALUE_NULL:
+                    return null;
+                default:
+                    throw new JsonParseException(parser, "unexpected " + token);
+            }
+        }
+
+        //a single $-prefixed field is an extended json wrapper; anything else is a document
+        private Object object() throws IOException {
+            Document document = new Document();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                document.put(name, value(parser.nextToken()));
+            }
+            if (document.size() != 1) {
+                return document;
+            }
+            Map.Entry<String, Object> field = document.entrySet().iterator().next();
+            Object value = field.getValue();
+            try {
+                switch (field.getKey()) {
+                    case "$oid":
+                        return new ObjectId((String) value);
+                    case "$date":
+                        return date(value);
+                    case "$numberLong":
+                        return Long.parseLong((String) value);
+                    case "$numberInt":
+                        return Integer.parseInt((String) value);
+                    case "$numberDouble":
+                        return Double.parseDouble((String) value);
+                    case "$numberDecimal":
+                        return Decimal128.parse((String) value);
+                    case "$binary":
+                        Document binary = (Document) value;
+                        return new Binary((byte) Integer.parseInt(binary.getString("subType"), 16),
+                                Base64.getDecoder().decode(binary.getString("base64")));
+                    default:
+                        return document;
+                }
+            } catch (RuntimeException e) {
+                throw new JsonParseException(parser, "invalid " + field.getKey() + ": " + value, e);
+            }
+        }
+
+        private static Date date(Object value) {
+            if (value instanceof String iso) {
+                return Date.from(Instant.parse(iso));
+            }
+            if (value instanceof Number millis) {
+                return new Date(millis.longValue());
+            }
+            throw new IllegalArgumentException("not a date");
+        }
+    }
+
+    public static class Writer implements Closeable {
+
+        private final JsonGenerator generator;
+
+        private Writer(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        public void write(Document document) throws IOException {
+            value(document);
+            generator.writeRaw('\n');
+        }
+
+        //pushes what is buffered to the stream, e.g. before recording how far an export got
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+
+        private void value(Object value) throws IOException {
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof String string) {
+                generator.writeString(string);
+            } else if (value instanceof Integer number) {
+                generator.writeNumber(number);
+            } else if (value instanceof Long number) {
+                //small longs would read back as ints
+                if (number == number.intValue()) {
+                    wrapped("$numberLong", number.toString());
+                } else {
+                    generator.writeNumber(number);
+                }
+            } else if (value instanceof Double number) {
+                if (number.isNaN() || number.isInfinite()) {
+                    wrapped("$numberDouble", number.toString());
+                } else {
+                    generator.writeNumber(number);
+                }
+            } else if (value instanceof Boolean bool) {
+                generator.writeBoolean(bool);
+            } else if (value instanceof ObjectId id) {
+                wrapped("$oid", id.toHexString());
+            } else if (value instanceof Date date) {
+                wrapped("$date", date.toInstant().toString());
+            } else if (value instanceof Decimal128 decimal) {
+                wrapped("$numberDecimal", decimal.toString());
+            } else if (value instanceof Binary binary) {
+                binary(binary.getType(), binary.getData());
+            } else if (value instanceof byte[] bytes) {
+                binary((byte) 0, bytes);
+            } else if (value instanceof Map<?, ?> map) {
+                generator.writeStartObject();
+                for (Map.Entry<?, ?> field : map.entrySet()) {
+                    generator.writeFieldName(String.valueOf(field.getKey()));
+                    value(field.getValue());
+                }
+                generator.writeEndObject();
+            } else if (value instanceof Collection<?> collection) {
+                generator.writeStartArray();
+                for (Object element : collection) {
+                    value(element);
+                }
+                generator.writeEndArray();
+            } else {
+                throw new IllegalArgumentException("Cannot write " + value.getClass().getName() + " as NDJSON");
+            }
+        }
+
+        private void wrapped(String wrapper, String value) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField(wrapper, value);
+            generator.writeEndObject();
+        }
+
+        private void binary(byte subType, byte[] data) throws IOException {
+            generator.writeStartObject();
+            generator.writeFieldName("$binary");
+            generator.writeStartObject();
+            generator.writeStringField("base64", Base64.getEncoder().encodeToString(data));
+            generator.writeStringField("subType", String.format("%02x", subType));
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.enums.ContentType;
+import com.example.Backend.enums.NotificationType;
+import com.example.Backend.model.Comment;
+import com.example.Backend.model.Notification;
+import com.example.Backend.model.NotificationEvent;
+import com.example.Backend.model.User;
+import com.example.Backend.repository.FeedPageRepository;
+import com.mongodb.MongoException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+//notifications through a transactional outbox: request threads only add an event to notification_outbox in the
+//transaction that stores the like or comment, and a background dispatcher (one node at a time, under a lease) turns
+//batches of events into notifications with a single bulk write, folding likes on the same item together
+@Service
+public class NotificationService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
+
+    //actors a grouped notification names; the rest are only counted
+    static final int SHOWN_ACTORS = 3;
+    private static final int EXCERPT_LENGTH = 140;
+    private static final int MAX_TRANSACTION_ATTEMPTS = 3;
+    //unread counts stop here; clients show "99+"
+    private static final int UNREAD_COUNT_CAP = 100;
+    private static final String DISPATCHER_LEASE = "notification-dispatcher";
+
+    private final MongoTemplate mongoTemplate;
+    private final FeedPageRepository feedPageRepository;
+    private final PushService pushService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long leaseMillis;
+    private final Lease dispatcherLease;
+
+    public NotificationService(MongoTemplate mongoTemplate, FeedPageRepository feedPageRepository,
+                               PushService pushService, MongoTransactionManager transactionManager,
+                               @Value("${notifications.batch-size:500}") int batchSize,
+                               @Value("${notifications.lease-ms:30000}") long leaseMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.feedPageRepository = feedPageRepository;
+        this.pushService = pushService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.leaseMillis = leaseMillis;
+        this.dispatcherLease = new Lease(mongoTemplate, DISPATCHER_LEASE, leaseMillis);
+    }
+
+    //runs write in a transaction, so the events it records exist exactly when its own changes commit; write conflicts
+    //on a busy document abort the transaction, and it is then run again from the start
+    public <T> T withOutbox(Supplier<T> write) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> write.get());
+            } catch (RuntimeException e) {
+                if (attempt == MAX_TRANSACTION_ATTEMPTS || !isTransient(e)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    //must be called inside withOutbox
+    public void createCommentNotification(ContentType contentType, String itemId, String recipientId,
+                                          Comment comment) {
+        NotificationEvent event = event(NotificationType.COMMENT, contentType, itemId, recipientId,
+                comment.getUserId());
+        event.setActorName(comment.getUserName());
+        event.setExcerpt(excerpt(comment.getContent()));
+        mongoTemplate.insert(event);
+    }
+
+    //must be called inside withOutbox
+    public void createLikeNotification(ContentType contentType, String itemId, String recipientId, String likerId) {
+        mongoTemplate.insert(event(NotificationType.LIKE, contentType, itemId, recipientId, likerId));
+    }
+
+    //one event per liker in a single insert, for likes written in a batch; must be called inside withOutbox
+    public void createLikeNotifications(ContentType contentType, String itemId, String recipientId,
+                                        Collection<String> likerIds) {
+        List<NotificationEvent> events = new ArrayList<>();
+        for (String likerId : likerIds) {
+            if (!likerId.equals(recipientId)) {
+                events.add(event(NotificationType.LIKE, contentType, itemId, recipientId, likerId));
+            }
+        }
+        if (!events.isEmpty()) {
+            mongoTemplate.insert(events, NotificationEvent.class);
+        }
+    }
+
+    //newest activity first
+    public CursorPage<Notification> getNotifications(String userId, String cursor, Integer limit) {
+        CursorPage<Notification> page = feedPageRepository.findPage(Notification.class,
+                Criteria.where("recipientId").is(userId), cursor, limit, Notification::getCreatedAt, Notification::getId);
+        //someone who unliked and liked again can be pushed onto a group twice
+        page.getItems().forEach(notification -> notification.setActors(distinct(notification.getActors())));
+        return page;
+    }
+
+    //counted on the partial unread index, and only up to UNREAD_COUNT_CAP
+    public long countUnread(String userId) {
+        Query query = new Query(Criteria.where("recipientId").is(userId).and("read").is(false))
+                .limit(UNREAD_COUNT_CAP);
+        return mongoTemplate.count(query, Notification.class);
+    }
+
+    //false if there is no such notification for this user
+    public boolean markRead(String userId, String notificationId) {
+        Query query = new Query(Criteria.where("id").is(notificationId).and("recipientId").is(userId));
+        return mongoTemplate.updateFirst(query, new Update().set("read", true), Notification.class)
+                .getMatchedCount() > 0;
+    }
+
+    public long markAllRead(String userId) {
+        Query query = new Query(Criteria.where("recipientId").is(userId).and("read").is(false));
+        return mongoTemplate.updateMulti(query, new Update().set("read", true), Notification.class)
+                .getModifiedCount();
+    }
+
+    //drains the outbox while this node holds the dispatcher lease, renewing it batch by batch
+    @Scheduled(fixedDelayString = "${notifications.dispatch-interval-ms:500}")
+    public void dispatch() {
+        long deadline = System.currentTimeMillis() + leaseMillis / 2;
+        try {
+            while (dispatcherLease.hold() && dispatchBatch() == batchSize && System.currentTimeMillis() < deadline) {
+                //a full batch means more are probably waiting
+            }
+        } catch (DataAccessException e) {
+            //the events stay in the outbox and are picked up again on the next run
+            log.warn("Notification dispatch failed: {}", e.getMessage());
+        }
+    }
+
+    //delivery is at least once: a failure between the bulk write and the delete replays the batch. comment
+    //notifications take their event's id, so a replay rewrites the same document; a replayed like is counted again
+    int dispatchBatch() {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "id")).limit(batchSize);
+        List<NotificationEvent> events = mongoTemplate.find(query, NotificationEvent.class);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<Notification> notifications = coalesce(events, likerNames(events));
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Notification.class);
+        for (Notification notification : notifications) {
+            if (notification.getGroupKey() != null) {
+                bulk.upsert(new Query(Criteria.where("groupKey").is(notification.getGroupKey()).and("read").is(false)),
+                        groupUpdate(notification));
+            } else {
+                bulk.upsert(new Query(Criteria.where("id").is(notification.getId())), insertOnly(notification));
+            }
+        }
+        bulk.execute();
+        //live clients get what this batch added; a grouped like carries only this batch's likers and count
+        notifications.forEach(pushService::notified);
+
+        List<String> ids = events.stream().map(NotificationEvent::getId).collect(Collectors.toList());
+        mongoTemplate.remove(new Query(Criteria.where("id").in(ids)), NotificationEvent.class);
+        return events.size();
+    }
+
+    //one notification per comment, one per (item, recipient) for likes naming the latest likers first;
+    //events must be oldest first
+    static List<Notification> coalesce(List<NotificationEvent> events, Map<String, String> names) {
+        List<Notification> notifications = new ArrayList<>();
+        Map<String, Notification> groups = new HashMap<>();
+        Map<String, LinkedHashMap<String, Notification.Actor>> groupActors = new HashMap<>();
+        for (NotificationEvent event : events) {
+            if (event.getType() != NotificationType.LIKE) {
+                Notification notification = notificationFor(event);
+                notification.setId(event.getId());
+                notification.setActors(new ArrayList<>(List.of(
+                        new Notification.Actor(event.getActorId(), event.getActorName()))));
+                notification.setActorCount(1);
+                notification.setExcerpt(event.getExcerpt());
+                notifications.add(notification);
+                continue;
+            }
+            String groupKey = event.getItemId() + ":" + event.getRecipientId();
+            Notification group = groups.get(groupKey);
+            if (group == null) {
+                group = notificationFor(event);
+                group.setGroupKey(groupKey);
+                groups.put(groupKey, group);
+                groupActors.put(groupKey, new LinkedHashMap<>());
+                notifications.add(group);
+            }
+            group.setCreatedAt(event.getCreatedAt());
+            //re-inserted so that insertion order is the order of each actor's latest like
+            LinkedHashMap<String, Notification.Actor> actors = groupActors.get(groupKey);
+            actors.remove(event.getActorId());
+            actors.put(event.getActorId(), new Notification.Actor(event.getActorId(), names.get(event.getActorId())));
+        }
+        groupActors.forEach((groupKey, actors) -> {
+            List<Notification.Actor> latestFirst = new ArrayList<>(actors.values());
+            Collections.reverse(latestFirst);
+            Notification group = groups.get(groupKey);
+            group.setActors(new ArrayList<>(latestFirst.subList(0, Math.min(SHOWN_ACTORS, latestFirst.size()))));
+            group.setActorCount(actors.size());
+        });
+        return notifications;
+    }
+
+    private static Notification notificationFor(NotificationEvent event) {
+        Notification notification = new Notification();
+        notification.setRecipientId(event.getRecipientId());
+        notification.setType(event.getType());
+        notification.setContentType(event.getContentType());
+        notification.setItemId(event.getItemId());
+        notification.setCreatedAt(event.getCreatedAt());
+        return notification;
+    }
+
+    //new likers go in front of the ones already named, and the list stays SHOWN_ACTORS long
+    private static Update groupUpdate(Notification group) {
+        Update update = new Update()
+                .setOnInsert("recipientId", group.getRecipientId())
+                .setOnInsert("type", group.getType())
+                .setOnInsert("contentType", group.getContentType())
+                .setOnInsert("itemId", group.getItemId())
+                .max("createdAt", group.getCreatedAt())
+                .inc("actorCount", group.getActorCount());
+        update.push("actors").atPosition(0).slice(SHOWN_ACTORS).each(group.getActors().toArray());
+        return update;
+    }
+
+    private static Update insertOnly(Notification notification) {
+        return new Update()
+                .setOnInsert("recipientId", notification.getRecipientId())
+                .setOnInsert("type", notification.getType())
+                .setOnInsert("contentType", notification.getContentType())
+                .setOnInsert("itemId", notification.getItemId())
+                .setOnInsert("actors", notification.getActors())
+                .setOnInsert("actorCount", notification.getActorCount())
+                .setOnInsert("excerpt", notification.getExcerpt())
+                .setOnInsert("read", false)
+                .setOnInsert("createdAt", notification.getCreatedAt());
+    }
+
+    //display names of everyone who liked something in this batch, in one query
+    private Map<String, String> likerNames(List<NotificationEvent> events) {
+        Set<String> likers = events.stream()
+                .filter(event -> event.getType() == NotificationType.LIKE)
+                .map(NotificationEvent::getActorId)
+                .collect(Collectors.toSet());
+        if (likers.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Query query = new Query(Criteria.where("id").in(likers));
+        query.fields().include("name");
+        Map<String, String> names = new HashMap<>();
+        mongoTemplate.find(query, User.class).forEach(user -> names.put(user.getId(), user.getName()));
+        return names;
+    }
+
+    private NotificationEvent event(NotificationType type, ContentType contentType, String itemId,
+                                    String recipientId, String actorId) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Notifications must be recorded inside withOutbox");
+        }
+        NotificationEvent event = new NotificationEvent();
+        event.setType(type);
+        event.setContentType(contentType);
+        event.setItemId(itemId);
+        event.setRecipientId(recipientId);
+        event.setActorId(actorId);
+        event.setCreatedAt(new Date());
+        return event;
+    }
+
+    private static String excerpt(String content) {
+        if (content == null || content.length() <= EXCERPT_LENGTH) {
+            return content;
+        }
+        return content.substring(0, EXCERPT_LENGTH - 1) + "…";
+    }
+
+    private static List<Notification.Actor> distinct(List<Notification.Actor> actors) {
+        if (actors == null) {
+            return new ArrayList<>();
+        }
+        Map<String, Notification.Actor> byUser = new LinkedHashMap<>();
+        actors.forEach(actor -> byUser.putIfAbsent(actor.getUserId(), actor));
+        return new ArrayList<>(byUser.values());
+    }
+
+    private static boolean isTransient(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException
+                    && ((MongoException) cause).hasErrorLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -2,23 +2,74 @@ package com.example.Backend.service;
 
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import com.example.Backend.config.CacheConfig;
+import com.example.Backend.config.MetricsConfig;
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.dto.PostCard;
+import com.example.Backend.dto.LikeResult;
+import com.example.Backend.enums.CommentParentType;
+import com.example.Backend.enums.ContentType;
 import com.example.Backend.model.Comment;
 import com.example.Backend.model.Like;
 import com.example.Backend.model.Post;
+import com.example.Backend.repository.CardProjection;
+import com.example.Backend.repository.FeedPageRepository;
+import com.example.Backend.repository.LikeOperations;
+import com.example.Backend.repository.LikeUpdate;
 import com.example.Backend.repository.PostRepository;
 
+@Timed(value = MetricsConfig.SERVICE_CALLS, histogram = true)
 @Service
 public class PostService {
     @Autowired
     private PostRepository postRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private FeedPageRepository feedPageRepository;
+
+    @Autowired
+    private MediaService mediaService;
+
+    @Autowired
+    private LikeOperations likeOperations;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private ContentCountService contentCountService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private PushService pushService;
+
+    @Autowired
+    private HotLikeBuffer hotLikeBuffer;
+
     public Post createPost(Post post) {
         if (post.getUserId() == null || post.getUserId().isEmpty()) {
             throw new IllegalArgumentException("User ID is required");
@@ -26,110 +77,167 @@ public class PostService {
         if (post.getUserName() == null || post.getUserName().isEmpty()) {
             post.setUserName("Unknown User");
         }
+        //older clients still send base64 media inline; keep only references on the document
+        post.setMediaUrls(mediaService.externalizeInline(post.getMediaUrls(), post.getUserId()));
         post.setCreatedAt(new Date());
         post.setUpdatedAt(new Date());
         post.setLikes(new ArrayList<>());
+        post.setLikeCount(0);
         post.setComments(new ArrayList<>());
-        return postRepository.save(post);
+        post.setCommentCount(0);
+        post.setCommentsMigrated(true);
+        //followers' timelines are filled in the background; the request returns once the post is saved
+        Post saved = notificationService.withOutbox(() -> {
+            Post stored = postRepository.save(post);
+            timelineService.publish(ContentType.POST, stored.getId(), stored.getUserId(), stored.getCreatedAt());
+            return stored;
+        });
+        contentCountService.adjust(saved.getUserId(), ContentType.POST, 1);
+        searchService.index(saved);
+        return saved;
     }
 
-    public List<Post> getAllPosts() {
-        return postRepository.findAllByOrderByCreatedAtDesc();
+    public CursorPage<PostCard> getPostsPage(String cursor, Integer limit, String viewerId) {
+        return feedPageRepository.findPage(Post.class, null, CardProjection.of(ContentType.POST, viewerId), cursor, limit,
+                Post::getCreatedAt, Post::getId)
+                .map(item -> PostCard.from(item, viewerId));
     }
 
+    @Cacheable(cacheNames = CacheConfig.POSTS, key = "#id")
     public Post getPostById(String id) {
         return postRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Post not found"));
     }
 
-    public List<Post> getPostsByUserId(String userId) {
-
-        if(userId == null){
-            return Collections.emptyList();
+    //backed by an open cursor: the caller must close the stream
+    public Stream<PostCard> getPostsByUserId(String userId, String viewerId) {
+        if (userId == null) {
+            return Stream.empty();
         }
-        return postRepository.findByUserIdOrderByCreatedAtDesc(userId);
+        return feedPageRepository.streamAll(Post.class, Criteria.where("userId").is(userId),
+                        CardProjection.of(ContentType.POST, viewerId))
+                .map(item -> PostCard.from(item, viewerId));
     }
 
+    @CacheEvict(cacheNames = CacheConfig.POSTS, key = "#id")
     public Post updatePost(String id, Post postDetails) {
-        Post post = getPostById(id);
+        Post current = getPostById(id);
+        List<String> mediaUrls = mediaService.externalizeInline(postDetails.getMediaUrls(), current.getUserId());
+        Date now = new Date();
+        //only the edited fields are written, so likes and comments committed meanwhile are kept; the document as it
+        //was just before this write says which media the edit dropped
+        Post post = mongoTemplate.findAndModify(new Query(Criteria.where("id").is(id)),
+                new Update().set("description", postDetails.getDescription()).set("mediaUrls", mediaUrls)
+                        .set("updatedAt", now),
+                FindAndModifyOptions.options().returnNew(false), Post.class);
+        if (post == null) {
+            throw new RuntimeException("Post not found");
+        }
+        Set<String> keptIds = mediaUrls == null ? Collections.emptySet() : mediaUrls.stream()
+                .map(mediaService::referencedId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        List<String> removed = post.getMediaUrls() == null ? Collections.emptyList() : post.getMediaUrls().stream()
+                .filter(entry -> !keptIds.contains(mediaService.referencedId(entry)))
+                .collect(Collectors.toList());
         post.setDescription(postDetails.getDescription());
-        post.setMediaUrls(postDetails.getMediaUrls());
-        post.setUpdatedAt(new Date());
-        return postRepository.save(post);
+        post.setMediaUrls(mediaUrls);
+        post.setUpdatedAt(now);
+        searchService.index(post);
+        mediaService.deleteReferenced(removed, post.getUserId());
+        return post;
     }
-    
+
+    @CacheEvict(cacheNames = CacheConfig.POSTS, key = "#id")
     public void deletePost(String id) {
         Post post = getPostById(id);
         postRepository.delete(post);
+        commentService.deleteAllFor(CommentParentType.POST, id);
+        timelineService.retract(id);
+        contentCountService.adjust(post.getUserId(), ContentType.POST, -1);
+        searchService.remove(id);
+        mediaService.deleteReferenced(post.getMediaUrls(), post.getUserId());
     }
 
+    @CacheEvict(cacheNames = CacheConfig.POSTS, key = "#postId")
     public Post addComment(String postId, Comment comment) {
-        Post post = getPostById(postId);
-        if (post.getComments() == null) {
-            post.setComments(new ArrayList<>());
-        }
-        if (comment.getUserName() == null || comment.getUserName().isEmpty()) {
-            comment.setUserName("Unknown User");
-        }
-        comment.setId(UUID.randomUUID().toString());
-        comment.setCreatedAt(new Date());
-        comment.setUpdatedAt(new Date());
-        post.getComments().add(comment);
-        post = postRepository.save(post);
-        //trigger notification if commenter is not the post owner
-        if (!post.getUserId().equals(comment.getUserId())) {
-            notificationService.createCommentNotification(postId, post.getUserId(), comment.getUserId(),
-                    comment.getContent());
+        //the comment and its notification event are stored together or not at all
+        Post post = notificationService.withOutbox(() -> {
+            Post updated = commentService.addComment(CommentParentType.POST, postId, Post.class, comment);
+            if (updated != null && !updated.getUserId().equals(comment.getUserId())) {
+                notificationService.createCommentNotification(ContentType.POST, postId, updated.getUserId(), comment);
+            }
+            return updated;
+        });
+        if (post == null) {
+            throw new RuntimeException("Post not found");
         }
+        pushService.commentAdded(ContentType.POST, postId, comment);
         return post;
     }
 
-    public Post updateComment(String postId, String commentId, Comment commentDetails) {
-        Post post = getPostById(postId);
-        post.getComments().stream()
-                .filter(c -> c.getId().equals(commentId))
-                .findFirst()
-                .ifPresent(c -> {
-                    c.setContent(commentDetails.getContent());
-                    c.setUpdatedAt(new Date());
-                });
-        return postRepository.save(post);
+    public CursorPage<Comment> getComments(String postId, String cursor, Integer limit) {
+        return commentService.getComments(CommentParentType.POST, postId, cursor, limit);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.POSTS, key = "#postId")
+    public Post updateComment(String postId, String commentId, Comment commentDetails, String userId) {
+        Post post = commentService.updateComment(CommentParentType.POST, postId, Post.class, commentId, commentDetails,
+                userId);
+        if (post == null) {
+            throw new RuntimeException("Post not found");
+        }
+        return post;
     }
 
+    @CacheEvict(cacheNames = CacheConfig.POSTS, key = "#postId")
     public Post deleteComment(String postId, String commentId, String userId) {
-        Post post = getPostById(postId);
-        boolean isPostOwner = post.getUserId().equals(userId);
-        post.setComments(post.getComments().stream()
-                .filter(c -> !(c.getId().equals(commentId) && (c.getUserId().equals(userId) || isPostOwner)))
-                .collect(Collectors.toList()));
-        return postRepository.save(post);
+        Post post = commentService.deleteComment(CommentParentType.POST, postId, Post.class, Post::getUserId,
+                commentId, userId);
+        if (post == null) {
+            throw new RuntimeException("Post not found");
+        }
+        return post;
     }
 
-    public Post addLike(String postId, Like like) {
-        Post post = getPostById(postId);
-        if (post.getLikes() == null) {
-            post.setLikes(new ArrayList<>());
+    @CacheEvict(cacheNames = CacheConfig.POSTS, key = "#postId")
+    public LikeResult addLike(String postId, Like like) {
+        //a post taking likes faster than likes.hot-key.threshold-per-second has them written in batches
+        LikeUpdate buffered = hotLikeBuffer.addLike(Post.class, ContentType.POST, postId, like.getUserId());
+        if (buffered != null) {
+            return new LikeResult(postId, buffered.getLikeCount(), true);
         }
-        boolean alreadyLiked = post.getLikes().stream()
-                .anyMatch(l -> l.getUserId().equals(like.getUserId()));
-
-        if (!alreadyLiked) {
-            like.setCreatedAt(new Date());
-            post.getLikes().add(like);
-            post = postRepository.save(post);
-            // Trigger notification if liker is not the post owner
-            if (!post.getUserId().equals(like.getUserId())) {
-                notificationService.createLikeNotification(postId, post.getUserId(), like.getUserId());
+        LikeUpdate result = notificationService.withOutbox(() -> {
+            LikeUpdate update = likeOperations.addLike(Post.class, postId, like.getUserId());
+            //notify only when this call added the like, and never for liking your own content
+            if (update != null && update.isChanged() && !like.getUserId().equals(update.getOwnerId())) {
+                notificationService.createLikeNotification(ContentType.POST, postId, update.getOwnerId(),
+                        like.getUserId());
             }
+            return update;
+        });
+        if (result == null) {
+            throw new RuntimeException("Post not found");
         }
-        return post;
+        if (result.isChanged()) {
+            pushService.likesChanged(ContentType.POST, postId, result.getLikeCount());
+        }
+        return new LikeResult(postId, result.getLikeCount(), true);
     }
 
-    public Post removeLike(String postId, String userId) {
-        Post post = getPostById(postId);
-        post.setLikes(post.getLikes().stream()
-                .filter(like -> !like.getUserId().equals(userId))
-                .collect(Collectors.toList()));
-        return postRepository.save(post);
+    @CacheEvict(cacheNames = CacheConfig.POSTS, key = "#postId")
+    public LikeResult removeLike(String postId, String userId) {
+        LikeUpdate buffered = hotLikeBuffer.removeLike(postId, userId);
+        if (buffered != null) {
+            return new LikeResult(postId, buffered.getLikeCount(), false);
+        }
+        LikeUpdate result = likeOperations.removeLike(Post.class, postId, userId);
+        if (result == null) {
+            throw new RuntimeException("Post not found");
+        }
+        if (result.isChanged()) {
+            pushService.likesChanged(ContentType.POST, postId, result.getLikeCount());
+        }
+        return new LikeResult(postId, result.getLikeCount(), false);
     }
 }
\ No newline at end of file
@@ -0,0 +1,158 @@
+package com.example.Backend.service;
+
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+//the live connections on this node, indexed by user and by the items each one is watching. an idle connection is
+//an async request holding no thread and a small bounded buffer; a client that lets its buffer fill is cut off after
+//what is already queued, and is expected to reconnect and re-read, rather than holding memory for everyone
+public class PushHub {
+
+    //events a connection may have queued; the queue rounds this up to a power of two
+    private final int bufferSize;
+    private final int maxItems;
+    private final Map<String, Connection> connections = new ConcurrentHashMap<>();
+    private final Map<String, Set<Connection>> byUser = new ConcurrentHashMap<>();
+    private final Map<String, Set<Connection>> byItem = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    public PushHub(int bufferSize, int maxItems) {
+        this.bufferSize = bufferSize;
+        this.maxItems = maxItems;
+    }
+
+    public Connection connect(String userId, Collection<String> items) {
+        Connection connection = new Connection(UUID.randomUUID().toString(), userId,
+                Sinks.many().unicast().onBackpressureBuffer(Queues.<ServerSentEvent<String>>get(bufferSize).get()));
+        connections.put(connection.id, connection);
+        add(byUser, userId, connection);
+        watch(connection, items);
+        return connection;
+    }
+
+    //replaces the items a connection watches; false if it is not open or belongs to someone else
+    public boolean watch(String connectionId, String userId, Collection<String> items) {
+        Connection connection = connections.get(connectionId);
+        if (connection == null || !connection.userId.equals(userId)) {
+            return false;
+        }
+        watch(connection, items);
+        return true;
+    }
+
+    public int toItem(String itemId, ServerSentEvent<String> event) {
+        return send(byItem.getOrDefault(itemId, Collections.emptySet()), event);
+    }
+
+    public int toUser(String userId, ServerSentEvent<String> event) {
+        return send(byUser.getOrDefault(userId, Collections.emptySet()), event);
+    }
+
+    //to every connection; the heartbeat that keeps proxies from closing idle streams and finds dead ones
+    public int toAll(ServerSentEvent<String> event) {
+        return send(connections.values(), event);
+    }
+
+    public int size() {
+        return connections.size();
+    }
+
+    //connections cut off because their buffer was full
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    //idempotent; also clears index entries a concurrent watch may have added while the connection was closing
+    void disconnect(Connection connection) {
+        connections.remove(connection.id);
+        remove(byUser, connection.userId, connection);
+        connection.items.forEach(item -> remove(byItem, item, connection));
+    }
+
+    private synchronized void watch(Connection connection, Collection<String> items) {
+        Set<String> wanted = items == null ? Collections.emptySet() : items.stream()
+                .filter(item -> item != null && !item.isBlank())
+                .limit(maxItems)
+                .collect(Collectors.toSet());
+        Set<String> previous = connection.items;
+        previous.stream().filter(item -> !wanted.contains(item)).forEach(item -> remove(byItem, item, connection));
+        wanted.stream().filter(item -> !previous.contains(item)).forEach(item -> add(byItem, item, connection));
+        connection.items = wanted;
+    }
+
+    private int send(Collection<Connection> targets, ServerSentEvent<String> event) {
+        int sent = 0;
+        for (Connection connection : targets) {
+            Sinks.EmitResult result = connection.offer(event);
+            if (result.isSuccess()) {
+                sent++;
+            } else if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+                dropped.increment();
+                connection.close();
+                disconnect(connection);
+            } else if (result == Sinks.EmitResult.FAIL_CANCELLED || result == Sinks.EmitResult.FAIL_TERMINATED) {
+                disconnect(connection);
+            }
+        }
+        return sent;
+    }
+
+    //set removal and map cleanup happen atomically per key, so a concurrent add never lands in a discarded set
+    private static void add(Map<String, Set<Connection>> index, String key, Connection connection) {
+        index.compute(key, (k, set) -> {
+            Set<Connection> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            target.add(connection);
+            return target;
+        });
+    }
+
+    private static void remove(Map<String, Set<Connection>> index, String key, Connection connection) {
+        index.computeIfPresent(key, (k, set) -> {
+            set.remove(connection);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    public class Connection {
+        private final String id;
+        private final String userId;
+        private final Sinks.Many<ServerSentEvent<String>> sink;
+        private volatile Set<String> items = Collections.emptySet();
+
+        private Connection(String id, String userId, Sinks.Many<ServerSentEvent<String>> sink) {
+            this.id = id;
+            this.userId = userId;
+            this.sink = sink;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        //what the client receives; ends when the client goes away or falls too far behind
+        public Flux<ServerSentEvent<String>> events() {
+            return sink.asFlux().doFinally(signal -> disconnect(this));
+        }
+
+        //a sink takes one producer at a time, and events for one connection come from any request thread
+        synchronized Sinks.EmitResult offer(ServerSentEvent<String> event) {
+            return sink.tryEmitNext(event);
+        }
+
+        //the client still gets what is queued, then the end of the stream
+        synchronized void close() {
+            sink.tryEmitComplete();
+        }
+    }
+}
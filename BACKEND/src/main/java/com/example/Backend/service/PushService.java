@@ -0,0 +1,309 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.PushEvent;
+import com.example.Backend.enums.ContentType;
+import com.example.Backend.enums.PushEventType;
+import com.example.Backend.model.Comment;
+import com.example.Backend.model.Notification;
+import com.example.Backend.model.TimelineEntry;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.CursorType;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+//live updates for connected clients. write paths publish small deltas (a like count, a new comment, a notification,
+//a new feed item); each is serialized once, handed to this node's connections, and queued for a writer thread that
+//appends batches to a capped collection every other node tails to reach the clients connected there. delivery is
+//best effort: a full queue drops relays, and clients re-read whatever they show when they reconnect
+@Service
+public class PushService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PushService.class);
+
+    static final String RELAY_COLLECTION = "push_events";
+    //relays waiting for the writer, and the most written in one insertMany
+    private static final int RELAY_QUEUE = 10_000;
+    private static final int RELAY_BATCH = 500;
+    //a reopened tail re-reads events stamped this long before the last one seen: stamps come from each node's clock
+    //and batches land out of stamp order, so nothing later is guaranteed to sort after it. ids seen are skipped
+    private static final long RESUME_OVERLAP_MILLIS = 30_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final PushHub hub;
+    private final boolean relayEnabled;
+    private final long relayBytes;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final BlockingQueue<Document> relayQueue = new ArrayBlockingQueue<>(RELAY_QUEUE);
+    private final AtomicLong relaysDropped = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread relay;
+    private Thread relayWriter;
+
+    public PushService(MongoTemplate mongoTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                       @Value("${push.buffer-size:64}") int bufferSize,
+                       @Value("${push.max-items-per-connection:200}") int maxItems,
+                       @Value("${push.relay.enabled:true}") boolean relayEnabled,
+                       @Value("${push.relay.size-mb:64}") long relaySizeMb) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.hub = new PushHub(bufferSize, maxItems);
+        this.relayEnabled = relayEnabled;
+        this.relayBytes = relaySizeMb << 20;
+        meterRegistry.gauge("push.connections", hub, PushHub::size);
+        FunctionCounter.builder("push.dropped", hub, PushHub::dropped)
+                .description("connections closed because the client fell too far behind")
+                .register(meterRegistry);
+        meterRegistry.gauge("push.relay.queued", relayQueue, BlockingQueue::size);
+        FunctionCounter.builder("push.relay.dropped", relaysDropped, AtomicLong::get)
+                .description("events not relayed to other nodes because the relay queue was full")
+                .register(meterRegistry);
+    }
+
+    //the stream for one client, starting with a READY event that carries the id used to change what it watches
+    public Flux<ServerSentEvent<String>> connect(String userId, Collection<String> items) {
+        PushHub.Connection connection = hub.connect(userId, items);
+        connection.offer(event(PushEventType.READY, json(new PushEvent(PushEventType.READY, null, null,
+                Map.of("connectionId", connection.getId())))));
+        return connection.events();
+    }
+
+    public boolean watch(String connectionId, String userId, Collection<String> items) {
+        return hub.watch(connectionId, userId, items);
+    }
+
+    public void likesChanged(ContentType contentType, String itemId, long likeCount) {
+        toItem(new PushEvent(PushEventType.LIKES, contentType, itemId, Map.of("likeCount", likeCount)));
+    }
+
+    public void commentAdded(ContentType contentType, String itemId, Comment comment) {
+        toItem(new PushEvent(PushEventType.COMMENT, contentType, itemId, comment));
+    }
+
+    public void notified(Notification notification) {
+        PushEvent event = new PushEvent(PushEventType.NOTIFICATION, notification.getContentType(),
+                notification.getItemId(), notification);
+        String json = json(event);
+        hub.toUser(notification.getRecipientId(), event(event.getType(), json));
+        relay(new Document("user", notification.getRecipientId()), event.getType(), json);
+    }
+
+    //to the users whose timelines just received the entry
+    public void feedItem(TimelineEntry entry, List<String> recipients) {
+        PushEvent event = new PushEvent(PushEventType.FEED_ITEM, entry.getItemType(), entry.getItemId(), entry);
+        String json = json(event);
+        ServerSentEvent<String> sse = event(event.getType(), json);
+        recipients.forEach(recipient -> hub.toUser(recipient, sse));
+        relay(new Document("users", recipients), event.getType(), json);
+    }
+
+    @Scheduled(fixedDelayString = "${push.heartbeat-ms:25000}")
+    public void heartbeat() {
+        hub.toAll(ServerSentEvent.<String>builder().comment("keep-alive").build());
+    }
+
+    private void toItem(PushEvent event) {
+        String json = json(event);
+        hub.toItem(event.getItemId(), event(event.getType(), json));
+        relay(new Document("item", event.getItemId()), event.getType(), json);
+    }
+
+    //serialized once, whatever the number of receivers
+    private String json(PushEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ServerSentEvent<String> event(PushEventType type, String json) {
+        return ServerSentEvent.builder(json).event(type.name()).build();
+    }
+
+    //never blocks the write path: the event is queued for relayWriter, or dropped if the queue is full
+    private void relay(Document route, PushEventType type, String json) {
+        if (!relayEnabled || !running) {
+            return;
+        }
+        Document relayed = route.append("_id", new ObjectId()).append("at", new Date())
+                .append("node", nodeId).append("type", type.name()).append("json", json);
+        if (!relayQueue.offer(relayed)) {
+            //only clients on other nodes miss this one
+            relaysDropped.incrementAndGet();
+        }
+    }
+
+    //appends queued relays in batches until stopped, then writes what is left
+    private void writeRelays() {
+        List<Document> batch = new ArrayList<>(RELAY_BATCH);
+        while (running || !relayQueue.isEmpty()) {
+            try {
+                Document first = relayQueue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                relayQueue.drainTo(batch, RELAY_BATCH - 1);
+                mongoTemplate.getCollection(RELAY_COLLECTION).insertMany(batch, new InsertManyOptions().ordered(false));
+            } catch (MongoException e) {
+                relaysDropped.addAndGet(batch.size());
+                log.debug("Could not relay {} push events", batch.size(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void deliver(Document relayed) {
+        if (nodeId.equals(relayed.getString("node"))) {
+            return;
+        }
+        ServerSentEvent<String> sse = event(PushEventType.valueOf(relayed.getString("type")), relayed.getString("json"));
+        if (relayed.containsKey("item")) {
+            hub.toItem(relayed.getString("item"), sse);
+        } else if (relayed.containsKey("user")) {
+            hub.toUser(relayed.getString("user"), sse);
+        } else if (relayed.containsKey("users")) {
+            ((List<String>) relayed.get("users", List.class)).forEach(user -> hub.toUser(user, sse));
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!relayEnabled) {
+            return;
+        }
+        if (!mongoTemplate.collectionExists(RELAY_COLLECTION)) {
+            try {
+                mongoTemplate.createCollection(RELAY_COLLECTION, CollectionOptions.empty().capped().size(relayBytes));
+            } catch (DataAccessException e) {
+                //created by another node starting at the same time
+            }
+        }
+        running = true;
+        relay = new Thread(this::tail, "push-relay");
+        relay.setDaemon(true);
+        relay.start();
+        relayWriter = new Thread(this::writeRelays, "push-relay-writer");
+        relayWriter.setDaemon(true);
+        relayWriter.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (Thread thread : new Thread[]{relayWriter, relay}) {
+            if (thread == null) {
+                continue;
+            }
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    //follows the capped collection from now on; a cursor that dies (e.g. on an empty collection) or a dropped
+    //connection is reopened RESUME_OVERLAP_MILLIS before the newest event seen, skipping the ones already delivered
+    private void tail() {
+        long last = System.currentTimeMillis();
+        Map<ObjectId, Long> seen = new LinkedHashMap<>();
+        long backoff = 500;
+        while (running) {
+            try (MongoCursor<Document> cursor = open(new Date(last - RESUME_OVERLAP_MILLIS))) {
+                backoff = 500;
+                while (running) {
+                    Document relayed = cursor.tryNext();
+                    if (relayed == null) {
+                        if (cursor.getServerCursor() == null) {
+                            break;
+                        }
+                        continue;
+                    }
+                    long at = relayed.getDate("at").getTime();
+                    if (seen.putIfAbsent(relayed.getObjectId("_id"), at) != null) {
+                        continue;
+                    }
+                    last = Math.max(last, at);
+                    forgetBefore(seen, last - RESUME_OVERLAP_MILLIS);
+                    deliver(relayed);
+                }
+                Thread.sleep(100);
+            } catch (MongoException e) {
+                log.warn("Push relay interrupted, reconnecting in {} ms", backoff, e);
+                backoff = pause(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+        }
+    }
+
+    private MongoCursor<Document> open(Date from) {
+        return mongoTemplate.getCollection(RELAY_COLLECTION).find(Filters.gte("at", from))
+                .cursorType(CursorType.TailableAwait).maxAwaitTime(1, TimeUnit.SECONDS).cursor();
+    }
+
+    //ids are only needed while a reopened cursor could return them again; oldest stamps go first, give or take
+    //the order batches landed in
+    private static void forgetBefore(Map<ObjectId, Long> seen, long cutoff) {
+        Iterator<Long> stamps = seen.values().iterator();
+        while (stamps.hasNext() && stamps.next() < cutoff) {
+            stamps.remove();
+        }
+    }
+
+    private long pause(long backoff) {
+        try {
+            Thread.sleep(backoff);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+        return Math.min(backoff * 2, 30_000);
+    }
+}
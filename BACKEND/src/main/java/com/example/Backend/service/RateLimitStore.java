@@ -0,0 +1,32 @@
+package com.example.Backend.service;
+
+//shared hit counters behind the auth rate limiter, so a limit holds across every node rather than per node
+public interface RateLimitStore {
+
+    //counts one hit for key in the fixed window containing now and returns that window's and the previous one's totals
+    WindowCounts hit(String key, long windowMillis, long now);
+
+    class WindowCounts {
+        private final long previous;
+        private final long current;
+
+        public WindowCounts(long previous, long current) {
+            this.previous = previous;
+            this.current = current;
+        }
+
+        public long getPrevious() {
+            return previous;
+        }
+
+        public long getCurrent() {
+            return current;
+        }
+
+        //sliding-window estimate: the previous window weighted by how much of it still overlaps the last windowMillis
+        public double estimate(long windowMillis, long now) {
+            double elapsed = (double) (now % windowMillis) / windowMillis;
+            return previous * (1 - elapsed) + current;
+        }
+    }
+}
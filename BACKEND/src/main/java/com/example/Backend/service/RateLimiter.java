@@ -0,0 +1,106 @@
+package com.example.Backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+//throttles sign-in and registration per client ip and per email: a lock-free token bucket on this node turns bursts
+//away without any i/o, and what it lets through is counted in the shared store so the same limit holds cluster-wide
+@Service
+public class RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimiter.class);
+
+    private final RateLimitStore store;
+    private final long windowMillis;
+    private final int ipLimit;
+    private final int emailLimit;
+    //an idle bucket has refilled completely, so dropping it loses nothing; size bounds memory under a key flood
+    private final Cache<String, TokenBucket> buckets;
+    private final Counter ipRejected;
+    private final Counter emailRejected;
+
+    public RateLimiter(RateLimitStore store, MeterRegistry meterRegistry,
+                       @Value("${ratelimit.window-seconds:60}") long windowSeconds,
+                       @Value("${ratelimit.ip.limit:30}") int ipLimit,
+                       @Value("${ratelimit.email.limit:10}") int emailLimit,
+                       @Value("${ratelimit.max-keys:100000}") long maxKeys) {
+        this.store = store;
+        this.windowMillis = TimeUnit.SECONDS.toMillis(windowSeconds);
+        this.ipLimit = ipLimit;
+        this.emailLimit = emailLimit;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMillis(windowMillis))
+                .maximumSize(maxKeys)
+                .build();
+        this.ipRejected = Counter.builder("ratelimit.rejected").tag("key", "ip").register(meterRegistry);
+        this.emailRejected = Counter.builder("ratelimit.rejected").tag("key", "email").register(meterRegistry);
+    }
+
+    //0 when the attempt may go ahead, otherwise the seconds to wait before retrying
+    public long checkIp(String ip) {
+        long retryAfter = check("ip:" + ip, ipLimit);
+        if (retryAfter > 0) {
+            ipRejected.increment();
+        }
+        return retryAfter;
+    }
+
+    public long checkEmail(String email) {
+        long retryAfter = check("email:" + email.trim().toLowerCase(), emailLimit);
+        if (retryAfter > 0) {
+            emailRejected.increment();
+        }
+        return retryAfter;
+    }
+
+    private long check(String key, int limit) {
+        long now = System.currentTimeMillis();
+        long wait = buckets.get(key, k -> new TokenBucket()).tryTake(now, windowMillis / limit, windowMillis);
+        if (wait > 0) {
+            return toSeconds(wait);
+        }
+        try {
+            if (store.hit(key, windowMillis, now).estimate(windowMillis, now) > limit) {
+                return toSeconds(windowMillis - now % windowMillis);
+            }
+        } catch (RuntimeException e) {
+            //the local bucket still applies while the shared store is unreachable
+            log.warn("Rate limit store unavailable, applying the local limit only: {}", e.getMessage());
+        }
+        return 0;
+    }
+
+    private static long toSeconds(long millis) {
+        return Math.max(1, (millis + 999) / 1000);
+    }
+
+    //a token bucket in one long: the time at which it will be full again. each take pushes that time forward by one
+    //refill interval, and a take that would push it more than a full bucket ahead of now is refused
+    static final class TokenBucket {
+        private final AtomicLong fullAt = new AtomicLong();
+
+        //0 when a token was taken, otherwise millis until one is available
+        long tryTake(long now, long refillMillis, long capacityMillis) {
+            while (true) {
+                long current = fullAt.get();
+                long next = Math.max(current, now) + refillMillis;
+                if (next - now > capacityMillis) {
+                    return next - now - capacityMillis;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.Backend.service;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+//asks every node to rebuild one of its in-memory indexes, e.g. after a bulk import wrote documents whose timestamps
+//are older than what the nodes have already synced: a counter per index in index_rebuilds, checked on each sync
+@Service
+public class RebuildRequests {
+
+    static final String COLLECTION = "index_rebuilds";
+    public static final String SEARCH = "search";
+    public static final String SKILLS = "skills";
+
+    private final MongoTemplate mongoTemplate;
+
+    public RebuildRequests(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public void request(String index) {
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(index)), new Update().inc("generation", 1L),
+                COLLECTION);
+    }
+
+    //a node that built the index at one generation rebuilds it once it reads a different one
+    public long generation(String index) {
+        Document requests = mongoTemplate.findById(index, Document.class, COLLECTION);
+        Number generation = requests == null ? null : requests.get("generation", Number.class);
+        return generation == null ? 0 : generation.longValue();
+    }
+}
@@ -0,0 +1,345 @@
+package com.example.Backend.service;
+
+import com.example.Backend.enums.ContentType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//in-memory inverted index over posts, plans and progress, ranked with BM25. documents get increasing ordinals, so every
+//postings list is sorted and a query is a document-at-a-time merge of its terms' lists; updates delete the old ordinal
+//and append a new one, and deleted ordinals are squeezed out once they make up a quarter of the index
+public class SearchIndex {
+
+    static final float K1 = 1.2f;
+    static final float B = 0.75f;
+    //title words count this many times over body words
+    static final int TITLE_WEIGHT = 2;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "has", "have", "how", "i", "in",
+            "is", "it", "its", "me", "my", "of", "on", "or", "so", "that", "the", "this", "to", "was", "we", "what",
+            "with", "you", "your");
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private String[] ids = new String[1024];
+    private ContentType[] types = new ContentType[1024];
+    private long[] createdAt = new long[1024];
+    private int[] lengths = new int[1024];
+    private int maxDoc;
+    private int deletedCount;
+    private long liveLength;
+
+    //indexes or re-indexes one item; null fields are skipped
+    public void put(String id, ContentType type, long created, String title, String... body) {
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        int length = count(title, TITLE_WEIGHT, frequencies) + count(body, frequencies);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            if (maxDoc == ids.length) {
+                grow();
+            }
+            int doc = maxDoc++;
+            ids[doc] = id;
+            types[doc] = type;
+            createdAt[doc] = created;
+            lengths[doc] = length;
+            ordinals.put(id, doc);
+            liveLength += length;
+            frequencies.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, t -> new Postings()).add(doc, frequency));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //best-scoring hits first; only ranks offset + limit documents, so deep pages cost more than shallow ones
+    public Hits search(String query, Set<ContentType> filter, int offset, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokens(query)));
+        int wanted = offset + limit;
+        if (terms.isEmpty() || wanted <= 0) {
+            return new Hits(0, Collections.emptyList());
+        }
+
+        lock.readLock().lock();
+        try {
+            int live = maxDoc - deletedCount;
+            if (live == 0) {
+                return new Hits(0, Collections.emptyList());
+            }
+            float averageLength = Math.max(1f, (float) liveLength / live);
+
+            List<Postings> matched = new ArrayList<>();
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list != null) {
+                    matched.add(list);
+                }
+            }
+            if (matched.isEmpty()) {
+                return new Hits(0, Collections.emptyList());
+            }
+            Postings[] lists = matched.toArray(new Postings[0]);
+            float[] idfs = new float[lists.length];
+            for (int i = 0; i < lists.length; i++) {
+                //document frequency still counts deleted ordinals until the next compaction
+                idfs[i] = (float) Math.log(1 + (live - lists[i].size + 0.5) / (lists[i].size + 0.5));
+            }
+
+            int[] cursors = new int[lists.length];
+            PriorityQueue<Hit> top = new PriorityQueue<>(wanted + 1, Hit.WORST_FIRST);
+            int total = 0;
+            while (true) {
+                int doc = Integer.MAX_VALUE;
+                for (int i = 0; i < lists.length; i++) {
+                    if (cursors[i] < lists[i].size) {
+                        doc = Math.min(doc, lists[i].docs[cursors[i]]);
+                    }
+                }
+                if (doc == Integer.MAX_VALUE) {
+                    break;
+                }
+
+                float score = 0;
+                float norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+                for (int i = 0; i < lists.length; i++) {
+                    Postings list = lists[i];
+                    if (cursors[i] < list.size && list.docs[cursors[i]] == doc) {
+                        int frequency = list.frequencies[cursors[i]++];
+                        score += idfs[i] * frequency * (K1 + 1) / (frequency + norm);
+                    }
+                }
+                if (deleted.get(doc) || (filter != null && !filter.contains(types[doc]))) {
+                    continue;
+                }
+                total++;
+                //ordinals only grow, so on a tie the newcomer is the newer document and wins
+                if (top.size() < wanted || score >= top.peek().score) {
+                    top.add(new Hit(ids[doc], types[doc], createdAt[doc], score, doc));
+                    if (top.size() > wanted) {
+                        top.poll();
+                    }
+                }
+            }
+
+            List<Hit> ranked = new ArrayList<>(top);
+            ranked.sort(Hit.WORST_FIRST.reversed());
+            return new Hits(total, offset >= ranked.size()
+                    ? Collections.emptyList() : ranked.subList(offset, ranked.size()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return maxDoc - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int terms() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //lowercased runs of letters and digits, without stop words and single characters
+    static List<String> tokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean word = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                String token = lower.substring(start, i);
+                if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static int count(String text, int weight, Map<String, Integer> frequencies) {
+        List<String> tokens = tokens(text);
+        tokens.forEach(token -> frequencies.merge(token, weight, Integer::sum));
+        return tokens.size() * weight;
+    }
+
+    private static int count(String[] texts, Map<String, Integer> frequencies) {
+        int length = 0;
+        for (String text : texts) {
+            length += count(text, 1, frequencies);
+        }
+        return length;
+    }
+
+    private void removeLocked(String id) {
+        Integer doc = ordinals.remove(id);
+        if (doc == null) {
+            return;
+        }
+        deleted.set(doc);
+        deletedCount++;
+        liveLength -= lengths[doc];
+        if (deletedCount > 1024 && deletedCount * 4 > maxDoc) {
+            compact();
+        }
+    }
+
+    //renumbers live documents densely and drops deleted ordinals (and terms left without documents) from every list
+    private void compact() {
+        int[] remap = new int[maxDoc];
+        int next = 0;
+        for (int doc = 0; doc < maxDoc; doc++) {
+            if (deleted.get(doc)) {
+                remap[doc] = -1;
+                continue;
+            }
+            remap[doc] = next;
+            ids[next] = ids[doc];
+            types[next] = types[doc];
+            createdAt[next] = createdAt[doc];
+            lengths[next] = lengths[doc];
+            ordinals.put(ids[next], next);
+            next++;
+        }
+        Arrays.fill(ids, next, maxDoc, null);
+        Arrays.fill(types, next, maxDoc, null);
+        postings.values().removeIf(list -> list.remap(remap) == 0);
+        maxDoc = next;
+        deleted.clear();
+        deletedCount = 0;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        types = Arrays.copyOf(types, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+    }
+
+    //ordinals and in-document frequencies of one term, in ordinal order
+    private static class Postings {
+        private int[] docs = new int[2];
+        private int[] frequencies = new int[2];
+        private int size;
+
+        void add(int doc, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        int remap(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = remap[docs[i]];
+                if (doc >= 0) {
+                    docs[kept] = doc;
+                    frequencies[kept] = frequencies[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            return kept;
+        }
+    }
+
+    public static class Hit {
+        //lowest score first, older ordinal first among equals, so ties go to the newer document
+        static final Comparator<Hit> WORST_FIRST = Comparator
+                .comparingDouble((Hit hit) -> hit.score).thenComparingInt(hit -> hit.ordinal);
+
+        private final String id;
+        private final ContentType type;
+        private final long createdAt;
+        private final float score;
+        private final int ordinal;
+
+        Hit(String id, ContentType type, long createdAt, float score, int ordinal) {
+            this.id = id;
+            this.type = type;
+            this.createdAt = createdAt;
+            this.score = score;
+            this.ordinal = ordinal;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public ContentType getType() {
+            return type;
+        }
+
+        public long getCreatedAt() {
+            return createdAt;
+        }
+
+        public float getScore() {
+            return score;
+        }
+    }
+
+    public static class Hits {
+        private final int total;
+        private final List<Hit> hits;
+
+        Hits(int total, List<Hit> hits) {
+            this.total = total;
+            this.hits = hits;
+        }
+
+        //every matching document, not just the ranked page
+        public int getTotal() {
+            return total;
+        }
+
+        public List<Hit> getHits() {
+            return hits;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.dto.FeedItem;
+import com.example.Backend.enums.ContentType;
+import com.example.Backend.model.LearningPlan;
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Post;
+import com.example.Backend.model.SearchDeletion;
+import com.example.Backend.repository.FeedPageRepository;
+import com.example.Backend.repository.InvalidCursorException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+//full-text search over posts, plans and progress. every node holds its own SearchIndex: it is built from the
+//collections on startup, kept current by the service write paths, and catches up on writes made on other nodes
+//by polling updatedAt. deletions leave a SearchDeletion that every node applies on its sync (until then, hits
+//deleted elsewhere are dropped when the page is hydrated). a RebuildRequests request (made after bulk imports) has
+//every node rebuild on its next sync
+@Service
+public class SearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchService.class);
+
+    //writes on other nodes are re-read over this window, covering clock skew and late commits
+    private static final long SYNC_OVERLAP_MILLIS = 30_000;
+    //a node that missed a deletion for this long has been down, and rebuilds on start anyway
+    private static final long DELETION_RETENTION_MILLIS = 24 * 60 * 60 * 1000L;
+
+    private final MongoTemplate mongoTemplate;
+    private final TimelineService timelineService;
+    private final RebuildRequests rebuildRequests;
+    private final int maxResults;
+    private volatile SearchIndex index = new SearchIndex();
+    private volatile long syncedUpTo = -1;
+    private long builtAtGeneration;
+
+    public SearchService(MongoTemplate mongoTemplate, TimelineService timelineService,
+                         RebuildRequests rebuildRequests, @Value("${search.max-results:1000}") int maxResults) {
+        this.mongoTemplate = mongoTemplate;
+        this.timelineService = timelineService;
+        this.rebuildRequests = rebuildRequests;
+        this.maxResults = maxResults;
+    }
+
+    public void index(Post post) {
+        add(index, post);
+    }
+
+    public void index(LearningPlan plan) {
+        add(index, plan);
+    }
+
+    public void index(LearningProgress progress) {
+        add(index, progress);
+    }
+
+    public void remove(String id) {
+        index.remove(id);
+        long now = System.currentTimeMillis();
+        mongoTemplate.save(new SearchDeletion(id, new Date(now), new Date(now + DELETION_RETENTION_MILLIS)));
+    }
+
+    //best matches first, as the same cards the feeds return; the cursor is the offset of the next page
+    public CursorPage<FeedItem> search(String query, Set<ContentType> types, String cursor, Integer limit,
+                                       String viewerId) {
+        int size = limit == null || limit <= 0 ? FeedPageRepository.DEFAULT_PAGE_SIZE
+                : Math.min(limit, FeedPageRepository.MAX_PAGE_SIZE);
+        int offset = offset(cursor);
+        if (offset >= maxResults) {
+            return new CursorPage<>(List.of(), null, false);
+        }
+        size = Math.min(size, maxResults - offset);
+
+        SearchIndex.Hits hits = index.search(query, types == null || types.isEmpty() ? null : EnumSet.copyOf(types),
+                offset, size);
+        Map<ContentType, List<String>> idsByType = new EnumMap<>(ContentType.class);
+        for (SearchIndex.Hit hit : hits.getHits()) {
+            idsByType.computeIfAbsent(hit.getType(), t -> new ArrayList<>()).add(hit.getId());
+        }
+        Map<String, Object> cards = timelineService.cards(idsByType, viewerId);
+        List<FeedItem> page = new ArrayList<>();
+        for (SearchIndex.Hit hit : hits.getHits()) {
+            Object card = cards.get(hit.getId());
+            //deleted on another node since this one last synced
+            if (card != null) {
+                page.add(new FeedItem(hit.getType(), hit.getId(), new Date(hit.getCreatedAt()), card));
+            }
+        }
+        int next = offset + hits.getHits().size();
+        boolean hasMore = next < Math.min(hits.getTotal(), maxResults);
+        return new CursorPage<>(page, hasMore ? String.valueOf(next) : null, hasMore);
+    }
+
+    //replaces the index with one built from the collections; writes made meanwhile are picked up by the next sync
+    public synchronized int rebuild() {
+        long started = System.currentTimeMillis();
+        SearchIndex fresh = new SearchIndex();
+        load(new Query(), fresh);
+        index = fresh;
+        syncedUpTo = started;
+        log.info("Built search index: {} documents, {} terms in {} ms", fresh.size(), fresh.terms(),
+                System.currentTimeMillis() - started);
+        return fresh.size();
+    }
+
+    //the first run builds the index, later ones index what was written or deleted on any node since the last run
+    @Scheduled(fixedDelayString = "${search.sync-interval-ms:10000}")
+    public synchronized void sync() {
+        long generation = rebuildRequests.generation(RebuildRequests.SEARCH);
+        if (syncedUpTo < 0 || generation != builtAtGeneration) {
+            rebuild();
+            builtAtGeneration = generation;
+            return;
+        }
+        long started = System.currentTimeMillis();
+        Date since = new Date(syncedUpTo - SYNC_OVERLAP_MILLIS);
+        load(new Query(Criteria.where("updatedAt").gt(since)), index);
+        //after the load, so an item updated and then deleted within the window does not come back
+        Query deletions = new Query(Criteria.where("deletedAt").gt(since));
+        deletions.fields().include("id");
+        stream(deletions, SearchDeletion.class, deletion -> index.remove(deletion.getId()));
+        syncedUpTo = started;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public int terms() {
+        return index.terms();
+    }
+
+    private void load(Query query, SearchIndex target) {
+        Query posts = Query.of(query);
+        posts.fields().include("id").include("createdAt").include("description");
+        stream(posts, Post.class, post -> add(target, post));
+
+        Query plans = Query.of(query);
+        plans.fields().include("id").include("createdAt").include("title").include("description")
+                .include("topics").include("resources");
+        stream(plans, LearningPlan.class, plan -> add(target, plan));
+
+        Query progress = Query.of(query);
+        progress.fields().include("id").include("createdAt").include("title").include("description")
+                .include("skillsLearned").include("tutorialName").include("projectName");
+        stream(progress, LearningProgress.class, entry -> add(target, entry));
+    }
+
+    private static void add(SearchIndex target, Post post) {
+        target.put(post.getId(), ContentType.POST, time(post.getCreatedAt()), null, post.getDescription());
+    }
+
+    private static void add(SearchIndex target, LearningPlan plan) {
+        target.put(plan.getId(), ContentType.LEARNING_PLAN, time(plan.getCreatedAt()), plan.getTitle(),
+                plan.getDescription(), plan.getTopics(), plan.getResources());
+    }
+
+    private static void add(SearchIndex target, LearningProgress progress) {
+        target.put(progress.getId(), ContentType.LEARNING_PROGRESS, time(progress.getCreatedAt()), progress.getTitle(),
+                progress.getDescription(), progress.getSkillsLearned(), progress.getTutorialName(),
+                progress.getProjectName());
+    }
+
+    private <T> void stream(Query query, Class<T> type, Consumer<T> indexer) {
+        try (Stream<T> stream = mongoTemplate.stream(query, type)) {
+            Iterator<T> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                indexer.accept(iterator.next());
+            }
+        }
+    }
+
+    private static int offset(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(cursor));
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Invalid cursor", e);
+        }
+    }
+
+    private static long time(Date date) {
+        return date == null ? 0 : date.getTime();
+    }
+}
@@ -0,0 +1,444 @@
+package com.example.Backend.service;
+
+import org.bson.types.ObjectId;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//who has which skill, sized for millions of users: users are numbered densely and each skill holds its users as a
+//compressed bitmap, so "has all of these skills" is a bitmap intersection; skill names live in a trie whose nodes
+//remember their most popular completions until a count under them changes
+public class SkillIndex {
+
+    //completions a trie node remembers; also the most a suggestion request returns
+    public static final int MAX_SUGGESTIONS = 10;
+    private static final int MAX_SKILL_LENGTH = 64;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Ordinals ordinals = new Ordinals();
+    private final Map<String, Integer> skillIds = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private final List<RoaringBitmap> holders = new ArrayList<>();
+    //skill ids per user ordinal, to take a user out of the bitmaps they were in; null for users without skills
+    private int[][] userSkills = new int[1024][];
+    private final TrieNode root = new TrieNode();
+
+    //lowercased, trimmed, inner whitespace collapsed; null for blank or oversized input
+    public static String normalize(String skill) {
+        if (skill == null) {
+            return null;
+        }
+        String normalized = String.join(" ", skill.trim().toLowerCase(Locale.ROOT).split("\\s+"));
+        return normalized.isEmpty() || normalized.length() > MAX_SKILL_LENGTH ? null : normalized;
+    }
+
+    //replaces everything known about the user's skills
+    public void put(String userId, Collection<String> skills) {
+        Set<String> normalized = new LinkedHashSet<>();
+        if (skills != null) {
+            for (String skill : skills) {
+                String name = normalize(skill);
+                if (name != null) {
+                    normalized.add(name);
+                }
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            int user = ordinals.getOrAdd(userId);
+            if (user >= userSkills.length) {
+                userSkills = Arrays.copyOf(userSkills, Math.max(user + 1, userSkills.length * 2));
+            }
+            int[] previous = userSkills[user];
+            if (previous != null) {
+                for (int skill : previous) {
+                    holders.get(skill).remove(user);
+                    touch(names.get(skill));
+                }
+            }
+            int[] current = new int[normalized.size()];
+            int i = 0;
+            for (String name : normalized) {
+                int skill = skillIds.computeIfAbsent(name, this::addSkill);
+                holders.get(skill).add(user);
+                touch(name);
+                current[i++] = skill;
+            }
+            userSkills[user] = current.length == 0 ? null : current;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //most widely held skills starting with prefix, after normalizing it
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String normalized = prefix == null ? "" : String.join(" ", prefix.stripLeading().toLowerCase(Locale.ROOT)
+                .split("\\s+", -1));
+        lock.readLock().lock();
+        try {
+            TrieNode node = root;
+            for (int i = 0; i < normalized.length() && node != null; i++) {
+                node = node.child(normalized.charAt(i));
+            }
+            if (node == null) {
+                return Collections.emptyList();
+            }
+            //writers hold the write lock, so only concurrent readers can race here, and they compute the same list
+            if (node.dirty) {
+                node.top = topOf(node);
+                node.dirty = false;
+            }
+            List<Suggestion> result = new ArrayList<>();
+            for (int skill : node.top) {
+                if (result.size() == Math.min(limit, MAX_SUGGESTIONS)) {
+                    break;
+                }
+                result.add(new Suggestion(names.get(skill), holders.get(skill).getCardinality()));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //users holding every one of skills, in user id order, starting after user id after (null for the first page).
+    //ordinals differ between nodes and rebuilds, ids do not, so a page continues the same way on any node. the
+    //matches are scanned once per page, comparing packed ids, keeping only the limit + 1 smallest past the cursor
+    public Page usersWithAll(Collection<String> skills, String after, int limit) {
+        lock.readLock().lock();
+        try {
+            List<RoaringBitmap> bitmaps = new ArrayList<>();
+            for (String skill : skills) {
+                Integer id = skillIds.get(normalize(skill));
+                if (id == null) {
+                    return new Page(Collections.emptyList(), 0, null);
+                }
+                bitmaps.add(holders.get(id));
+            }
+            if (bitmaps.isEmpty()) {
+                return new Page(Collections.emptyList(), 0, null);
+            }
+            //smallest first, so every step of the intersection works on the fewest containers
+            bitmaps.sort(Comparator.comparingLong(RoaringBitmap::getLongCardinality));
+            RoaringBitmap matches = bitmaps.size() == 1 ? bitmaps.get(0)
+                    : FastAggregation.naive_and(bitmaps.iterator());
+
+            Ordinals.Key cursor = after == null || after.isEmpty() ? null : ordinals.key(after);
+            //largest on top, so the head is the one to drop when a smaller id turns up
+            PriorityQueue<Integer> smallest = new PriorityQueue<>(limit + 1,
+                    (a, b) -> ordinals.compare(b, a));
+            IntIterator iterator = matches.getIntIterator();
+            while (iterator.hasNext()) {
+                int user = iterator.next();
+                if (cursor != null && cursor.compareTo(user) >= 0) {
+                    continue;
+                }
+                if (smallest.size() <= limit) {
+                    smallest.add(user);
+                } else if (ordinals.compare(user, smallest.peek()) < 0) {
+                    smallest.poll();
+                    smallest.add(user);
+                }
+            }
+            boolean more = smallest.size() > limit;
+            if (more) {
+                smallest.poll();
+            }
+            List<String> userIds = new ArrayList<>(smallest.size());
+            while (!smallest.isEmpty()) {
+                userIds.add(ordinals.idOf(smallest.poll()));
+            }
+            Collections.reverse(userIds);
+            return new Page(userIds, matches.getLongCardinality(), more ? userIds.get(userIds.size() - 1) : null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int skills() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //bytes held by the skill bitmaps
+    public long bitmapBytes() {
+        lock.readLock().lock();
+        try {
+            return holders.stream().mapToLong(RoaringBitmap::getLongSizeInBytes).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //switches dense bitmap containers to run-length encoding where that is smaller; worth it after a bulk load
+    public void compress() {
+        lock.writeLock().lock();
+        try {
+            holders.forEach(RoaringBitmap::runOptimize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int addSkill(String name) {
+        int id = names.size();
+        names.add(name);
+        holders.add(new RoaringBitmap());
+        TrieNode node = root;
+        for (int i = 0; i < name.length(); i++) {
+            node = node.childOrAdd(name.charAt(i));
+        }
+        node.skill = id;
+        return id;
+    }
+
+    //a holder count under every prefix of name changed
+    private void touch(String name) {
+        TrieNode node = root;
+        node.dirty = true;
+        for (int i = 0; i < name.length() && node != null; i++) {
+            node = node.child(name.charAt(i));
+            if (node != null) {
+                node.dirty = true;
+            }
+        }
+    }
+
+    private int[] topOf(TrieNode node) {
+        List<Integer> skills = new ArrayList<>();
+        collect(node, skills);
+        skills.removeIf(skill -> holders.get(skill).isEmpty());
+        skills.sort(Comparator.comparingInt((Integer skill) -> -holders.get(skill).getCardinality())
+                .thenComparing(names::get));
+        return skills.stream().limit(MAX_SUGGESTIONS).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static void collect(TrieNode node, List<Integer> skills) {
+        if (node.skill >= 0) {
+            skills.add(node.skill);
+        }
+        for (TrieNode child : node.children) {
+            collect(child, skills);
+        }
+    }
+
+    private static class TrieNode {
+        private static final char[] NO_LABELS = new char[0];
+        private static final TrieNode[] NO_CHILDREN = new TrieNode[0];
+
+        //children kept sorted by label, found by binary search
+        private char[] labels = NO_LABELS;
+        private TrieNode[] children = NO_CHILDREN;
+        private int skill = -1;
+        private volatile int[] top = new int[0];
+        private volatile boolean dirty;
+
+        TrieNode child(char label) {
+            int i = Arrays.binarySearch(labels, label);
+            return i >= 0 ? children[i] : null;
+        }
+
+        TrieNode childOrAdd(char label) {
+            int i = Arrays.binarySearch(labels, label);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            TrieNode child = new TrieNode();
+            char[] newLabels = new char[labels.length + 1];
+            TrieNode[] newChildren = new TrieNode[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newLabels[at] = label;
+            newChildren[at] = child;
+            System.arraycopy(labels, at, newLabels, at + 1, labels.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+    }
+
+    //user id <-> dense ordinal. mongo ObjectIds are packed into 12 bytes in two primitive arrays behind an
+    //open-addressing table, rather than a String and a map entry per user; any other id falls back to a map
+    static class Ordinals {
+        private long[] high = new long[1024];
+        private int[] low = new int[1024];
+        //ordinal + 1 per slot, 0 for empty
+        private int[] table = new int[2048];
+        private final Map<String, Integer> otherIds = new HashMap<>();
+        private final Map<Integer, String> otherOrdinals = new HashMap<>();
+        private final BitSet others = new BitSet();
+        private int size;
+
+        int getOrAdd(String id) {
+            if (!ObjectId.isValid(id)) {
+                Integer ordinal = otherIds.get(id);
+                if (ordinal == null) {
+                    ordinal = next(0, 0);
+                    otherIds.put(id, ordinal);
+                    otherOrdinals.put(ordinal, id);
+                    others.set(ordinal);
+                }
+                return ordinal;
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(new ObjectId(id).toByteArray());
+            long h = bytes.getLong();
+            int l = bytes.getInt();
+            int slot = slot(h, l);
+            while (table[slot] != 0) {
+                int ordinal = table[slot] - 1;
+                if (high[ordinal] == h && low[ordinal] == l && !otherOrdinals.containsKey(ordinal)) {
+                    return ordinal;
+                }
+                slot = (slot + 1) & (table.length - 1);
+            }
+            int ordinal = next(h, l);
+            table[slot] = ordinal + 1;
+            if (size * 2 > table.length) {
+                rehash();
+            }
+            return ordinal;
+        }
+
+        String idOf(int ordinal) {
+            String other = otherOrdinals.get(ordinal);
+            if (other != null) {
+                return other;
+            }
+            return new ObjectId(ByteBuffer.allocate(12).putLong(high[ordinal]).putInt(low[ordinal]).array())
+                    .toHexString();
+        }
+
+        //user id order, as the id strings compare: lowercase hex ObjectIds sort like their bytes
+        int compare(int a, int b) {
+            if (others.get(a) || others.get(b)) {
+                return idOf(a).compareTo(idOf(b));
+            }
+            int byHigh = Long.compareUnsigned(high[a], high[b]);
+            return byHigh != 0 ? byHigh : Integer.compareUnsigned(low[a], low[b]);
+        }
+
+        Key key(String id) {
+            return new Key(id);
+        }
+
+        //an id that need not be in the index (a cursor), packed once for comparing against ordinals
+        class Key {
+            private final String id;
+            private final boolean packed;
+            private final long h;
+            private final int l;
+
+            private Key(String id) {
+                this.id = id;
+                this.packed = ObjectId.isValid(id) && id.equals(id.toLowerCase(Locale.ROOT));
+                ByteBuffer bytes = packed ? ByteBuffer.wrap(new ObjectId(id).toByteArray()) : null;
+                this.h = packed ? bytes.getLong() : 0;
+                this.l = packed ? bytes.getInt() : 0;
+            }
+
+            int compareTo(int ordinal) {
+                if (!packed || others.get(ordinal)) {
+                    return id.compareTo(idOf(ordinal));
+                }
+                int byHigh = Long.compareUnsigned(h, high[ordinal]);
+                return byHigh != 0 ? byHigh : Integer.compareUnsigned(l, low[ordinal]);
+            }
+        }
+
+        private int next(long h, int l) {
+            if (size == high.length) {
+                high = Arrays.copyOf(high, size * 2);
+                low = Arrays.copyOf(low, size * 2);
+            }
+            high[size] = h;
+            low[size] = l;
+            return size++;
+        }
+
+        private int slot(long h, int l) {
+            long mixed = (h ^ (h >>> 29) ^ ((long) l * 0x9E3779B97F4A7C15L)) * 0xBF58476D1CE4E5B9L;
+            return (int) (mixed ^ (mixed >>> 32)) & (table.length - 1);
+        }
+
+        private void rehash() {
+            table = new int[table.length * 2];
+            for (int ordinal = 0; ordinal < size; ordinal++) {
+                if (otherOrdinals.containsKey(ordinal)) {
+                    continue;
+                }
+                int slot = slot(high[ordinal], low[ordinal]);
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & (table.length - 1);
+                }
+                table[slot] = ordinal + 1;
+            }
+        }
+    }
+
+    public static class Suggestion {
+        private final String name;
+        private final int users;
+
+        public Suggestion(String name, int users) {
+            this.name = name;
+            this.users = users;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getUsers() {
+            return users;
+        }
+    }
+
+    public static class Page {
+        private final List<String> userIds;
+        private final long total;
+        private final String last;
+
+        Page(List<String> userIds, long total, String last) {
+            this.userIds = userIds;
+            this.total = total;
+            this.last = last;
+        }
+
+        public List<String> getUserIds() {
+            return userIds;
+        }
+
+        //users with every skill asked for, not just this page
+        public long getTotal() {
+            return total;
+        }
+
+        //user id to continue after, or null on the last page
+        public String getLast() {
+            return last;
+        }
+    }
+}
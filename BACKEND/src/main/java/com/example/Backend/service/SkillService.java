@@ -0,0 +1,97 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.User;
+import com.example.Backend.repository.FeedPageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+//finding people by skill without scanning users. every node holds its own SkillIndex: built from users on startup,
+//kept current by the profile write paths, and catching up on changes made on other nodes through skillsUpdatedAt;
+//rebuilt on every node after a RebuildRequests request
+@Service
+public class SkillService {
+
+    private static final Logger log = LoggerFactory.getLogger(SkillService.class);
+
+    //changes on other nodes are re-read over this window, covering clock skew and late commits
+    private static final long SYNC_OVERLAP_MILLIS = 30_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final RebuildRequests rebuildRequests;
+    private volatile SkillIndex index = new SkillIndex();
+    private volatile long syncedUpTo = -1;
+    private long builtAtGeneration;
+
+    public SkillService(MongoTemplate mongoTemplate, RebuildRequests rebuildRequests) {
+        this.mongoTemplate = mongoTemplate;
+        this.rebuildRequests = rebuildRequests;
+    }
+
+    public void index(User user) {
+        index.put(user.getId(), user.getSkills());
+    }
+
+    public List<SkillIndex.Suggestion> suggest(String prefix, Integer limit) {
+        int size = limit == null || limit <= 0 ? SkillIndex.MAX_SUGGESTIONS : limit;
+        return index.suggest(prefix, size);
+    }
+
+    //ids of users with every one of skills, in id order; the cursor is the last id of the previous page
+    public SkillIndex.Page usersWithAll(List<String> skills, String cursor, Integer limit) {
+        int size = limit == null || limit <= 0 ? FeedPageRepository.DEFAULT_PAGE_SIZE
+                : Math.min(limit, FeedPageRepository.MAX_PAGE_SIZE);
+        return index.usersWithAll(skills, cursor == null || cursor.isBlank() ? null : cursor, size);
+    }
+
+    //replaces the index with one built from users; changes made meanwhile are picked up by the next sync
+    public synchronized int rebuild() {
+        long started = System.currentTimeMillis();
+        SkillIndex fresh = new SkillIndex();
+        int users = load(new Query(Criteria.where("skills.0").exists(true)), fresh);
+        fresh.compress();
+        index = fresh;
+        syncedUpTo = started;
+        log.info("Built skill index: {} users, {} skills, {} KB of bitmaps in {} ms", users, fresh.skills(),
+                fresh.bitmapBytes() >> 10, System.currentTimeMillis() - started);
+        return users;
+    }
+
+    //the first run builds the index, later ones apply skill changes made on any node since the last run
+    @Scheduled(fixedDelayString = "${skills.sync-interval-ms:10000}")
+    public synchronized void sync() {
+        long generation = rebuildRequests.generation(RebuildRequests.SKILLS);
+        if (syncedUpTo < 0 || generation != builtAtGeneration) {
+            rebuild();
+            builtAtGeneration = generation;
+            return;
+        }
+        long started = System.currentTimeMillis();
+        load(new Query(Criteria.where("skillsUpdatedAt").gt(new Date(syncedUpTo - SYNC_OVERLAP_MILLIS))), index);
+        syncedUpTo = started;
+    }
+
+    private int load(Query query, SkillIndex target) {
+        query.fields().include("id").include("skills");
+        int users = 0;
+        try (Stream<User> stream = mongoTemplate.stream(query, User.class)) {
+            Iterator<User> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                User user = iterator.next();
+                target.put(user.getId(), user.getSkills());
+                users++;
+            }
+        }
+        return users;
+    }
+}
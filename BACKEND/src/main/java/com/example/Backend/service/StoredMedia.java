@@ -0,0 +1,48 @@
+package com.example.Backend.service;
+
+import org.springframework.core.io.Resource;
+
+//metadata of a stored media blob plus a re-readable handle to its content
+public class StoredMedia {
+    private final String id;
+    private final String filename;
+    private final String contentType;
+    private final long length;
+    //the uploading user; null for media stored without one
+    private final String ownerId;
+    private final Resource content;
+
+    public StoredMedia(String id, String filename, String contentType, long length, String ownerId,
+                       Resource content) {
+        this.id = id;
+        this.filename = filename;
+        this.contentType = contentType;
+        this.length = length;
+        this.ownerId = ownerId;
+        this.content = content;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    public Resource getContent() {
+        return content;
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.dto.FeedItem;
+import com.example.Backend.dto.LearningPlanCard;
+import com.example.Backend.dto.LearningProgressCard;
+import com.example.Backend.dto.PostCard;
+import com.example.Backend.enums.ContentType;
+import com.example.Backend.model.LearningPlan;
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Post;
+import com.example.Backend.model.Timeline;
+import com.example.Backend.model.TimelineEntry;
+import com.example.Backend.model.TimelineEvent;
+import com.example.Backend.repository.CardProjection;
+import com.example.Backend.repository.FeedCursor;
+import com.example.Backend.repository.FeedPageRepository;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.function.Function;
+
+//home timelines: fan-out on write for normal accounts, merged on read for accounts with very many followers. the
+//write path only records a TimelineEvent in the transaction that saves the item; a background dispatcher (one node
+//at a time, under a lease) does the fan-out and tells live clients
+@Service
+public class TimelineService {
+
+    private static final Logger log = LoggerFactory.getLogger(TimelineService.class);
+    private static final String DISPATCHER_LEASE = "timeline-dispatcher";
+
+    //newest first, ties broken by item id like the per-collection feeds
+    static final Comparator<TimelineEntry> NEWEST_FIRST = Comparator
+            .comparing(TimelineEntry::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(TimelineEntry::getItemId, Comparator.reverseOrder());
+
+    private final MongoTemplate mongoTemplate;
+    private final FollowService followService;
+    private final PushService pushService;
+    private final int capacity;
+    private final int celebrityThreshold;
+    private final int batchSize;
+    private final long leaseMillis;
+    private final Lease dispatcherLease;
+
+    public TimelineService(MongoTemplate mongoTemplate, FollowService followService, PushService pushService,
+                           @Value("${timeline.capacity:800}") int capacity,
+                           @Value("${timeline.celebrity-threshold:10000}") int celebrityThreshold,
+                           @Value("${timeline.dispatch-batch-size:100}") int batchSize,
+                           @Value("${timeline.lease-ms:30000}") long leaseMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.followService = followService;
+        this.pushService = pushService;
+        this.capacity = capacity;
+        this.celebrityThreshold = celebrityThreshold;
+        this.batchSize = batchSize;
+        this.leaseMillis = leaseMillis;
+        this.dispatcherLease = new Lease(mongoTemplate, DISPATCHER_LEASE, leaseMillis);
+    }
+
+    //queues a new item for the author's own timeline and, unless the author is a celebrity, every follower's;
+    //must be called inside NotificationService.withOutbox, with the write that saves the item
+    public void publish(ContentType type, String itemId, String authorId, Date createdAt) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Timeline items must be published inside withOutbox");
+        }
+        mongoTemplate.insert(new TimelineEvent(null, itemId, type, authorId, createdAt));
+    }
+
+    //fans out queued items while this node holds the dispatcher lease, renewing it batch by batch
+    @Scheduled(fixedDelayString = "${timeline.dispatch-interval-ms:500}")
+    public void dispatch() {
+        long deadline = System.currentTimeMillis() + leaseMillis / 2;
+        try {
+            while (dispatcherLease.hold() && dispatchBatch() == batchSize && System.currentTimeMillis() < deadline) {
+                //a full batch means more are probably waiting
+            }
+        } catch (DataAccessException e) {
+            //the events stay in the outbox and are picked up again on the next run
+            log.warn("Timeline dispatch failed: {}", e.getMessage());
+        }
+    }
+
+    //delivery is at least once: a failure before the delete replays the batch, and an entry pushed twice is
+    //de-duplicated when the feed is read
+    int dispatchBatch() {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "id")).limit(batchSize);
+        List<TimelineEvent> events = mongoTemplate.find(query, TimelineEvent.class);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        List<String> ids = new ArrayList<>();
+        for (TimelineEvent event : events) {
+            TimelineEntry entry = new TimelineEntry(event.getItemId(), event.getItemType(), event.getAuthorId(),
+                    event.getCreatedAt());
+            //followers of celebrities merge on read, so they see the item on their next page load instead
+            pushService.feedItem(entry, fanOut(entry));
+            ids.add(event.getId());
+        }
+        mongoTemplate.remove(new Query(Criteria.where("id").in(ids)), TimelineEvent.class);
+        return events.size();
+    }
+
+    //the same fan-out, done at once, for items that were written without it (bulk imports); nobody is told live
+    public void backfill(ContentType type, String itemId, String authorId, Date createdAt) {
+        fanOut(new TimelineEntry(itemId, type, authorId, createdAt));
+    }
+
+    private List<String> fanOut(TimelineEntry entry) {
+        String authorId = entry.getAuthorId();
+        List<String> recipients = new ArrayList<>();
+        recipients.add(authorId);
+
+        //the counter decides before any edge is read, so celebrities never have their follower list loaded
+        if (followService.followerCount(authorId) <= celebrityThreshold) {
+            recipients.addAll(followService.followerIds(authorId));
+        }
+
+        //one round trip for all recipients; $sort + $slice keeps every timeline ordered and capped
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Timeline.class);
+        for (String recipient : recipients) {
+            Update update = new Update();
+            update.push("entries").sort(Sort.by(Sort.Direction.DESC, "createdAt", "itemId")).slice(capacity).each(entry);
+            bulk.upsert(new Query(Criteria.where("id").is(recipient)), update);
+        }
+        bulk.execute();
+        return recipients;
+    }
+
+    //remove a deleted item from every timeline that references it
+    public void retract(String itemId) {
+        mongoTemplate.updateMulti(new Query(Criteria.where("entries.itemId").is(itemId)),
+                new Update().pull("entries", new Document("itemId", itemId)), Timeline.class);
+    }
+
+    public CursorPage<FeedItem> getFeed(String userId, String cursor, Integer limit) {
+        int pageSize = FeedPageRepository.normalizePageSize(limit);
+        FeedCursor after = FeedCursor.decode(cursor);
+
+        //pushed entries plus recent items of followed celebrities, merged and de-duplicated
+        Map<String, TimelineEntry> merged = new LinkedHashMap<>();
+        List<TimelineEntry> candidates = new ArrayList<>(readTimeline(userId, after, pageSize + 1));
+        candidates.addAll(pullFromCelebrities(userId, after, pageSize + 1));
+        candidates.sort(NEWEST_FIRST);
+        for (TimelineEntry entry : candidates) {
+            merged.putIfAbsent(entry.getItemId(), entry);
+        }
+
+        List<TimelineEntry> ordered = new ArrayList<>(merged.values());
+        boolean hasMore = ordered.size() > pageSize;
+        List<TimelineEntry> page = hasMore ? ordered.subList(0, pageSize) : ordered;
+
+        String nextCursor = null;
+        if (hasMore) {
+            TimelineEntry last = page.get(page.size() - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getItemId()).encode();
+        }
+        return new CursorPage<>(hydrate(page, userId), nextCursor, hasMore);
+    }
+
+    //slice of the stored timeline after the cursor, filtered server-side so only one page crosses the wire
+    private List<TimelineEntry> readTimeline(String userId, FeedCursor after, int count) {
+        Object entries = "$entries";
+        if (after != null) {
+            Document before = new Document("$or", List.of(
+                    new Document("$lt", List.of("$$e.createdAt", after.getCreatedAt())),
+                    new Document("$and", List.of(
+                            new Document("$eq", List.of("$$e.createdAt", after.getCreatedAt())),
+                            new Document("$lt", List.of("$$e.itemId", after.getId()))))));
+            entries = new Document("$filter", new Document("input", "$entries").append("as", "e").append("cond", before));
+        }
+        List<Document> pipeline = List.of(
+                new Document("$match", new Document("_id", userId)),
+                new Document("$project", new Document("entries", new Document("$slice", List.of(entries, count)))));
+
+        Document timeline = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Timeline.class))
+                .aggregate(pipeline).first();
+        if (timeline == null || timeline.getList("entries", Document.class) == null) {
+            return Collections.emptyList();
+        }
+        List<TimelineEntry> result = new ArrayList<>();
+        for (Document entry : timeline.getList("entries", Document.class)) {
+            result.add(mongoTemplate.getConverter().read(TimelineEntry.class, entry));
+        }
+        return result;
+    }
+
+    //celebrities are never fanned out to; fetch their newest items directly from each collection
+    private List<TimelineEntry> pullFromCelebrities(String userId, FeedCursor after, int count) {
+        List<String> celebrities = followService.followedCelebrityIds(userId);
+        if (celebrities.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<TimelineEntry> result = new ArrayList<>();
+        result.addAll(recentBy(Post.class, ContentType.POST, celebrities, after, count,
+                Post::getId, Post::getUserId, Post::getCreatedAt));
+        result.addAll(recentBy(LearningPlan.class, ContentType.LEARNING_PLAN, celebrities, after, count,
+                LearningPlan::getId, LearningPlan::getUserId, LearningPlan::getCreatedAt));
+        result.addAll(recentBy(LearningProgress.class, ContentType.LEARNING_PROGRESS, celebrities, after, count,
+                LearningProgress::getId, LearningProgress::getUserId, LearningProgress::getCreatedAt));
+        return result;
+    }
+
+    private <T> List<TimelineEntry> recentBy(Class<T> type, ContentType contentType, List<String> authors,
+                                             FeedCursor after, int count, Function<T, String> id,
+                                             Function<T, String> author, Function<T, Date> createdAt) {
+        Query query = new Query(Criteria.where("userId").in(authors));
+        if (after != null) {
+            query.addCriteria(FeedPageRepository.afterCursor(after));
+        }
+        query.fields().include("userId").include("createdAt");
+        query.with(Sort.by(Sort.Direction.DESC, "createdAt", "id")).limit(count);
+
+        List<TimelineEntry> result = new ArrayList<>();
+        for (T item : mongoTemplate.find(query, type)) {
+            result.add(new TimelineEntry(id.apply(item), contentType, author.apply(item), createdAt.apply(item)));
+        }
+        return result;
+    }
+
+    //items come back as cards, marked with whether the timeline owner has liked them
+    List<FeedItem> hydrate(List<TimelineEntry> page, String viewerId) {
+        Map<ContentType, List<String>> idsByType = new EnumMap<>(ContentType.class);
+        for (TimelineEntry entry : page) {
+            idsByType.computeIfAbsent(entry.getItemType(), t -> new ArrayList<>()).add(entry.getItemId());
+        }
+        Map<String, Object> items = cards(idsByType, viewerId);
+
+        List<FeedItem> result = new ArrayList<>();
+        for (TimelineEntry entry : page) {
+            Object item = items.get(entry.getItemId());
+            //items deleted after fan-out are skipped rather than shown as holes
+            if (item != null) {
+                result.add(new FeedItem(entry.getItemType(), entry.getItemId(), entry.getCreatedAt(), item));
+            }
+        }
+        return result;
+    }
+
+    //cards by item id for the given ids of each type, one query per type; ids that no longer exist are left out
+    public Map<String, Object> cards(Map<ContentType, List<String>> idsByType, String viewerId) {
+        Map<String, Object> items = new HashMap<>();
+        idsByType.forEach((type, ids) -> {
+            Query query = new Query(Criteria.where("id").in(ids));
+            CardProjection.apply(query.fields(), type, viewerId);
+            switch (type) {
+                case POST -> mongoTemplate.find(query, Post.class)
+                        .forEach(p -> items.put(p.getId(), PostCard.from(p, viewerId)));
+                case LEARNING_PLAN -> mongoTemplate.find(query, LearningPlan.class)
+                        .forEach(p -> items.put(p.getId(), LearningPlanCard.from(p, viewerId)));
+                case LEARNING_PROGRESS -> mongoTemplate.find(query, LearningProgress.class)
+                        .forEach(p -> items.put(p.getId(), LearningProgressCard.from(p, viewerId)));
+            }
+        });
+        return items;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.Backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//revoked token ids, bucketed by the hour their token expires; a whole bucket is dropped once that hour has passed,
+//since every token in it is rejected by its own expiry from then on
+public class TokenDenyList {
+
+    static final long BUCKET_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final ConcurrentSkipListMap<Long, Bucket> buckets = new ConcurrentSkipListMap<>();
+    private final int expectedPerBucket;
+
+    public TokenDenyList(int expectedPerBucket) {
+        this.expectedPerBucket = expectedPerBucket;
+    }
+
+    public void add(String jti, long expiresAt) {
+        if (expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        buckets.computeIfAbsent(expiresAt / BUCKET_MILLIS, hour -> new Bucket(expectedPerBucket)).add(jti);
+    }
+
+    //constant time: one map lookup, a few bit probes, and a set lookup only when the bloom filter says maybe
+    public boolean contains(String jti, long expiresAt) {
+        Bucket bucket = buckets.get(expiresAt / BUCKET_MILLIS);
+        return bucket != null && bucket.contains(jti);
+    }
+
+    public void purgeExpired(long now) {
+        buckets.headMap(now / BUCKET_MILLIS).clear();
+    }
+
+    public int size() {
+        return buckets.values().stream().mapToInt(bucket -> bucket.exact.size()).sum();
+    }
+
+    //the bloom filter answers the common "not revoked" case without touching the set; the set makes "revoked" exact
+    private static class Bucket {
+        private final BloomFilter bloom;
+        private final Set<String> exact = ConcurrentHashMap.newKeySet();
+
+        Bucket(int expected) {
+            this.bloom = new BloomFilter(expected, 0.01);
+        }
+
+        void add(String jti) {
+            //set first, so a positive bloom answer always finds the id
+            exact.add(jti);
+            bloom.put(jti);
+        }
+
+        boolean contains(String jti) {
+            return bloom.mightContain(jti) && exact.contains(jti);
+        }
+    }
+
+    //lock-free bloom filter over an AtomicLongArray, k probes by double hashing
+    static class BloomFilter {
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashes;
+
+        BloomFilter(int expected, double falsePositiveRate) {
+            int n = Math.max(1, expected);
+            long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bitCount = Math.max(64, m);
+            this.hashes = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+            this.bits = new AtomicLongArray((int) ((bitCount + 63) / 64));
+        }
+
+        void put(String value) {
+            long h1 = hash(value, 0x9E3779B97F4A7C15L);
+            long h2 = hash(value, 0xC2B2AE3D27D4EB4FL);
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << (bit & 63);
+                long current;
+                do {
+                    current = bits.get(word);
+                } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long h1 = hash(value, 0x9E3779B97F4A7C15L);
+            long h2 = hash(value, 0xC2B2AE3D27D4EB4FL);
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << (bit & 63))) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        //seeded 64-bit FNV-1a with a murmur finalizer
+        private static long hash(String value, long seed) {
+            long h = 0xCBF29CE484222325L ^ seed;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                h ^= b;
+                h *= 0x100000001B3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
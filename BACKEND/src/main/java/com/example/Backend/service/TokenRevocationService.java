@@ -0,0 +1,91 @@
+package com.example.Backend.service;
+
+import com.example.Backend.config.JwtVerifier;
+import com.example.Backend.model.RevokedToken;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+//revoked tokens: persisted in revoked_tokens (TTL-indexed on token expiry) and mirrored into an in-memory deny list
+//on every node, so checking a request never needs a database round trip. other nodes poll rather than watch a change
+//stream, although the replica set one needs is already required (cache invalidation, transactions): a node has to
+//load every unexpired revocation on startup anyway, and an overlapping indexed poll cannot silently lose an event
+//the way a change stream can once its resume token falls off the oplog
+@Service
+public class TokenRevocationService {
+
+    //revocations written by other nodes are re-read over this window, covering clock skew and late commits
+    private static final long SYNC_OVERLAP_MILLIS = 30_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final JwtVerifier jwtVerifier;
+    private final TokenDenyList denyList;
+    private volatile long lastSeen;
+
+    public TokenRevocationService(MongoTemplate mongoTemplate, JwtVerifier jwtVerifier, MeterRegistry meterRegistry,
+                                  @Value("${jwt.revocation.expected-per-hour:10000}") int expectedPerHour) {
+        this.mongoTemplate = mongoTemplate;
+        this.jwtVerifier = jwtVerifier;
+        this.denyList = new TokenDenyList(expectedPerHour);
+        meterRegistry.gauge("jwt.revoked.tokens", denyList, TokenDenyList::size);
+    }
+
+    //tokens issued before ids were added cannot be revoked and simply run out
+    public boolean isRevoked(JwtVerifier.VerifiedToken token) {
+        return token.getJti() != null && denyList.contains(token.getJti(), token.getExpiresAt());
+    }
+
+    //revokes the token presented in an Authorization header; invalid or missing tokens are ignored
+    public void revokeBearer(String header) {
+        if (header == null || !header.startsWith("Bearer ")) {
+            return;
+        }
+        try {
+            revoke(jwtVerifier.verify(header.substring("Bearer ".length())));
+        } catch (JwtException e) {
+            //nothing valid to revoke
+        }
+    }
+
+    public void revoke(JwtVerifier.VerifiedToken token) {
+        if (token.getJti() == null) {
+            return;
+        }
+        //local node rejects it immediately, the others on their next sync
+        denyList.add(token.getJti(), token.getExpiresAt());
+        mongoTemplate.save(new RevokedToken(token.getJti(), token.getSubject(),
+                new Date(token.getExpiresAt()), new Date()));
+    }
+
+    //pulls revocations made on any node since the last sync; the first run loads everything still unexpired
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:2000}")
+    public void sync() {
+        long now = System.currentTimeMillis();
+        Query query = new Query(Criteria.where("revokedAt").gt(new Date(Math.max(0, lastSeen - SYNC_OVERLAP_MILLIS)))
+                .and("expiresAt").gt(new Date(now)))
+                .with(Sort.by(Sort.Direction.ASC, "revokedAt"));
+        query.fields().include("expiresAt").include("revokedAt");
+
+        long newest = lastSeen;
+        try (Stream<RevokedToken> stream = mongoTemplate.stream(query, RevokedToken.class)) {
+            Iterator<RevokedToken> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                RevokedToken revoked = iterator.next();
+                denyList.add(revoked.getId(), revoked.getExpiresAt().getTime());
+                newest = Math.max(newest, revoked.getRevokedAt().getTime());
+            }
+        }
+        lastSeen = newest;
+        denyList.purgeExpired(now);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.Backend;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.junit.jupiter.api.BeforeAll;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+//one mongo:7.0 replica set for every integration test in the run. the first class that needs it starts it, and
+//testcontainers stops it when the jvm exits; each test class keeps to its own database
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class MongoContainerTest {
+
+    private static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    private static MongoClient client;
+
+    @BeforeAll
+    static synchronized void startMongo() {
+        if (client == null) {
+            MONGO.start();
+            client = MongoClients.create(MONGO.getReplicaSetUrl());
+        }
+    }
+
+    protected static MongoClient client() {
+        return client;
+    }
+
+    protected static String replicaSetUrl() {
+        return MONGO.getReplicaSetUrl();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.Backend.config;
+
+import com.example.Backend.service.TokenRevocationService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+//per-request cost of JWTAuthenticationFilter: cached verification vs. a cold verification vs. the old build-a-parser-per-request path;
+//run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.Backend.config.JwtFilterBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private SecretKey key;
+    private String token;
+    private JWTAuthenticationFilter cachedFilter;
+    private JwtVerifier coldVerifier;
+    private TokenRevocationService revocations;
+    private SimpleMeterRegistry filterMetrics;
+
+    @Setup
+    public void setup() {
+        key = Keys.hmacShaKeyFor("benchmark-secret-benchmark-secret-benchmark-secret-0123456789"
+                .getBytes(StandardCharsets.UTF_8));
+        token = Jwts.builder().subject("user-1").claim("name", "Benchmark User").claim("email", "user@example.com")
+                .issuedAt(new Date()).expiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(key).compact();
+        JwtVerifier verifier = new JwtVerifier(key, new SimpleMeterRegistry(), 10_000);
+        //the deny-list check is in memory; no database is touched per request
+        revocations = new TokenRevocationService(null, verifier, new SimpleMeterRegistry(), 10_000);
+        filterMetrics = new SimpleMeterRegistry();
+        cachedFilter = new JWTAuthenticationFilter(verifier, revocations, filterMetrics);
+        //a zero-size cache forces every request through parse-and-verify
+        coldVerifier = new JwtVerifier(key, new SimpleMeterRegistry(), 0);
+    }
+
+    @Benchmark
+    public Object filterWithCachedToken() throws Exception {
+        return runFilter(cachedFilter);
+    }
+
+    @Benchmark
+    public Object filterWithoutCache() throws Exception {
+        return runFilter(new JWTAuthenticationFilter(coldVerifier, revocations, filterMetrics));
+    }
+
+    //what the filter did before: a new parser for every request
+    @Benchmark
+    public Object parserPerRequest() {
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    private Object runFilter(JWTAuthenticationFilter filter) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
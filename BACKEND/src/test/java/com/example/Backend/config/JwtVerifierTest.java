@@ -0,0 +1,77 @@
+package com.example.Backend.config;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtVerifierTest {
+
+    private final SecretKey key = Keys.hmacShaKeyFor(
+            "test-secret-test-secret-test-secret-test-secret-0123456789".getBytes(StandardCharsets.UTF_8));
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final JwtVerifier verifier = new JwtVerifier(key, registry, 1000);
+
+    @Test
+    void repeatVerificationsAreServedFromTheCache() {
+        String token = token("user-1", System.currentTimeMillis() + 60_000);
+
+        assertEquals("user-1", verifier.verify(token).getSubject());
+        assertEquals("user-1", verifier.verify(token).getSubject());
+        assertEquals("user-1", verifier.verify(token).getSubject());
+
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "jwtVerification").tag("result", "miss")
+                .functionCounter().count());
+        assertEquals(2.0, registry.get("cache.gets").tag("cache", "jwtVerification").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void tamperedTokenIsRejectedEvenAfterTheOriginalWasCached() {
+        String token = token("user-1", System.currentTimeMillis() + 60_000);
+        verifier.verify(token);
+
+        //same signature, different payload
+        String[] parts = token.split("\\.");
+        String forged = token("user-2", System.currentTimeMillis() + 60_000).split("\\.")[1];
+        assertThrows(JwtException.class, () -> verifier.verify(parts[0] + "." + forged + "." + parts[2]));
+    }
+
+    @Test
+    void tokensSignedWithAnotherKeyAreRejected() {
+        SecretKey other = Keys.hmacShaKeyFor(
+                "another-secret-another-secret-another-secret-0123456789".getBytes(StandardCharsets.UTF_8));
+        String token = Jwts.builder().subject("user-1")
+                .expiration(new Date(System.currentTimeMillis() + 60_000)).signWith(other).compact();
+        assertThrows(JwtException.class, () -> verifier.verify(token));
+    }
+
+    @Test
+    void cachedTokenStopsWorkingWhenItExpires() throws Exception {
+        String token = token("user-1", System.currentTimeMillis() + 1_500);
+        verifier.verify(token);
+
+        Thread.sleep(2_000);
+        assertThrows(ExpiredJwtException.class, () -> verifier.verify(token));
+    }
+
+    @Test
+    void tokensWithoutExpiryAreRejected() {
+        String token = Jwts.builder().subject("user-1").signWith(key).compact();
+        assertThrows(JwtException.class, () -> verifier.verify(token));
+    }
+
+    private String token(String subject, long expiresAt) {
+        return Jwts.builder().subject(subject).issuedAt(new Date()).expiration(new Date(expiresAt))
+                .signWith(key).compact();
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.Backend.config;
+
+import com.example.Backend.service.LocalRateLimitStore;
+import com.example.Backend.service.RateLimitStore;
+import com.example.Backend.service.RateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RateLimitStore store = new LocalRateLimitStore(60, 1000);
+
+    @Test
+    void emailOverItsLimitIsRefusedBeforeReachingTheController() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(limiter(store, 100, 3), objectMapper);
+
+        for (int i = 0; i < 3; i++) {
+            MockFilterChain chain = new MockFilterChain();
+            MockHttpServletResponse response = login(filter, "10.0.0." + i, "Victim@Example.com", chain);
+            assertEquals(200, response.getStatus());
+            //the controller still gets the whole body
+            assertEquals("{\"email\":\"Victim@Example.com\",\"password\":\"guess\"}",
+                    new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse refused = login(filter, "10.0.0.99", "victim@example.com ", chain);
+        assertEquals(429, refused.getStatus());
+        assertNotNull(refused.getHeader("Retry-After"));
+        assertNull(chain.getRequest());
+
+        assertEquals(200, login(filter, "10.0.0.99", "someone-else@example.com", new MockFilterChain()).getStatus());
+    }
+
+    @Test
+    void chunkedBodiesAreStillLimitedByEmail() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(limiter(store, 100, 2), objectMapper);
+
+        for (int i = 0; i < 2; i++) {
+            MockFilterChain chain = new MockFilterChain();
+            assertEquals(200, send(filter, chunked(loginBody("victim@example.com")), chain).getStatus());
+            assertEquals(loginBody("victim@example.com"),
+                    new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        MockFilterChain chain = new MockFilterChain();
+        assertEquals(429, send(filter, chunked(loginBody("victim@example.com")), chain).getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void replayedBodyCanBeReadWithAReadListener() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(limiter(store, 100, 100), objectMapper);
+        MockFilterChain chain = new MockFilterChain();
+        assertEquals(200, login(filter, "10.0.0.1", "async@example.com", chain).getStatus());
+
+        ServletInputStream in = chain.getRequest().getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        AtomicBoolean allRead = new AtomicBoolean();
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                while (in.isReady() && !in.isFinished()) {
+                    read.write(in.read());
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allRead.set(true);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                throw new AssertionError(t);
+            }
+        });
+        assertTrue(allRead.get());
+        assertEquals(loginBody("async@example.com"), read.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void oversizedBodiesAreRefusedWhateverTheirLength() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(limiter(store, 100, 100), objectMapper);
+        String padded = "{\"email\":\"victim@example.com\",\"password\":\"" + "x".repeat(16 * 1024) + "\"}";
+
+        MockFilterChain chain = new MockFilterChain();
+        assertEquals(413, send(filter, chunked(padded), chain).getStatus());
+        assertNull(chain.getRequest());
+
+        MockHttpServletRequest declared = request(padded);
+        assertEquals(413, send(filter, declared, new MockFilterChain()).getStatus());
+    }
+
+    @Test
+    void limitHoldsAcrossNodesSharingTheStore() throws Exception {
+        RateLimitFilter nodeA = new RateLimitFilter(limiter(store, 10, 100), objectMapper);
+        RateLimitFilter nodeB = new RateLimitFilter(limiter(store, 10, 100), objectMapper);
+
+        int allowed = 0;
+        for (int i = 0; i < 10; i++) {
+            for (RateLimitFilter node : List.of(nodeA, nodeB)) {
+                if (login(node, "203.0.113.7", "user" + i + "@example.com", new MockFilterChain()).getStatus() == 200) {
+                    allowed++;
+                }
+            }
+        }
+        assertEquals(10, allowed);
+    }
+
+    @Test
+    void concurrentAttemptsNeverExceedTheLimit() throws Exception {
+        RateLimiter limiter = limiter(store, 25, 100);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> attempts = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            attempts.add(pool.submit(() -> {
+                start.await();
+                return limiter.checkIp("198.51.100.1");
+            }));
+        }
+        start.countDown();
+
+        int allowed = 0;
+        for (Future<Long> attempt : attempts) {
+            if (attempt.get(10, TimeUnit.SECONDS) == 0) {
+                allowed++;
+            }
+        }
+        pool.shutdown();
+        assertEquals(25, allowed);
+    }
+
+    @Test
+    void unreachableStoreFallsBackToTheLocalBucket() throws Exception {
+        RateLimitStore down = (key, windowMillis, now) -> {
+            throw new IllegalStateException("connection refused");
+        };
+        RateLimiter limiter = limiter(down, 2, 100);
+
+        assertEquals(0, limiter.checkIp("192.0.2.1"));
+        assertEquals(0, limiter.checkIp("192.0.2.1"));
+        assertEquals(30, limiter.checkIp("192.0.2.1"));
+    }
+
+    @Test
+    void otherRequestsAreNotLimited() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(limiter(store, 1, 1), objectMapper);
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+        }
+    }
+
+    private static RateLimiter limiter(RateLimitStore store, int ipLimit, int emailLimit) {
+        return new RateLimiter(store, new SimpleMeterRegistry(), 60, ipLimit, emailLimit, 1000);
+    }
+
+    private static MockHttpServletResponse login(RateLimitFilter filter, String ip, String email, MockFilterChain chain)
+            throws Exception {
+        MockHttpServletRequest request = request(loginBody(email));
+        request.setRemoteAddr(ip);
+        return send(filter, request, chain);
+    }
+
+    private static MockHttpServletResponse send(RateLimitFilter filter, MockHttpServletRequest request,
+                                                MockFilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static String loginBody(String email) {
+        return "{\"email\":\"" + email + "\",\"password\":\"guess\"}";
+    }
+
+    private static MockHttpServletRequest request(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    //as the container sees a transfer-encoding: chunked body: no content-length
+    private static MockHttpServletRequest chunked(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login") {
+            @Override
+            public int getContentLength() {
+                return -1;
+            }
+
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.addHeader("Transfer-Encoding", "chunked");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.Backend.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestLogFilterTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(RequestLogFilter.class);
+    private final ListAppender<ILoggingEvent> lines = new ListAppender<>();
+
+    @BeforeEach
+    void capture() {
+        lines.start();
+        logger.addAppender(lines);
+    }
+
+    @AfterEach
+    void release() {
+        logger.detachAppender(lines);
+    }
+
+    @Test
+    void unsampledRequestsAreNotLoggedButFailuresAndSlowOnesAre() throws Exception {
+        RequestLogFilter filter = new RequestLogFilter(0, 1000);
+
+        run(filter, "/api/posts?token=secret", 200);
+        run(filter, "/api/posts", 404);
+        run(filter, "/api/users/u1", 503);
+
+        assertEquals(List.of("GET /api/users/u1 503 "), messages());
+        assertTrue(filter.sampled(200, 1000));
+        assertTrue(filter.sampled(500, 0));
+    }
+
+    @Test
+    void everyRequestIsLoggedAtFullRateWithoutItsQueryString() throws Exception {
+        RequestLogFilter filter = new RequestLogFilter(1, 1000);
+
+        for (int i = 0; i < 20; i++) {
+            run(filter, "/api/posts", 200);
+        }
+        run(filter, "/api/search?q=private", 200);
+
+        assertEquals(21, lines.list.size());
+        assertEquals("GET /api/search 200 ", messages().get(20));
+    }
+
+    @Test
+    void anExceptionFromTheChainIsLoggedAsAServerError() {
+        RequestLogFilter filter = new RequestLogFilter(0, 1000);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/posts");
+
+        assertThrows(ServletException.class, () -> filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> {
+                    throw new ServletException("boom");
+                }));
+        assertEquals(List.of("POST /api/posts 500 "), messages());
+    }
+
+    private void run(RequestLogFilter filter, String uri, int status) throws Exception {
+        String[] parts = uri.split("\\?", 2);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", parts[0]);
+        if (parts.length > 1) {
+            request.setQueryString(parts[1]);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(status);
+        filter.doFilter(request, response, new MockFilterChain());
+    }
+
+    //without the duration, which varies
+    private List<String> messages() {
+        return lines.list.stream()
+                .map(ILoggingEvent::getFormattedMessage)
+                .map(message -> message.replaceAll("\\d+ms", ""))
+                .toList();
+    }
+}
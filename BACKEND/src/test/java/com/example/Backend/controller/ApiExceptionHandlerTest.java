@@ -0,0 +1,49 @@
+package com.example.Backend.controller;
+
+import com.example.Backend.repository.FeedCursor;
+import com.example.Backend.repository.InvalidCursorException;
+import com.example.Backend.service.TimelineService;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ApiExceptionHandlerTest {
+
+    @Test
+    void malformedCursorsAreRejected() {
+        FeedCursor cursor = new FeedCursor(new Date(1_700_000_000_000L), "abc");
+        FeedCursor decoded = FeedCursor.decode(cursor.encode());
+        assertEquals(cursor.getCreatedAt(), decoded.getCreatedAt());
+        assertEquals("abc", decoded.getId());
+
+        for (String token : new String[]{"%%%", "bm90LWEtY3Vyc29y", encode("123:"), encode("x:abc")}) {
+            assertThrows(InvalidCursorException.class, () -> FeedCursor.decode(token), token);
+        }
+    }
+
+    @Test
+    void malformedCursorIsABadRequestNotAServerError() throws Exception {
+        //the cursor is decoded before anything is read, so no database is needed
+        MockMvc mvc = MockMvcBuilders
+                .standaloneSetup(new FeedController(new TimelineService(null, null, null, 800, 10000, 100, 30000)))
+                .setControllerAdvice(new ApiExceptionHandler())
+                .build();
+
+        mvc.perform(get("/api/feed/u1").param("cursor", "not a cursor").principal(() -> "u1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid cursor"));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes());
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.Backend.controller;
+
+import com.example.Backend.dto.PostCard;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//streamed arrays are byte-for-byte what the List response was, without holding the list or the body in memory
+class JsonArrayResponseTest {
+
+    private static final int LARGE = 200_000;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+    @Test
+    void writesTheSameBodyAsTheListResponse() throws Exception {
+        List<PostCard> cards = IntStream.range(0, 120).mapToObj(this::card).collect(Collectors.toList());
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(cards), write(cards::stream));
+        assertArrayEquals(objectMapper.writeValueAsBytes(List.of()), write(Stream::empty));
+    }
+
+    @Test
+    void closesTheStreamAfterWriting() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        write(() -> Stream.of(card(1)).onClose(() -> closed.set(true)));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void liveHeapStaysFlatWhileTheListGrowsWithTheResult() throws Exception {
+        //what is still reachable halfway through the result, after a full collection
+        long[] listLive = {0};
+        List<PostCard> cards = IntStream.range(0, LARGE)
+                .mapToObj(i -> probe(i, listLive))
+                .collect(Collectors.toList());
+        objectMapper.writeValue(OutputStream.nullOutputStream(), cards);
+        long listMidpoint = listLive[0];
+        cards = null;
+
+        long[] streamLive = {0};
+        JsonArrayResponse.of(objectMapper, () -> IntStream.range(0, LARGE).mapToObj(i -> probe(i, streamLive)))
+                .getBody().writeTo(OutputStream.nullOutputStream());
+
+        System.out.printf("%d cards, live heap halfway through: list response %d KB, streamed response %d KB%n",
+                LARGE, listMidpoint >> 10, streamLive[0] >> 10);
+        assertTrue(streamLive[0] < listMidpoint / 10);
+    }
+
+    private byte[] write(Supplier<Stream<PostCard>> items) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonArrayResponse.of(objectMapper, items).getBody().writeTo(out);
+        assertTrue(objectMapper.readTree(out.toByteArray()).isArray());
+        return out.toByteArray();
+    }
+
+    private PostCard card(int i) {
+        PostCard card = new PostCard();
+        card.setId("post-" + i);
+        card.setUserId("user-" + (i % 100));
+        card.setDescription("description of post " + i + " with enough text to look like a real card");
+        card.setCreatedAt(new Date(1_700_000_000_000L - i * 1000L));
+        card.setLikeCount(i);
+        return card;
+    }
+
+    private PostCard probe(int i, long[] live) {
+        if (i == 0) {
+            live[0] = -usedAfterGc();
+        } else if (i == LARGE / 2) {
+            live[0] += usedAfterGc();
+        }
+        return card(i);
+    }
+
+    private long usedAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
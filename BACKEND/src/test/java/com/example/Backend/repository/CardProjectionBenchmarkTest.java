@@ -0,0 +1,107 @@
+package com.example.Backend.repository;
+
+import com.example.Backend.MongoContainerTest;
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.dto.PostCard;
+import com.example.Backend.enums.ContentType;
+import com.example.Backend.model.Like;
+import com.example.Backend.model.Post;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//one feed page as full entities vs. projected cards: bytes on the wire and fetch + serialize time
+@Tag("benchmark")
+class CardProjectionBenchmarkTest extends MongoContainerTest {
+
+    private static final int POSTS = 200;
+    private static final int LIKES_PER_POST = 2_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int READS = 100;
+    private static final String VIEWER = "viewer";
+
+    private static MongoTemplate mongoTemplate;
+    private static FeedPageRepository feedPageRepository;
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    static void seed() {
+        mongoTemplate = new MongoTemplate(client(), "card_projection_benchmark");
+        feedPageRepository = new FeedPageRepository(mongoTemplate);
+
+        long now = System.currentTimeMillis();
+        for (int p = 0; p < POSTS; p++) {
+            List<Like> likes = new ArrayList<>(LIKES_PER_POST);
+            for (int l = 0; l < LIKES_PER_POST; l++) {
+                Like like = new Like();
+                //every other post is liked by the viewer
+                like.setUserId(l == 0 && p % 2 == 0 ? VIEWER : "user-" + l);
+                like.setCreatedAt(new Date(now));
+                likes.add(like);
+            }
+            Post post = new Post();
+            post.setUserId("author");
+            post.setDescription("post " + p);
+            post.setCreatedAt(new Date(now - p * 1000L));
+            post.setLikes(likes);
+            post.setLikeCount(likes.size());
+            mongoTemplate.insert(post);
+        }
+    }
+
+    @Test
+    void cardsShipAFractionOfTheBytesAndKeepLikedByViewer() throws Exception {
+        CursorPage<Post> full = fullPage();
+        CursorPage<PostCard> cards = cardPage();
+
+        assertEquals(PAGE_SIZE, cards.getItems().size());
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Post post = full.getItems().get(i);
+            PostCard card = cards.getItems().get(i);
+            assertEquals(post.getId(), card.getId());
+            assertEquals(post.getLikeCount(), card.getLikeCount());
+            assertEquals(post.getLikes().stream().anyMatch(l -> VIEWER.equals(l.getUserId())), card.isLikedByViewer());
+        }
+
+        int fullBytes = objectMapper.writeValueAsBytes(full).length;
+        int cardBytes = objectMapper.writeValueAsBytes(cards).length;
+        assertTrue(cardBytes * 10 < fullBytes);
+
+        long fullNanos = time(CardProjectionBenchmarkTest::fullPage);
+        long cardNanos = time(CardProjectionBenchmarkTest::cardPage);
+
+        System.out.printf("page of %d posts with %d likes each: entities %d bytes, %.2f ms/page; cards %d bytes, %.2f ms/page%n",
+                PAGE_SIZE, LIKES_PER_POST, fullBytes, fullNanos / 1e6 / READS, cardBytes, cardNanos / 1e6 / READS);
+    }
+
+    private static CursorPage<Post> fullPage() {
+        return feedPageRepository.findPage(Post.class, null, PAGE_SIZE, Post::getCreatedAt, Post::getId);
+    }
+
+    private static CursorPage<PostCard> cardPage() {
+        return feedPageRepository.findPage(Post.class, null, CardProjection.of(ContentType.POST, VIEWER), null,
+                PAGE_SIZE, Post::getCreatedAt, Post::getId).map(post -> PostCard.from(post, VIEWER));
+    }
+
+    //what the endpoint pays per request: the query plus turning the page into JSON
+    private long time(Supplier<CursorPage<?>> read) throws Exception {
+        for (int i = 0; i < 10; i++) {
+            objectMapper.writeValueAsBytes(read.get());
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < READS; i++) {
+            objectMapper.writeValueAsBytes(read.get());
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.Backend.repository;
+
+import com.example.Backend.MongoContainerTest;
+import com.example.Backend.model.Like;
+import com.example.Backend.model.Post;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//fires parallel likes at one post and compares the atomic path with the old read-modify-write path
+class LikeOperationsConcurrencyTest extends MongoContainerTest {
+
+    private static final int LIKES = 2000;
+    private static final int THREADS = 64;
+
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void resetCollection() {
+        mongoTemplate = new MongoTemplate(client(), "like_concurrency_test");
+        mongoTemplate.dropCollection(Post.class);
+    }
+
+    @Test
+    void atomicLikesAreNeverLost() throws InterruptedException {
+        Post post = seedPost();
+        LikeOperations likeOperations = new LikeOperations(mongoTemplate);
+
+        runInParallel(i -> likeOperations.addLike(Post.class, post.getId(), "user-" + i));
+
+        Post stored = mongoTemplate.findById(post.getId(), Post.class);
+        assertEquals(LIKES, stored.getLikes().size());
+        assertEquals(LIKES, stored.getLikeCount());
+    }
+
+    @Test
+    void concurrentDuplicateLikesCountOnce() throws InterruptedException {
+        Post post = seedPost();
+        LikeOperations likeOperations = new LikeOperations(mongoTemplate);
+
+        runInParallel(i -> likeOperations.addLike(Post.class, post.getId(), "same-user"));
+
+        Post stored = mongoTemplate.findById(post.getId(), Post.class);
+        assertEquals(1, stored.getLikes().size());
+        assertEquals(1, stored.getLikeCount());
+
+        runInParallel(i -> likeOperations.removeLike(Post.class, post.getId(), "same-user"));
+
+        stored = mongoTemplate.findById(post.getId(), Post.class);
+        assertEquals(0, stored.getLikes().size());
+        assertEquals(0, stored.getLikeCount());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void readModifyWriteBaseline() throws InterruptedException {
+        Post post = seedPost();
+
+        //the previous PostService.addLike: load, scan, append, save the whole document
+        long elapsed = runInParallel(i -> {
+            Post current = mongoTemplate.findById(post.getId(), Post.class);
+            String userId = "user-" + i;
+            if (current.getLikes().stream().noneMatch(l -> l.getUserId().equals(userId))) {
+                current.getLikes().add(new Like(userId, new Date()));
+                mongoTemplate.save(current);
+            }
+        });
+
+        Post stored = mongoTemplate.findById(post.getId(), Post.class);
+        report("read-modify-write", elapsed, stored);
+        assertTrue(stored.getLikes().size() <= LIKES);
+    }
+
+    private Post seedPost() {
+        Post post = new Post();
+        post.setUserId("owner");
+        post.setUserName("Owner");
+        post.setDescription("viral post");
+        post.setCreatedAt(new Date());
+        post.setLikes(new ArrayList<>());
+        post.setComments(new ArrayList<>());
+        return mongoTemplate.insert(post);
+    }
+
+    private long runInParallel(IntConsumer like) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < LIKES; i++) {
+            int index = i;
+            executor.submit(() -> {
+                start.await();
+                like.accept(index);
+                return null;
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES));
+        return System.nanoTime() - begin;
+    }
+
+    private void report(String mode, long elapsedNanos, Post stored) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("%-18s %d likes sent, %d stored (%d lost), %.0f likes/sec%n",
+                mode, LIKES, stored.getLikes().size(), LIKES - stored.getLikes().size(), LIKES / seconds);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.Backend.service;
+
+import com.example.Backend.MongoContainerTest;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//copies posts from one database to another through an NDJSON file, and checks that both directions pick up where an
+//interrupted run stopped
+class BulkTransferTest extends MongoContainerTest {
+
+    private static final int POSTS = 20_000;
+
+    private static MongoTemplate source;
+    private static MongoTemplate target;
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void connect() {
+        source = new MongoTemplate(client(), "bulk_source");
+        target = new MongoTemplate(client(), "bulk_target");
+    }
+
+    @BeforeEach
+    void seed() {
+        for (MongoTemplate template : List.of(source, target)) {
+            template.dropCollection("posts");
+            template.dropCollection(BulkTransfer.CHECKPOINTS);
+        }
+        List<Document> posts = new ArrayList<>();
+        for (int i = 0; i < POSTS; i++) {
+            posts.add(new Document("_id", new ObjectId())
+                    .append("userId", "user-" + (i % 100))
+                    .append("description", "post " + i)
+                    .append("createdAt", new Date(1_700_000_000_000L + i))
+                    .append("likeCount", (long) (i % 7))
+                    .append("likes", List.of(new Document("userId", "fan").append("createdAt", new Date(i)))));
+        }
+        source.getCollection("posts").insertMany(posts);
+    }
+
+    @Test
+    void copiesACollectionBetweenDatabases() throws Exception {
+        Path file = dir.resolve("posts.ndjson");
+
+        BulkTransfer.Report exported = transfer(source, "export", 1000).exportCollection("posts", file);
+        BulkTransfer.Report imported = transfer(target, "import", 1000).importCollection("posts", file);
+
+        assertEquals(POSTS, exported.getDocuments());
+        assertEquals(POSTS, imported.getDocuments());
+        assertEquals(POSTS, Files.readAllLines(file).size());
+        assertEquals(sorted(source), sorted(target));
+    }
+
+    @Test
+    void importResumesAfterTheCheckpointAndSkipsACompletedFile() throws Exception {
+        Path file = dir.resolve("posts.ndjson");
+        transfer(source, "export", 1000).exportCollection("posts", file);
+        BulkTransfer importer = transfer(target, "import", 1000);
+        importer.importCollection("posts", file);
+
+        //as if the first run had stopped after 5000 documents, and those had been lost since
+        target.dropCollection("posts");
+        target.updateFirst(new Query(Criteria.where("_id").is("import:posts")),
+                new Update().set("done", 5000).set("complete", false), BulkTransfer.CHECKPOINTS);
+
+        assertEquals(POSTS - 5000, importer.importCollection("posts", file).getDocuments());
+        assertEquals(POSTS - 5000, target.getCollection("posts").countDocuments());
+        assertEquals(0, importer.importCollection("posts", file).getDocuments());
+    }
+
+    @Test
+    void exportResumesAfterTheCheckpointAndDropsAPartialLine() throws Exception {
+        Path file = dir.resolve("posts.ndjson");
+        BulkTransfer exporter = transfer(source, "export", 1000);
+        exporter.exportCollection("posts", file);
+        byte[] complete = Files.readAllBytes(file);
+
+        //as if the first run had died writing document 3001, after checkpointing 3000
+        List<String> lines = Files.readAllLines(file);
+        long bytes = 0;
+        for (int i = 0; i < 3000; i++) {
+            bytes += lines.get(i).getBytes(StandardCharsets.UTF_8).length + 1;
+        }
+        ObjectId lastId = Document.parse(lines.get(2999)).getObjectId("_id");
+        source.updateFirst(new Query(Criteria.where("_id").is("export:posts")),
+                new Update().set("done", 3000).set("lastId", lastId).set("bytes", bytes).set("complete", false),
+                BulkTransfer.CHECKPOINTS);
+        Files.write(file, "{\"_id\":{\"$oid\":\"65".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        BulkTransfer.Report resumed = exporter.exportCollection("posts", file);
+
+        assertEquals(POSTS - 3000, resumed.getDocuments());
+        assertArrayEquals(complete, Files.readAllBytes(file));
+    }
+
+    @Test
+    void parallelOrderedAndUnorderedImportsWriteTheSame() throws Exception {
+        Path file = dir.resolve("posts.ndjson");
+        transfer(source, "export", 1000).exportCollection("posts", file);
+
+        for (boolean ordered : List.of(true, false)) {
+            target.dropCollection("posts");
+            target.dropCollection(BulkTransfer.CHECKPOINTS);
+            BulkTransfer importer = new BulkTransfer(target, null, null, null, "import", List.of("posts"), dir, 250, 8,
+                    ordered, true, false);
+            importer.importCollection("posts", file);
+            assertEquals(sorted(source), sorted(target));
+        }
+        assertTrue(target.exists(new Query(Criteria.where("complete").is(true)), BulkTransfer.CHECKPOINTS));
+    }
+
+    private BulkTransfer transfer(MongoTemplate template, String mode, int batchSize) {
+        return new BulkTransfer(template, null, null, null, mode, List.of("posts"), dir, batchSize, 4, false, true, false);
+    }
+
+    private static List<Document> sorted(MongoTemplate template) {
+        return template.getCollection("posts").find().sort(new Document("_id", 1)).into(new ArrayList<>());
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.Backend.service;
+
+import com.example.Backend.MongoContainerTest;
+import com.example.Backend.config.CacheConfig;
+import com.example.Backend.model.Post;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.testcontainers.containers.MongoDBContainer;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//runs the bus against a single-node replica set, which is what MongoDBContainer starts
+class CacheInvalidationBusTest extends MongoContainerTest {
+
+    private MongoTemplate mongoTemplate;
+    private ConcurrentMapCacheManager cacheManager;
+
+    @BeforeEach
+    void reset() {
+        mongoTemplate = new MongoTemplate(client(), "cache_invalidation_test");
+        mongoTemplate.dropCollection(Post.class);
+        mongoTemplate.dropCollection(CacheInvalidationBus.TOKEN_COLLECTION);
+        cacheManager = new ConcurrentMapCacheManager(CacheConfig.PROFILES, CacheConfig.POSTS,
+                CacheConfig.LEARNING_PLANS, CacheConfig.LEARNING_PROGRESS);
+    }
+
+    @Test
+    void updateOnAnotherNodeEvictsLocalEntry() throws InterruptedException {
+        Cache posts = cacheManager.getCache(CacheConfig.POSTS);
+        Post post = seedPost("cached");
+        CacheInvalidationBus bus = startBus();
+        try {
+            posts.put(post.getId(), post);
+            //written straight to Mongo, as another instance would
+            touch(post);
+            assertTrue(awaitEvicted(posts, post.getId()));
+        } finally {
+            bus.stop();
+        }
+    }
+
+    @Test
+    void restartedNodeCatchesUpWithoutFlushing() throws InterruptedException {
+        Cache posts = cacheManager.getCache(CacheConfig.POSTS);
+        Post changedWhileDown = seedPost("changed while down");
+        Post untouched = seedPost("untouched");
+
+        CacheInvalidationBus first = startBus();
+        first.stop();
+
+        touch(changedWhileDown);
+        posts.put(changedWhileDown.getId(), changedWhileDown);
+        posts.put(untouched.getId(), untouched);
+
+        CacheInvalidationBus second = new CacheInvalidationBus(mongoTemplate, cacheManager, "node-a", 0);
+        second.start();
+        try {
+            assertTrue(awaitEvicted(posts, changedWhileDown.getId()));
+            assertNotNull(posts.get(untouched.getId()));
+        } finally {
+            second.stop();
+        }
+    }
+
+    //returns once a probe write has come back through the stream, so the bus is definitely listening
+    private CacheInvalidationBus startBus() throws InterruptedException {
+        CacheInvalidationBus bus = new CacheInvalidationBus(mongoTemplate, cacheManager, "node-a", 0);
+        bus.start();
+        Cache posts = cacheManager.getCache(CacheConfig.POSTS);
+        Post probe = seedPost("probe");
+        for (int attempt = 0; attempt < 10; attempt++) {
+            posts.put(probe.getId(), probe);
+            touch(probe);
+            if (awaitEvicted(posts, probe.getId())) {
+                return bus;
+            }
+        }
+        throw new IllegalStateException("Change stream did not start");
+    }
+
+    private boolean awaitEvicted(Cache cache, String id) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            if (cache.get(id) == null) {
+                return true;
+            }
+            Thread.sleep(50);
+        }
+        return false;
+    }
+
+    private void touch(Post post) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(post.getId())),
+                new Update().set("updatedAt", new Date()), Post.class);
+    }
+
+    private Post seedPost(String description) {
+        Post post = new Post();
+        post.setUserId("owner");
+        post.setDescription(description);
+        post.setCreatedAt(new Date());
+        return mongoTemplate.insert(post);
+    }
+}
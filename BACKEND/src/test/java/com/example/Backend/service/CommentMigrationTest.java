@@ -0,0 +1,102 @@
+package com.example.Backend.service;
+
+import com.example.Backend.MongoContainerTest;
+import com.example.Backend.enums.CommentParentType;
+import com.example.Backend.model.Comment;
+import com.example.Backend.model.Post;
+import com.example.Backend.repository.CommentRepository;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//a parent still embedding all its comments, changed before the startup migration has reached it
+class CommentMigrationTest extends MongoContainerTest {
+
+    private static final int EMBEDDED = 8;
+
+    private static MongoTemplate mongoTemplate;
+
+    private CommentRepository commentRepository;
+    private CommentService commentService;
+
+    @BeforeAll
+    static void connect() {
+        mongoTemplate = new MongoTemplate(client(), "comment_migration");
+    }
+
+    @BeforeEach
+    void reset() {
+        mongoTemplate.dropCollection(Post.class);
+        mongoTemplate.dropCollection(Comment.class);
+        commentRepository = new MongoRepositoryFactory(mongoTemplate).getRepository(CommentRepository.class);
+        commentService = new CommentService(commentRepository, null, mongoTemplate, 5);
+    }
+
+    @Test
+    void commentingOnALegacyParentKeepsItsEmbeddedComments() {
+        String postId = legacyPost();
+        //what an earlier $inc from addComment left behind: commentCount exists but nothing was moved
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(postId)), new Update().set("commentCount", 1),
+                Post.class);
+
+        Post post = commentService.addComment(CommentParentType.POST, postId, Post.class, comment("owner", "new"));
+
+        assertEquals(EMBEDDED + 1, commentRepository.countByParentTypeAndParentId(CommentParentType.POST, postId));
+        assertEquals(EMBEDDED + 1, post.getCommentCount());
+        assertEquals(5, post.getComments().size());
+        assertEquals("new", post.getComments().get(4).getContent());
+        assertTrue(post.isCommentsMigrated());
+
+        //the startup migration reaching it later changes nothing
+        new CommentMigration(mongoTemplate, commentService).run(null);
+        Post stored = mongoTemplate.findById(postId, Post.class);
+        assertEquals(EMBEDDED + 1, stored.getCommentCount());
+        assertEquals(EMBEDDED + 1, commentRepository.countByParentTypeAndParentId(CommentParentType.POST, postId));
+    }
+
+    @Test
+    void migrationCountsFromTheCommentsCollection() {
+        String postId = legacyPost();
+
+        new CommentMigration(mongoTemplate, commentService).run(null);
+
+        Post post = mongoTemplate.findById(postId, Post.class);
+        assertEquals(EMBEDDED, post.getCommentCount());
+        assertEquals(5, post.getComments().size());
+        assertEquals("comment 7", post.getComments().get(4).getContent());
+        assertTrue(post.isCommentsMigrated());
+    }
+
+    //shaped as posts were before comments moved out: every comment embedded, no commentCount
+    private String legacyPost() {
+        List<Document> comments = new ArrayList<>();
+        for (int i = 0; i < EMBEDDED; i++) {
+            comments.add(new Document("_id", new ObjectId().toHexString()).append("userId", "commenter")
+                    .append("content", "comment " + i).append("createdAt", new Date(1_000L * i)));
+        }
+        Document post = new Document("userId", "owner").append("description", "legacy").append("comments", comments);
+        mongoTemplate.insert(post, mongoTemplate.getCollectionName(Post.class));
+        return post.getObjectId("_id").toHexString();
+    }
+
+    private static Comment comment(String userId, String content) {
+        Comment comment = new Comment();
+        comment.setUserId(userId);
+        comment.setContent(content);
+        return comment;
+    }
+}
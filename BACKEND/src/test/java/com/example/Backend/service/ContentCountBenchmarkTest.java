@@ -0,0 +1,91 @@
+package com.example.Backend.service;
+
+import com.example.Backend.MongoContainerTest;
+import com.example.Backend.dto.ContentCounts;
+import com.example.Backend.enums.ContentType;
+import com.example.Backend.model.Post;
+import com.example.Backend.model.User;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+//counter read vs. index count vs. the old load-everything count, as one user's posts grow
+@Tag("benchmark")
+class ContentCountBenchmarkTest extends MongoContainerTest {
+
+    private static final int[] SIZES = {10, 1_000, 10_000};
+    private static final int READS = 200;
+
+    private static MongoTemplate mongoTemplate;
+    private static ContentCountService contentCountService;
+
+    @BeforeAll
+    static void connect() {
+        mongoTemplate = new MongoTemplate(client(), "content_count_benchmark");
+        mongoTemplate.indexOps(Post.class).ensureIndex(new Index()
+                .on("userId", Sort.Direction.ASC).on("createdAt", Sort.Direction.DESC).on("_id", Sort.Direction.DESC));
+        contentCountService = new ContentCountService(mongoTemplate);
+    }
+
+    @Test
+    void counterReadStaysFlatAsContentGrows() {
+        User user = new User();
+        user.setName("prolific");
+        user.setEmail("prolific@example.com");
+        user = mongoTemplate.insert(user);
+        String userId = user.getId();
+        Query byUser = new Query(Criteria.where("userId").is(userId));
+
+        int seeded = 0;
+        for (int size : SIZES) {
+            List<Post> batch = new ArrayList<>();
+            for (; seeded < size; seeded++) {
+                Post post = new Post();
+                post.setUserId(userId);
+                post.setDescription("post " + seeded);
+                post.setMediaUrls(List.of("{\"id\":\"m" + seeded + "\",\"url\":\"/api/media/m" + seeded + "\"}"));
+                post.setCreatedAt(new Date());
+                batch.add(post);
+            }
+            mongoTemplate.insertAll(batch);
+            //what the create path does for each saved post
+            batch.forEach(post -> contentCountService.adjust(userId, ContentType.POST, 1));
+
+            assertEquals(size, contentCountService.getCounts(userId).getPosts());
+            assertEquals(size, contentCountService.recount(userId).getTotalPosts());
+
+            double counter = time(() -> contentCountService.getCounts(userId).getTotalPosts());
+            double indexCount = time(() -> mongoTemplate.count(byUser, Post.class));
+            double loadAll = time(() -> mongoTemplate.find(byUser, Post.class).size());
+            System.out.printf("%6d posts: counter %.3f ms, index count %.3f ms, load all %.3f ms%n",
+                    size, counter, indexCount, loadAll);
+        }
+
+        ContentCounts counts = contentCountService.getCounts(userId);
+        assertEquals(SIZES[SIZES.length - 1], counts.getTotalPosts());
+    }
+
+    //mean milliseconds per call after a short warm-up
+    private double time(LongSupplier read) {
+        for (int i = 0; i < 10; i++) {
+            read.getAsLong();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < READS; i++) {
+            read.getAsLong();
+        }
+        return (System.nanoTime() - start) / 1e6 / READS;
+    }
+}
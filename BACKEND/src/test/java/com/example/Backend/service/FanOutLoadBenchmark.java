@@ -0,0 +1,80 @@
+package com.example.Backend.service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//GET /api/user/{id}/content (the getUserContent fan-out) against a running server, with every request of a round
+//sent at once, so latency includes the wait for a tomcat thread and for the fan-out pool. start the server as it is
+//deployed, then run with:
+//mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.Backend.service.FanOutLoadBenchmark
+//  -Dbenchmark.token=<bearer token> -Dbenchmark.users=<id>,<id>,... [-Dbenchmark.url=http://localhost:8080]
+//  [-Dbenchmark.concurrency=1000,10000]
+public class FanOutLoadBenchmark {
+
+    public static void main(String[] args) {
+        String url = System.getProperty("benchmark.url", "http://localhost:8080");
+        String token = System.getProperty("benchmark.token");
+        String users = System.getProperty("benchmark.users");
+        if (token == null || users == null) {
+            throw new IllegalArgumentException("benchmark.token and benchmark.users are required");
+        }
+        List<String> userIds = List.of(users.split(","));
+        int[] concurrency = Arrays.stream(System.getProperty("benchmark.concurrency", "1000,10000").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        round(http, url, token, userIds, 500);
+        for (int requests : concurrency) {
+            long start = System.nanoTime();
+            Round round = round(http, url, token, userIds, requests);
+            long wall = System.nanoTime() - start;
+
+            long[] latencies = round.latencies;
+            Arrays.sort(latencies);
+            long p50 = latencies[latencies.length / 2];
+            long p99 = latencies[(int) Math.ceil(latencies.length * 0.99) - 1];
+            System.out.printf("%d concurrent: p50 %.1f ms, p99 %.1f ms, %.0f req/s, %d failed%n",
+                    requests, p50 / 1e6, p99 / 1e6, requests / (wall / 1e9), round.failed);
+        }
+    }
+
+    private static Round round(HttpClient http, String url, String token, List<String> userIds, int requests) {
+        List<CompletableFuture<Long>> calls = new ArrayList<>(requests);
+        AtomicInteger failed = new AtomicInteger();
+        for (int i = 0; i < requests; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/api/user/" + userIds.get(i % userIds.size())
+                            + "/content"))
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(Duration.ofMinutes(2))
+                    .GET()
+                    .build();
+            long submitted = System.nanoTime();
+            calls.add(http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).handle((response, error) -> {
+                if (error != null || response.statusCode() != 200) {
+                    failed.incrementAndGet();
+                }
+                return System.nanoTime() - submitted;
+            }));
+        }
+        long[] latencies = calls.stream().mapToLong(CompletableFuture::join).toArray();
+        return new Round(latencies, failed.get());
+    }
+
+    private static class Round {
+        private final long[] latencies;
+        private final int failed;
+
+        Round(long[] latencies, int failed) {
+            this.latencies = latencies;
+            this.failed = failed;
+        }
+    }
+}
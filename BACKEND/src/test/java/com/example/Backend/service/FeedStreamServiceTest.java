@@ -0,0 +1,112 @@
+package com.example.Backend.service;
+
+import com.example.Backend.MongoContainerTest;
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.dto.FeedItem;
+import com.example.Backend.model.LearningPlan;
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Post;
+import com.example.Backend.repository.FeedStreamRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+//streamed activity matches the paged activity, and the first card arrives long before the last
+class FeedStreamServiceTest extends MongoContainerTest {
+
+    private static final int ITEMS_PER_TYPE = 5_000;
+
+    private static com.mongodb.reactivestreams.client.MongoClient reactiveClient;
+    private static ActivityService activityService;
+    private static FeedStreamService feedStreamService;
+
+    @BeforeAll
+    static void seed() {
+        reactiveClient = com.mongodb.reactivestreams.client.MongoClients.create(replicaSetUrl());
+        MongoTemplate mongoTemplate = new MongoTemplate(client(), "feed_stream");
+        activityService = new ActivityService(mongoTemplate);
+        feedStreamService = new FeedStreamService(
+                new FeedStreamRepository(new ReactiveMongoTemplate(reactiveClient, "feed_stream")));
+
+        long now = System.currentTimeMillis();
+        List<Post> posts = new ArrayList<>();
+        List<LearningPlan> plans = new ArrayList<>();
+        List<LearningProgress> progress = new ArrayList<>();
+        for (int i = 0; i < ITEMS_PER_TYPE; i++) {
+            Post post = new Post();
+            post.setUserId("author");
+            post.setDescription("post " + i);
+            post.setCreatedAt(new Date(now - i * 3000L));
+            posts.add(post);
+            LearningPlan plan = new LearningPlan();
+            plan.setUserId("author");
+            plan.setTitle("plan " + i);
+            plan.setCreatedAt(new Date(now - i * 3000L - 1000));
+            plans.add(plan);
+            LearningProgress entry = new LearningProgress();
+            entry.setUserId("author");
+            entry.setTitle("progress " + i);
+            entry.setCreatedAt(new Date(now - i * 3000L - 2000));
+            progress.add(entry);
+        }
+        mongoTemplate.insertAll(posts);
+        mongoTemplate.insertAll(plans);
+        mongoTemplate.insertAll(progress);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        reactiveClient.close();
+    }
+
+    @Test
+    void streamFollowsPagedOrder() {
+        List<String> paged = new ArrayList<>();
+        String cursor = null;
+        for (int i = 0; i < 5; i++) {
+            CursorPage<FeedItem> page = activityService.getActivity("author", cursor, 100, null);
+            page.getItems().forEach(item -> paged.add(item.getId()));
+            cursor = page.getNextCursor();
+        }
+
+        List<String> streamed = feedStreamService.streamActivity("author", null, paged.size(), null)
+                .map(FeedItem::getId).collectList().block();
+        assertEquals(paged, streamed);
+
+        //resuming from a cursor continues exactly where the page left off
+        List<String> resumed = feedStreamService.streamActivity("author", cursor, 10, null)
+                .map(FeedItem::getId).collectList().block();
+        List<String> next = activityService.getActivity("author", cursor, 10, null).getItems().stream()
+                .map(FeedItem::getId).collect(Collectors.toList());
+        assertEquals(next, resumed);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void firstCardArrivesBeforeTheStreamEnds() {
+        long start = System.nanoTime();
+        long[] first = {0};
+        Long count = feedStreamService.streamActivity("author", null, null, null)
+                .doOnNext(item -> {
+                    if (first[0] == 0) {
+                        first[0] = System.nanoTime() - start;
+                    }
+                })
+                .count().block();
+        long total = System.nanoTime() - start;
+
+        assertEquals(3L * ITEMS_PER_TYPE, count);
+        System.out.printf("streamed %d items: first after %.1f ms, last after %.1f ms%n",
+                count, first[0] / 1e6, total / 1e6);
+    }
+}
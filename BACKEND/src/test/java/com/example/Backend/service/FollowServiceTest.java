@@ -0,0 +1,85 @@
+package com.example.Backend.service;
+
+import com.example.Backend.MongoContainerTest;
+import com.example.Backend.model.Follow;
+import com.example.Backend.model.User;
+import com.example.Backend.repository.FeedPageRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+//edges to an account are flagged celebrity while its follower count is above the threshold, so feed reads find
+//followed celebrities without loading the whole following list
+class FollowServiceTest extends MongoContainerTest {
+
+    private static final int THRESHOLD = 2;
+
+    private static MongoTemplate mongoTemplate;
+
+    private FollowService followService;
+
+    @BeforeAll
+    static void connect() {
+        mongoTemplate = new MongoTemplate(client(), "follow_service");
+    }
+
+    @BeforeEach
+    void reset() {
+        mongoTemplate.dropCollection(User.class);
+        mongoTemplate.dropCollection(Follow.class);
+        followService = new FollowService(mongoTemplate, new FeedPageRepository(mongoTemplate), THRESHOLD);
+    }
+
+    @Test
+    void edgesAreFlaggedWhileTheFolloweeIsAboveTheThreshold() {
+        String star = user("star");
+        String other = user("other");
+        List<String> fans = List.of(user("a"), user("b"), user("c"), user("d"));
+        followService.follow(fans.get(0), other);
+
+        followService.follow(fans.get(0), star);
+        followService.follow(fans.get(1), star);
+        assertEquals(List.of(), followService.followedCelebrityIds(fans.get(0)));
+
+        //the third follower crosses the threshold, the fourth comes after it
+        followService.follow(fans.get(2), star);
+        followService.follow(fans.get(3), star);
+        assertEquals(4, flagged(star));
+        assertEquals(List.of(star), followService.followedCelebrityIds(fans.get(0)));
+        assertEquals(List.of(star), followService.followedCelebrityIds(fans.get(3)));
+
+        followService.unfollow(fans.get(3), star);
+        assertEquals(3, flagged(star));
+        followService.unfollow(fans.get(2), star);
+        assertEquals(0, flagged(star));
+        assertEquals(List.of(), followService.followedCelebrityIds(fans.get(0)));
+
+        //recount repairs edges whose flag was never written
+        followService.follow(fans.get(2), star);
+        mongoTemplate.updateMulti(new Query(), new Update()
+                .set("celebrity", false), Follow.class);
+        followService.recount(star);
+        assertEquals(3, flagged(star));
+        assertEquals(0, flagged(other));
+    }
+
+    private long flagged(String followeeId) {
+        return mongoTemplate.count(new Query(Criteria.where("followeeId").is(followeeId).and("celebrity").is(true)),
+                Follow.class);
+    }
+
+    private String user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@example.com");
+        return mongoTemplate.insert(user).getId();
+    }
+}
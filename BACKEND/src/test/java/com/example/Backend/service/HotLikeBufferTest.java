@@ -0,0 +1,198 @@
+package com.example.Backend.service;
+
+import com.example.Backend.MongoContainerTest;
+import com.example.Backend.enums.ContentType;
+import com.example.Backend.model.Like;
+import com.example.Backend.model.NotificationEvent;
+import com.example.Backend.model.Post;
+import com.example.Backend.repository.FeedPageRepository;
+import com.example.Backend.repository.LikeOperations;
+import com.example.Backend.repository.LikeUpdate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//likes on one post from many threads, written one transaction each and then through the buffer; prints the
+//sustained rate of both and checks that neither loses or double-counts a like
+class HotLikeBufferTest extends MongoContainerTest {
+
+    private static final int LIKES = 20_000;
+    private static final int THREADS = 64;
+
+    private static MongoTemplate mongoTemplate;
+    private static MongoTransactionManager transactionManager;
+
+    private LikeOperations likeOperations;
+    private NotificationService notificationService;
+
+    @BeforeAll
+    static void connect() {
+        SimpleMongoClientDatabaseFactory factory = new SimpleMongoClientDatabaseFactory(client(), "hot_likes");
+        mongoTemplate = new MongoTemplate(factory);
+        transactionManager = new MongoTransactionManager(factory);
+    }
+
+    @BeforeEach
+    void reset() {
+        mongoTemplate.dropCollection(Post.class);
+        mongoTemplate.remove(new Query(), NotificationEvent.class);
+        likeOperations = new LikeOperations(mongoTemplate);
+        notificationService = new NotificationService(mongoTemplate, new FeedPageRepository(mongoTemplate),
+                push(), transactionManager, 500, 30_000);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void sustainedLikesOnOneDocumentBeforeAndAfter() throws InterruptedException {
+        Post direct = seedPost();
+        //what PostService.addLike does for a post that is not hot
+        long directNanos = runInParallel(i -> notificationService.withOutbox(() -> {
+            LikeUpdate update = likeOperations.addLike(Post.class, direct.getId(), "user-" + i);
+            if (update.isChanged()) {
+                notificationService.createLikeNotification(ContentType.POST, direct.getId(), "owner", "user-" + i);
+            }
+            return update;
+        }));
+        report("one write per like", directNanos, direct);
+
+        Post viral = seedPost();
+        HotLikeBuffer buffer = buffer(0);
+        ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor();
+        flusher.scheduleWithFixedDelay(buffer::flush, 250, 250, TimeUnit.MILLISECONDS);
+        long bufferedNanos = runInParallel(
+                i -> buffer.addLike(Post.class, ContentType.POST, viral.getId(), "user-" + i));
+        flusher.shutdown();
+        assertTrue(flusher.awaitTermination(1, TimeUnit.MINUTES));
+        buffer.flushAll();
+        report("coalesced", bufferedNanos, viral);
+
+        assertEquals(2L * LIKES, mongoTemplate.count(new Query(), NotificationEvent.class));
+    }
+
+    @Test
+    void aUserCountsOnceWhetherTheirLikeIsStoredPendingOrRepeated() {
+        Post post = seedPost();
+        likeOperations.addLike(Post.class, post.getId(), "early");
+        HotLikeBuffer buffer = buffer(0);
+
+        assertFalse(buffer.addLike(Post.class, ContentType.POST, post.getId(), "early").isChanged());
+        assertTrue(buffer.addLike(Post.class, ContentType.POST, post.getId(), "a").isChanged());
+        assertFalse(buffer.addLike(Post.class, ContentType.POST, post.getId(), "a").isChanged());
+        assertEquals(3, buffer.addLike(Post.class, ContentType.POST, post.getId(), "owner").getLikeCount());
+        buffer.flush();
+        assertFalse(buffer.addLike(Post.class, ContentType.POST, post.getId(), "a").isChanged());
+
+        //liked directly through another node while this one has it buffered
+        buffer.addLike(Post.class, ContentType.POST, post.getId(), "elsewhere");
+        likeOperations.addLike(Post.class, post.getId(), "elsewhere");
+        buffer.flush();
+
+        Post stored = mongoTemplate.findById(post.getId(), Post.class);
+        assertEquals(4, stored.getLikeCount());
+        assertEquals(Set.of("early", "a", "owner", "elsewhere"),
+                stored.getLikes().stream().map(Like::getUserId).collect(Collectors.toSet()));
+        //the flush that found "elsewhere" already stored did not notify for it again; owners are never notified
+        assertEquals(Set.of("a"), mongoTemplate.find(new Query(), NotificationEvent.class).stream()
+                .map(NotificationEvent::getActorId).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void unlikesTakeBackPendingLikesAndRemoveStoredOnes() {
+        Post post = seedPost();
+        HotLikeBuffer buffer = buffer(0);
+        buffer.addLike(Post.class, ContentType.POST, post.getId(), "a");
+        buffer.addLike(Post.class, ContentType.POST, post.getId(), "b");
+        buffer.flush();
+        buffer.addLike(Post.class, ContentType.POST, post.getId(), "c");
+
+        assertTrue(buffer.removeLike(post.getId(), "c").isChanged());
+        assertTrue(buffer.removeLike(post.getId(), "a").isChanged());
+        buffer.flush();
+
+        Post stored = mongoTemplate.findById(post.getId(), Post.class);
+        assertEquals(1, stored.getLikeCount());
+        assertEquals("b", stored.getLikes().get(0).getUserId());
+    }
+
+    @Test
+    void quietDocumentsGoBackToDirectWrites() {
+        Post post = seedPost();
+        HotLikeBuffer buffer = buffer(0);
+        buffer.addLike(Post.class, ContentType.POST, post.getId(), "a");
+        assertEquals(1, buffer.hotDocuments());
+        for (int i = 0; i < 4; i++) {
+            buffer.flush();
+        }
+        assertEquals(0, buffer.hotDocuments());
+        assertEquals(1, mongoTemplate.findById(post.getId(), Post.class).getLikeCount());
+    }
+
+    private HotLikeBuffer buffer(int threshold) {
+        return new HotLikeBuffer(mongoTemplate, likeOperations, notificationService, push(),
+                new SimpleMeterRegistry(), true, threshold, 3);
+    }
+
+    private static PushService push() {
+        return new PushService(mongoTemplate, new ObjectMapper(), new SimpleMeterRegistry(), 64, 200, false, 64);
+    }
+
+    private Post seedPost() {
+        Post post = new Post();
+        post.setUserId("owner");
+        post.setUserName("Owner");
+        post.setDescription("viral post");
+        post.setCreatedAt(new Date());
+        post.setLikes(new ArrayList<>());
+        post.setComments(new ArrayList<>());
+        return mongoTemplate.insert(post);
+    }
+
+    private long runInParallel(IntConsumer like) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < LIKES; i++) {
+            int index = i;
+            executor.submit(() -> {
+                start.await();
+                like.accept(index);
+                return null;
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES));
+        return System.nanoTime() - begin;
+    }
+
+    private void report(String mode, long elapsedNanos, Post post) {
+        Post stored = mongoTemplate.findById(post.getId(), Post.class);
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("%-18s %d likes sent, %d stored, %.0f likes/sec%n",
+                mode, LIKES, stored.getLikeCount(), LIKES / seconds);
+        assertEquals(LIKES, stored.getLikeCount());
+        assertEquals(LIKES, stored.getLikes().size());
+    }
+}
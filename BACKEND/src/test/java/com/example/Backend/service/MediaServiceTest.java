@@ -0,0 +1,62 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.MediaItem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MediaServiceTest {
+
+    @TempDir
+    Path root;
+
+    private LocalFileMediaStore store;
+    private MediaService mediaService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        store = new LocalFileMediaStore(root.toString());
+        mediaService = new MediaService(store, new ObjectMapper());
+    }
+
+    @Test
+    void onlyPassiveImageAndVideoTypesAreAccepted() throws Exception {
+        assertTrue(mediaService.isSupportedType("image/PNG"));
+        assertTrue(mediaService.isSupportedType("video/mp4; codecs=avc1"));
+        assertFalse(mediaService.isSupportedType("image/svg+xml"));
+        assertFalse(mediaService.isSupportedType("text/html"));
+        assertFalse(mediaService.isSupportedType(null));
+
+        MockMultipartFile svg = new MockMultipartFile("files", "x.svg", "image/svg+xml",
+                "<svg onload=\"alert(1)\"/>".getBytes());
+        assertThrows(IllegalArgumentException.class, () -> mediaService.upload(List.of(svg), "alice"));
+        assertThrows(IllegalArgumentException.class, () -> mediaService.externalizeInline(
+                List.of("data:image/svg+xml;base64,PHN2Zy8+"), "alice"));
+    }
+
+    @Test
+    void onlyTheAuthorsOwnMediaIsDeleted() throws Exception {
+        MediaItem own = upload("alice");
+        MediaItem others = upload("bob");
+
+        mediaService.deleteReferenced(List.of(own.getUrl(), others.getUrl()), "alice");
+
+        assertTrue(store.find(own.getId()).isEmpty());
+        assertEquals("bob", store.find(others.getId()).orElseThrow().getOwnerId());
+    }
+
+    private MediaItem upload(String ownerId) throws Exception {
+        MockMultipartFile png = new MockMultipartFile("files", "a.png", "image/png", new byte[]{(byte) 0x89, 'P'});
+        return mediaService.upload(List.of(png), ownerId).get(0);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.Backend.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NdjsonDocumentsTest {
+
+    @Test
+    void documentsRoundTripWithTheirBsonTypes() throws IOException {
+        Document post = new Document("_id", new ObjectId())
+                .append("userId", "u1")
+                .append("createdAt", new Date(1_700_000_000_123L))
+                .append("likeCount", 3L)
+                .append("views", 5_000_000_000L)
+                .append("commentCount", 2)
+                .append("rating", 4.5)
+                .append("price", Decimal128.parse("19.99"))
+                .append("thumbnail", new Binary(new byte[]{1, 2, 3}))
+                .append("deleted", false)
+                .append("editedAt", null)
+                .append("likes", List.of(new Document("userId", "u2").append("createdAt", new Date(0))))
+                .append("tags", List.of("java", "cooking"));
+
+        List<Document> read = read(write(List.of(post, new Document("_id", "plain"))));
+
+        assertEquals(List.of(post, new Document("_id", "plain")), read);
+        assertEquals(Long.class, read.get(0).get("likeCount").getClass());
+        assertEquals(Integer.class, read.get(0).get("commentCount").getClass());
+    }
+
+    @Test
+    void eachDocumentIsOneLine() throws IOException {
+        String ndjson = write(List.of(new Document("a", 1), new Document("b", List.of(new Document("c", 2)))));
+
+        assertEquals("{\"a\":1}\n{\"b\":[{\"c\":2}]}\n", ndjson);
+    }
+
+    @Test
+    void skipResumesPartWayThroughAFile() throws IOException {
+        List<Document> documents = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            documents.add(new Document("n", i).append("nested", new Document("list", List.of(i, i))));
+        }
+        try (NdjsonDocuments.Reader reader = reader(write(documents))) {
+            assertEquals(7, reader.skip(7));
+            assertEquals(7, reader.next().getInteger("n"));
+            assertEquals(2, reader.skip(5));
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void readsCanonicalExtendedJsonAndReportsBadInput() throws IOException {
+        Document read = read("{\"at\":{\"$date\":{\"$numberLong\":\"1000\"}},\"n\":{\"$numberInt\":\"7\"}}\n").get(0);
+
+        assertEquals(new Date(1000), read.get("at"));
+        assertEquals(7, read.get("n"));
+        assertThrows(JsonParseException.class, () -> read("{\"_id\":{\"$oid\":\"not-an-id\"}}"));
+        assertThrows(JsonParseException.class, () -> read("[1, 2]"));
+    }
+
+    private static String write(List<Document> documents) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (NdjsonDocuments.Writer writer = NdjsonDocuments.writer(out)) {
+            for (Document document : documents) {
+                writer.write(document);
+            }
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static NdjsonDocuments.Reader reader(String ndjson) throws IOException {
+        return NdjsonDocuments.reader(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static List<Document> read(String ndjson) throws IOException {
+        List<Document> documents = new ArrayList<>();
+        try (NdjsonDocuments.Reader reader = reader(ndjson)) {
+            Document document;
+            while ((document = reader.next()) != null) {
+                documents.add(document);
+            }
+        }
+        return documents;
+    }
+}
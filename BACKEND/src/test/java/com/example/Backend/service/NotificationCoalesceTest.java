@@ -0,0 +1,95 @@
+package com.example.Backend.service;
+
+import com.example.Backend.enums.ContentType;
+import com.example.Backend.enums.NotificationType;
+import com.example.Backend.model.Notification;
+import com.example.Backend.model.NotificationEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class NotificationCoalesceTest {
+
+    private long clock = 1_000_000;
+
+    @Test
+    void burstOfLikesOnOneItemBecomesOneNotificationNamingTheLatestLikers() {
+        List<NotificationEvent> events = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            events.add(like("post-1", "owner", "liker-" + i));
+        }
+        Notification group = single(NotificationService.coalesce(events, Map.of("liker-49", "Zoe")));
+
+        assertEquals("post-1:owner", group.getGroupKey());
+        assertEquals(50, group.getActorCount());
+        assertEquals(List.of("liker-49", "liker-48", "liker-47"), actorIds(group));
+        assertEquals("Zoe", group.getActors().get(0).getName());
+        assertEquals(events.get(49).getCreatedAt(), group.getCreatedAt());
+    }
+
+    @Test
+    void aLikerCountsOnceAndMovesToTheFrontOnTheirLatestLike() {
+        List<NotificationEvent> events = List.of(
+                like("post-1", "owner", "a"), like("post-1", "owner", "b"), like("post-1", "owner", "a"));
+        Notification group = single(NotificationService.coalesce(events, Map.of()));
+
+        assertEquals(2, group.getActorCount());
+        assertEquals(List.of("a", "b"), actorIds(group));
+    }
+
+    @Test
+    void commentsAreNeverFoldedAndKeepTheirEventId() {
+        List<NotificationEvent> events = List.of(
+                comment("post-1", "owner", "a", "first"), like("post-1", "owner", "b"),
+                comment("post-1", "owner", "a", "second"), like("plan-1", "owner", "b"));
+        List<Notification> notifications = NotificationService.coalesce(events, Map.of());
+
+        assertEquals(4, notifications.size());
+        Notification first = notifications.get(0);
+        assertEquals(events.get(0).getId(), first.getId());
+        assertNull(first.getGroupKey());
+        assertEquals("first", first.getExcerpt());
+        assertEquals("post-1:owner", notifications.get(1).getGroupKey());
+        assertEquals("second", notifications.get(2).getExcerpt());
+        assertEquals("plan-1:owner", notifications.get(3).getGroupKey());
+    }
+
+    private NotificationEvent like(String itemId, String recipientId, String actorId) {
+        return event(NotificationType.LIKE, itemId, recipientId, actorId);
+    }
+
+    private NotificationEvent comment(String itemId, String recipientId, String actorId, String excerpt) {
+        NotificationEvent event = event(NotificationType.COMMENT, itemId, recipientId, actorId);
+        event.setActorName(actorId.toUpperCase());
+        event.setExcerpt(excerpt);
+        return event;
+    }
+
+    private NotificationEvent event(NotificationType type, String itemId, String recipientId, String actorId) {
+        NotificationEvent event = new NotificationEvent();
+        event.setId("event-" + clock);
+        event.setType(type);
+        event.setContentType(ContentType.POST);
+        event.setItemId(itemId);
+        event.setRecipientId(recipientId);
+        event.setActorId(actorId);
+        event.setCreatedAt(new Date(clock++));
+        return event;
+    }
+
+    private static Notification single(List<Notification> notifications) {
+        assertEquals(1, notifications.size());
+        return notifications.get(0);
+    }
+
+    private static List<String> actorIds(Notification notification) {
+        return notification.getActors().stream().map(Notification.Actor::getUserId).collect(Collectors.toList());
+    }
+}
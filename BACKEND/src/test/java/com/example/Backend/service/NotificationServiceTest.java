@@ -0,0 +1,152 @@
+package com.example.Backend.service;
+
+import com.example.Backend.MongoContainerTest;
+import com.example.Backend.enums.ContentType;
+import com.example.Backend.model.Comment;
+import com.example.Backend.model.Notification;
+import com.example.Backend.model.NotificationEvent;
+import com.example.Backend.model.Timeline;
+import com.example.Backend.model.TimelineEvent;
+import com.example.Backend.model.User;
+import com.example.Backend.repository.FeedPageRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//the testcontainers mongo runs as a single-node replica set, so outbox transactions work as in production
+class NotificationServiceTest extends MongoContainerTest {
+
+    private static MongoTemplate mongoTemplate;
+    private static MongoTransactionManager transactionManager;
+
+    private NotificationService notifications;
+
+    @BeforeAll
+    static void connect() {
+        SimpleMongoClientDatabaseFactory factory = new SimpleMongoClientDatabaseFactory(client(), "notifications");
+        mongoTemplate = new MongoTemplate(factory);
+        transactionManager = new MongoTransactionManager(factory);
+        new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(Notification.class)
+                .forEach(index -> mongoTemplate.indexOps(Notification.class).ensureIndex(index));
+    }
+
+    @BeforeEach
+    void reset() {
+        mongoTemplate.remove(new Query(), Notification.class);
+        mongoTemplate.remove(new Query(), NotificationEvent.class);
+        notifications = new NotificationService(mongoTemplate, new FeedPageRepository(mongoTemplate),
+                new PushService(mongoTemplate, new ObjectMapper(), new SimpleMeterRegistry(), 64, 200, false, 64),
+                transactionManager, 500, 30_000);
+    }
+
+    @Test
+    void likesAcrossBatchesFoldIntoOneUnreadNotificationUntilItIsRead() {
+        for (int i = 0; i < 5; i++) {
+            like("liker-" + i);
+        }
+        notifications.dispatch();
+        like("liker-5");
+        notifications.dispatch();
+
+        List<Notification> page = notifications.getNotifications("owner", null, null).getItems();
+        assertEquals(1, page.size());
+        assertEquals(6, page.get(0).getActorCount());
+        assertEquals("liker-5", page.get(0).getActors().get(0).getUserId());
+        assertEquals(NotificationService.SHOWN_ACTORS, page.get(0).getActors().size());
+        assertEquals(1, notifications.countUnread("owner"));
+        assertEquals(0, mongoTemplate.count(new Query(), NotificationEvent.class));
+
+        assertTrue(notifications.markRead("owner", page.get(0).getId()));
+        like("liker-6");
+        notifications.dispatch();
+        assertEquals(2, notifications.getNotifications("owner", null, null).getItems().size());
+        assertEquals(1, notifications.countUnread("owner"));
+    }
+
+    @Test
+    void eventsRolledBackWithTheirWriteAreNeverDelivered() {
+        assertThrows(IllegalStateException.class, () -> notifications.withOutbox(() -> {
+            notifications.createCommentNotification(ContentType.POST, "post-1", "owner", comment("hello"));
+            throw new IllegalStateException("write failed");
+        }));
+        notifications.withOutbox(() -> {
+            notifications.createCommentNotification(ContentType.POST, "post-1", "owner", comment("kept"));
+            return null;
+        });
+        notifications.dispatch();
+
+        List<Notification> page = notifications.getNotifications("owner", null, null).getItems();
+        assertEquals(1, page.size());
+        assertEquals("kept", page.get(0).getExcerpt());
+        assertEquals(1, notifications.markAllRead("owner"));
+        assertEquals(0, notifications.countUnread("owner"));
+    }
+
+    @Test
+    void publishedItemsReachFollowersWhenTheTimelineDispatcherRuns() {
+        mongoTemplate.remove(new Query(), Timeline.class);
+        mongoTemplate.remove(new Query(), TimelineEvent.class);
+        FollowService follows = new FollowService(mongoTemplate, new FeedPageRepository(mongoTemplate), 10000);
+        TimelineService timelines = new TimelineService(mongoTemplate, follows,
+                new PushService(mongoTemplate, new ObjectMapper(), new SimpleMeterRegistry(), 64, 200, false, 64),
+                800, 10000, 100, 30_000);
+        User author = mongoTemplate.insert(new User());
+        User follower = mongoTemplate.insert(new User());
+        follows.follow(follower.getId(), author.getId());
+
+        assertThrows(IllegalStateException.class,
+                () -> timelines.publish(ContentType.POST, "post-1", author.getId(), new Date()));
+        notifications.withOutbox(() -> {
+            timelines.publish(ContentType.POST, "post-1", author.getId(), new Date());
+            return null;
+        });
+        //the write path only queued it
+        assertNull(mongoTemplate.findById(follower.getId(), Timeline.class));
+
+        timelines.dispatch();
+        assertEquals("post-1", mongoTemplate.findById(follower.getId(), Timeline.class).getEntries().get(0).getItemId());
+        assertEquals(1, mongoTemplate.findById(author.getId(), Timeline.class).getEntries().size());
+        assertEquals(0, mongoTemplate.count(new Query(), TimelineEvent.class));
+    }
+
+    @Test
+    void recordingOutsideATransactionIsRefused() {
+        assertThrows(IllegalStateException.class,
+                () -> notifications.createLikeNotification(ContentType.POST, "post-1", "owner", "liker"));
+    }
+
+    private void like(String likerId) {
+        User liker = new User();
+        liker.setId(likerId);
+        liker.setName(likerId.toUpperCase());
+        mongoTemplate.save(liker);
+        notifications.withOutbox(() -> {
+            notifications.createLikeNotification(ContentType.POST, "post-1", "owner", likerId);
+            return null;
+        });
+    }
+
+    private static Comment comment(String content) {
+        Comment comment = new Comment();
+        comment.setUserId("commenter");
+        comment.setUserName("Commenter");
+        comment.setContent(content);
+        return comment;
+    }
+}
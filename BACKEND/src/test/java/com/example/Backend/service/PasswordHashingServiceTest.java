@@ -0,0 +1,113 @@
+package com.example.Backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingServiceTest {
+
+    //low work factors keep the test fast; only their order matters
+    private static final BCryptPasswordEncoder LEGACY = new BCryptPasswordEncoder(4);
+
+    @Test
+    void legacyHashesStillMatchAndAreUpgradedToTheConfiguredStrength() throws Exception {
+        PasswordHashingService service = service(delegating("bcrypt", 5), 2, 8);
+        String legacy = LEGACY.encode("secret");
+
+        assertTrue(service.matches("secret", legacy).get());
+        assertFalse(service.matches("wrong", legacy).get());
+        assertTrue(service.needsUpgrade(legacy));
+
+        String upgraded = service.upgrade("secret").get();
+        assertTrue(upgraded.startsWith("{bcrypt}$2a$05$"));
+        assertTrue(service.matches("secret", upgraded).get());
+        assertFalse(service.needsUpgrade(upgraded));
+    }
+
+    @Test
+    void bcryptHashesAreMovedToArgon2WhenItIsConfigured() throws Exception {
+        PasswordHashingService service = service(delegating("argon2", 4), 2, 8);
+        String bcrypt = delegating("bcrypt", 4).encode("secret");
+
+        assertTrue(service.matches("secret", bcrypt).get());
+        assertTrue(service.needsUpgrade(bcrypt));
+
+        String upgraded = service.upgrade("secret").get();
+        assertTrue(upgraded.startsWith("{argon2}"));
+        assertTrue(service.matches("secret", upgraded).get());
+        assertFalse(service.needsUpgrade(upgraded));
+    }
+
+    @Test
+    void fullQueueShedsWorkInsteadOfQueueingIt() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHashingService service = new PasswordHashingService(blockingEncoder(release), registry, 1, 2);
+
+        CompletableFuture<String> running = service.encode("a");
+        CompletableFuture<String> queued1 = service.encode("b");
+        CompletableFuture<String> queued2 = service.encode("c");
+        CompletableFuture<String> shed = service.encode("d");
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> shed.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+        assertEquals(1, registry.get("password.hash.rejected").counter().count());
+        assertEquals(2, registry.get("executor.queued").tag("name", "passwordHashing").gauge().value());
+        //optional upgrades are not even attempted while logins are waiting
+        assertNull(service.upgrade("e").get());
+
+        release.countDown();
+        CompletableFuture.allOf(running, queued1, queued2).get(5, TimeUnit.SECONDS);
+        assertEquals(3, registry.get("password.hash").tag("operation", "encode").timer().count());
+    }
+
+    private static PasswordHashingService service(PasswordEncoder encoder, int threads, int queueCapacity) {
+        return new PasswordHashingService(encoder, new SimpleMeterRegistry(), threads, queueCapacity);
+    }
+
+    //mirrors SecurityConfig.passwordEncoder
+    private static PasswordEncoder delegating(String algorithm, int bcryptStrength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(algorithm, Map.of(
+                "bcrypt", bcrypt,
+                "argon2", new Argon2PasswordEncoder(16, 32, 1, 1 << 10, 1)));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    private static PasswordEncoder blockingEncoder(CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.Backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PushHubTest {
+
+    @Test
+    void eventsReachOnlyTheConnectionsWatchingTheItemOrOwnedByTheUser() {
+        PushHub hub = new PushHub(16, 10);
+        Client alice = new Client(hub.connect("alice", List.of("post-1", "post-2")), Long.MAX_VALUE);
+        Client bob = new Client(hub.connect("bob", List.of("post-2")), Long.MAX_VALUE);
+
+        assertEquals(1, hub.toItem("post-1", sse("likes-1")));
+        assertEquals(2, hub.toItem("post-2", sse("likes-2")));
+        assertEquals(1, hub.toUser("bob", sse("notification")));
+        assertEquals(0, hub.toItem("post-3", sse("nobody")));
+
+        assertEquals(List.of("likes-1", "likes-2"), alice.received);
+        assertEquals(List.of("likes-2", "notification"), bob.received);
+    }
+
+    @Test
+    void watchReplacesItemsAndOnlyTheOwnerMayChangeThem() {
+        PushHub hub = new PushHub(16, 2);
+        PushHub.Connection connection = hub.connect("alice", List.of("post-1"));
+        Client alice = new Client(connection, Long.MAX_VALUE);
+
+        assertFalse(hub.watch(connection.getId(), "mallory", List.of("post-9")));
+        assertTrue(hub.watch(connection.getId(), "alice", List.of("post-2", "post-3", "post-4")));
+        hub.toItem("post-1", sse("old"));
+        hub.toItem("post-2", sse("new"));
+        hub.toItem("post-4", sse("over the limit"));
+
+        assertEquals(List.of("new"), alice.received);
+    }
+
+    @Test
+    void slowConsumerIsCutOffWithoutHoldingUpTheOthers() {
+        PushHub hub = new PushHub(16, 10);
+        Client slow = new Client(hub.connect("slow", Set.of("post-1")), 0);
+        Client fast = new Client(hub.connect("fast", Set.of("post-1")), Long.MAX_VALUE);
+
+        for (int i = 0; i < 100; i++) {
+            hub.toItem("post-1", sse("event-" + i));
+        }
+
+        assertEquals(100, fast.received.size());
+        assertEquals(1, hub.dropped());
+        assertEquals(1, hub.size());
+        //what was buffered is still delivered, then the stream ends and the client reconnects
+        slow.request(Long.MAX_VALUE);
+        assertEquals(16, slow.received.size());
+        assertTrue(slow.completed);
+    }
+
+    @Test
+    void cancelledConnectionsLeaveTheRegistry() {
+        PushHub hub = new PushHub(4, 10);
+        Client client = new Client(hub.connect("alice", Set.of("post-1")), Long.MAX_VALUE);
+        client.cancel();
+
+        assertEquals(0, hub.size());
+        assertEquals(0, hub.toItem("post-1", sse("after")));
+        assertEquals(0, hub.toUser("alice", sse("after")));
+    }
+
+    private static ServerSentEvent<String> sse(String data) {
+        return ServerSentEvent.builder(data).build();
+    }
+
+    private static class Client extends BaseSubscriber<ServerSentEvent<String>> {
+        private final List<String> received = new ArrayList<>();
+        private final long initialDemand;
+        private boolean completed;
+
+        Client(PushHub.Connection connection, long initialDemand) {
+            this.initialDemand = initialDemand;
+            connection.events().subscribe(this);
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            if (initialDemand > 0) {
+                subscription.request(initialDemand);
+            }
+        }
+
+        @Override
+        protected void hookOnNext(ServerSentEvent<String> event) {
+            received.add(event.data());
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            completed = true;
+        }
+    }
+}
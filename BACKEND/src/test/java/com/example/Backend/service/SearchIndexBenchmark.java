@@ -0,0 +1,82 @@
+package com.example.Backend.service;
+
+import com.example.Backend.enums.ContentType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+//query latency over a 1M-document index with a zipf-distributed vocabulary, like real text: a few words are in a large
+//share of documents and most are rare;
+//run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.Backend.service.SearchIndexBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx3g"})
+public class SearchIndexBenchmark {
+
+    private static final int DOCUMENTS = 1_000_000;
+    private static final int VOCABULARY = 50_000;
+    private static final int WORDS_PER_DOCUMENT = 20;
+
+    private SearchIndex index;
+
+    @Setup
+    public void setup() {
+        double[] cumulative = new double[VOCABULARY];
+        double sum = 0;
+        for (int rank = 0; rank < VOCABULARY; rank++) {
+            sum += 1.0 / (rank + 1);
+            cumulative[rank] = sum;
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        ContentType[] types = ContentType.values();
+        index = new SearchIndex();
+        StringBuilder text = new StringBuilder();
+        for (int doc = 0; doc < DOCUMENTS; doc++) {
+            text.setLength(0);
+            for (int w = 0; w < WORDS_PER_DOCUMENT; w++) {
+                int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+                text.append("w").append(rank < 0 ? -rank - 1 : rank).append(' ');
+            }
+            index.put("doc-" + doc, types[doc % types.length], doc, null, text.toString());
+        }
+    }
+
+    //w0 is in roughly a third of all documents
+    @Benchmark
+    public Object commonTerm() {
+        return index.search("w0", null, 0, 20);
+    }
+
+    @Benchmark
+    public Object mediumTerms() {
+        return index.search("w50 w120", null, 0, 20);
+    }
+
+    @Benchmark
+    public Object rareTerms() {
+        return index.search("w20000 w31000 w45000", null, 0, 20);
+    }
+
+    @Benchmark
+    public Object mediumTermsOnePlanType() {
+        return index.search("w50 w120", EnumSet.of(ContentType.LEARNING_PLAN), 0, 20);
+    }
+
+    @Benchmark
+    public Object mediumTermsFifthPage() {
+        return index.search("w50 w120", null, 80, 20);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SearchIndexBenchmark.class.getSimpleName()).build()).run();
+    }
+}
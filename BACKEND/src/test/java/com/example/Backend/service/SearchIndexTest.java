@@ -0,0 +1,101 @@
+package com.example.Backend.service;
+
+import com.example.Backend.enums.ContentType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchIndexTest {
+
+    @Test
+    void ranksTitleMatchesAndRareTermsHigher() {
+        SearchIndex index = new SearchIndex();
+        index.put("plan-title", ContentType.LEARNING_PLAN, 1, "Kubernetes in a month", "deploying services");
+        index.put("plan-body", ContentType.LEARNING_PLAN, 2, "Cloud month", "a little kubernetes and docker");
+        index.put("post-docker", ContentType.POST, 3, null, "docker docker compose tips");
+        for (int i = 0; i < 20; i++) {
+            index.put("filler-" + i, ContentType.POST, 10 + i, null, "docker notes from today " + i);
+        }
+
+        assertEquals(List.of("plan-title", "plan-body"), ids(index.search("kubernetes", null, 0, 10)));
+        //kubernetes is rare, docker is everywhere: the kubernetes documents lead
+        List<String> mixed = ids(index.search("Kubernetes DOCKER", null, 0, 3));
+        assertTrue(mixed.containsAll(List.of("plan-title", "plan-body")), mixed.toString());
+    }
+
+    @Test
+    void filtersByTypeAndPagesThroughAllMatches() {
+        SearchIndex index = new SearchIndex();
+        for (int i = 0; i < 30; i++) {
+            index.put("post-" + i, ContentType.POST, i, null, "spring boot " + "tip ".repeat(i % 5 + 1));
+            index.put("progress-" + i, ContentType.LEARNING_PROGRESS, i, "spring boot project", "built something");
+        }
+
+        SearchIndex.Hits progressOnly = index.search("spring", EnumSet.of(ContentType.LEARNING_PROGRESS), 0, 100);
+        assertEquals(30, progressOnly.getTotal());
+        assertTrue(progressOnly.getHits().stream().allMatch(hit -> hit.getType() == ContentType.LEARNING_PROGRESS));
+
+        List<String> all = ids(index.search("spring boot", null, 0, 60));
+        assertEquals(60, all.size());
+        List<String> paged = new ArrayList<>();
+        for (int offset = 0; offset < 60; offset += 7) {
+            SearchIndex.Hits page = index.search("spring boot", null, offset, 7);
+            assertEquals(60, page.getTotal());
+            paged.addAll(ids(page));
+        }
+        assertEquals(all, paged);
+    }
+
+    @Test
+    void updatesReplaceTermsAndDeletesDisappear() {
+        SearchIndex index = new SearchIndex();
+        index.put("post-1", ContentType.POST, 1, null, "learning rust this week");
+        index.put("post-2", ContentType.POST, 2, null, "learning go this week");
+
+        index.put("post-1", ContentType.POST, 1, null, "switched to python");
+        assertEquals(List.of(), ids(index.search("rust", null, 0, 10)));
+        assertEquals(List.of("post-1"), ids(index.search("python", null, 0, 10)));
+
+        index.remove("post-2");
+        assertEquals(List.of(), ids(index.search("go", null, 0, 10)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void compactionKeepsResultsIntact() {
+        SearchIndex index = new SearchIndex();
+        for (int i = 0; i < 5000; i++) {
+            index.put("post-" + i, ContentType.POST, i, null, "topic" + (i % 10) + " shared words");
+        }
+        //enough deletes and rewrites to trigger several compactions
+        for (int i = 0; i < 5000; i += 2) {
+            index.remove("post-" + i);
+        }
+        for (int i = 1; i < 5000; i += 4) {
+            index.put("post-" + i, ContentType.POST, i, null, "rewritten topic" + (i % 10));
+        }
+
+        assertEquals(2500, index.size());
+        assertEquals(2500, index.search("topic1", null, 0, 10).getTotal() * 5);
+        assertEquals(1250, index.search("shared", null, 0, 10).getTotal());
+        assertEquals(1250, index.search("rewritten", null, 0, 10).getTotal());
+        assertTrue(ids(index.search("topic3", null, 0, 1000)).stream()
+                .allMatch(id -> Integer.parseInt(id.substring(5)) % 10 == 3));
+    }
+
+    @Test
+    void tokenizerDropsStopWordsPunctuationAndCase() {
+        assertEquals(List.of("learning", "react", "hooks", "2024"),
+                SearchIndex.tokens("Learning the React-hooks, in 2024!"));
+    }
+
+    private static List<String> ids(SearchIndex.Hits hits) {
+        return hits.getHits().stream().map(SearchIndex.Hit::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.Backend.service;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SkillIndexTest {
+
+    @Test
+    void suggestsNormalizedSkillsByPopularity() {
+        SkillIndex index = new SkillIndex();
+        index.put("u1", List.of("React", "Java"));
+        index.put("u2", List.of(" react ", "JavaScript"));
+        index.put("u3", List.of("REACT", "javascript", "Machine   Learning"));
+        index.put("u4", List.of("Java", "java"));
+
+        assertEquals(List.of("react:3"), names(index.suggest("Re", 10)));
+        assertEquals(List.of("java:2", "javascript:2"), names(index.suggest("jav", 10)));
+        assertEquals(List.of("java:2"), names(index.suggest("jav", 1)));
+        assertEquals(List.of("machine learning:1"), names(index.suggest("machine  l", 10)));
+        assertEquals(List.of(), names(index.suggest("python", 10)));
+
+        //cached completions follow later changes
+        index.put("u1", List.of("JavaScript"));
+        index.put("u4", List.of());
+        assertEquals(List.of("javascript:3"), names(index.suggest("jav", 10)));
+    }
+
+    @Test
+    void findsUsersWithEverySkillAcrossPages() {
+        SkillIndex index = new SkillIndex();
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            String id = i % 7 == 0 ? "legacy-" + i : new ObjectId().toHexString();
+            List<String> skills = new ArrayList<>();
+            if (i % 2 == 0) {
+                skills.add("Docker");
+            }
+            if (i % 3 == 0) {
+                skills.add("Kubernetes");
+            }
+            index.put(id, skills);
+            if (i % 6 == 0) {
+                expected.add(id);
+            }
+        }
+
+        List<String> found = new ArrayList<>();
+        String after = null;
+        do {
+            SkillIndex.Page page = index.usersWithAll(List.of("kubernetes", "docker"), after, 25);
+            assertEquals(expected.size(), page.getTotal());
+            found.addAll(page.getUserIds());
+            after = page.getLast();
+        } while (after != null);
+        //pages come back in id order, so a cursor from any node or rebuild continues where it left off
+        assertEquals(expected.stream().sorted().toList(), found);
+
+        assertEquals(0, index.usersWithAll(List.of("docker", "cobol"), null, 25).getTotal());
+    }
+
+    @Test
+    void changedSkillsLeaveTheirOldBitmaps() {
+        SkillIndex index = new SkillIndex();
+        String id = new ObjectId().toHexString();
+        index.put(id, List.of("Go", "Rust"));
+        index.put(id, List.of("Rust", "Zig"));
+
+        assertEquals(0, index.usersWithAll(List.of("go"), null, 10).getTotal());
+        assertEquals(List.of(id), index.usersWithAll(List.of("rust", "zig"), null, 10).getUserIds());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void millionsOfUsersFitInASmallHeap() {
+        int users = 2_000_000;
+        int vocabulary = 5_000;
+        double[] cumulative = new double[vocabulary];
+        double sum = 0;
+        for (int rank = 0; rank < vocabulary; rank++) {
+            sum += 1.0 / (rank + 1);
+            cumulative[rank] = sum;
+        }
+        SplittableRandom random = new SplittableRandom(7);
+        List<String> skills = new ArrayList<>();
+
+        long before = usedAfterGc();
+        SkillIndex index = new SkillIndex();
+        for (int i = 0; i < users; i++) {
+            skills.clear();
+            for (int s = 0; s < 3; s++) {
+                int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+                skills.add("skill " + (rank < 0 ? -rank - 1 : rank));
+            }
+            index.put(new ObjectId().toHexString(), skills);
+        }
+        index.compress();
+        long bytesPerUser = (usedAfterGc() - before) / users;
+
+        long started = System.nanoTime();
+        SkillIndex.Page page = index.usersWithAll(List.of("skill 0", "skill 1"), null, 20);
+        long intersectMicros = (System.nanoTime() - started) / 1000;
+
+        System.out.printf("%d users, %d skills: %d bytes per user (bitmaps %d KB), skill 0 AND skill 1: %d users in %d us%n",
+                users, index.skills(), bytesPerUser, index.bitmapBytes() >> 10, page.getTotal(), intersectMicros);
+        assertTrue(page.getTotal() > 0);
+        assertTrue(bytesPerUser < 100, "bytes per user: " + bytesPerUser);
+    }
+
+    private static List<String> names(List<SkillIndex.Suggestion> suggestions) {
+        return suggestions.stream().map(s -> s.getName() + ":" + s.getUsers()).collect(Collectors.toList());
+    }
+
+    private static long usedAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.Backend.service;
+
+import com.example.Backend.MongoContainerTest;
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.dto.FeedItem;
+import com.example.Backend.enums.ContentType;
+import com.example.Backend.model.LearningPlan;
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Post;
+import com.example.Backend.model.Timeline;
+import com.example.Backend.model.User;
+import com.example.Backend.repository.FeedPageRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+//home feed from precomputed timelines vs. the naive $in-over-followees query on read
+@Tag("benchmark")
+class TimelineBenchmarkTest extends MongoContainerTest {
+
+    private static final int AUTHORS = 300;
+    private static final int POSTS_PER_AUTHOR = 20;
+    private static final int PAGE_SIZE = 20;
+    private static final int READS = 200;
+
+    private static MongoTemplate mongoTemplate;
+    private static FollowService followService;
+    private static TimelineService timelineService;
+    private static User reader;
+
+    @BeforeAll
+    static void seed() {
+        mongoTemplate = new MongoTemplate(client(), "timeline_benchmark");
+        mongoTemplate.indexOps(Post.class).ensureIndex(new Index()
+                .on("userId", Sort.Direction.ASC).on("createdAt", Sort.Direction.DESC).on("_id", Sort.Direction.DESC));
+        followService = new FollowService(mongoTemplate, new FeedPageRepository(mongoTemplate), 10000);
+        timelineService = new TimelineService(mongoTemplate, followService,
+                new PushService(mongoTemplate, new ObjectMapper(), new SimpleMeterRegistry(), 64, 200, false, 64),
+                800, 10000, 100, 30000);
+
+        reader = new User();
+        reader.setName("reader");
+        reader.setEmail("reader@example.com");
+        reader = mongoTemplate.insert(reader);
+
+        long now = System.currentTimeMillis();
+        for (int a = 0; a < AUTHORS; a++) {
+            User author = new User();
+            author.setName("author-" + a);
+            author.setEmail("author-" + a + "@example.com");
+            author = mongoTemplate.insert(author);
+            followService.follow(reader.getId(), author.getId());
+
+            for (int p = 0; p < POSTS_PER_AUTHOR; p++) {
+                Post post = new Post();
+                post.setUserId(author.getId());
+                post.setDescription("post " + p + " by " + a);
+                post.setCreatedAt(new Date(now - (long) (p * AUTHORS + a) * 1000));
+                post = mongoTemplate.insert(post);
+                timelineService.backfill(ContentType.POST, post.getId(), author.getId(), post.getCreatedAt());
+            }
+        }
+    }
+
+    @Test
+    void timelineReadMatchesNaiveReadAndReportsLatency() {
+        List<String> timelineIds = timelineService.getFeed(reader.getId(), null, PAGE_SIZE).getItems().stream()
+                .map(FeedItem::getId).collect(Collectors.toList());
+        List<String> naiveIds = naiveFeed().stream().map(Post::getId).collect(Collectors.toList());
+        assertEquals(naiveIds, timelineIds);
+
+        long timelineNanos = time(() -> {
+            CursorPage<FeedItem> page = timelineService.getFeed(reader.getId(), null, PAGE_SIZE);
+            assertEquals(PAGE_SIZE, page.getItems().size());
+        });
+        long naiveNanos = time(() -> assertEquals(PAGE_SIZE, naiveFeed().size()));
+
+        System.out.printf("home feed, %d followees, %d items: precomputed %.2f ms/read, fan-out on read %.2f ms/read%n",
+                AUTHORS, AUTHORS * POSTS_PER_AUTHOR, timelineNanos / 1e6 / READS, naiveNanos / 1e6 / READS);
+        System.out.printf("timeline documents: %d%n", mongoTemplate.count(new Query(), Timeline.class));
+    }
+
+    //what a feed without timelines has to do: load the followee list, then $in over every content collection
+    private List<Post> naiveFeed() {
+        Query query = new Query(Criteria.where("userId").in(followService.followingIds(reader.getId())))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt", "id")).limit(PAGE_SIZE);
+        List<Post> posts = new ArrayList<>(mongoTemplate.find(query, Post.class));
+        mongoTemplate.find(Query.of(query), LearningPlan.class);
+        mongoTemplate.find(Query.of(query), LearningProgress.class);
+        posts.sort(Comparator.comparing(Post::getCreatedAt).reversed());
+        return posts.subList(0, Math.min(PAGE_SIZE, posts.size()));
+    }
+
+    private long time(Runnable read) {
+        for (int i = 0; i < 20; i++) {
+            read.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < READS; i++) {
+            read.run();
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.Backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenDenyListTest {
+
+    @Test
+    void revokedIdsAreFoundAndOthersAreNot() {
+        TokenDenyList denyList = new TokenDenyList(1_000);
+        long expiresAt = System.currentTimeMillis() + TokenDenyList.BUCKET_MILLIS;
+        List<String> revoked = new ArrayList<>();
+        //over-filling the bloom filter only costs speed, never correctness
+        for (int i = 0; i < 5_000; i++) {
+            String jti = UUID.randomUUID().toString();
+            revoked.add(jti);
+            denyList.add(jti, expiresAt);
+        }
+
+        revoked.forEach(jti -> assertTrue(denyList.contains(jti, expiresAt)));
+        for (int i = 0; i < 100_000; i++) {
+            assertFalse(denyList.contains(UUID.randomUUID().toString(), expiresAt));
+        }
+        assertEquals(5_000, denyList.size());
+    }
+
+    @Test
+    void idIsOnlyDeniedForTheTokenExpiryItWasRevokedWith() {
+        TokenDenyList denyList = new TokenDenyList(100);
+        long expiresAt = System.currentTimeMillis() + 3 * TokenDenyList.BUCKET_MILLIS;
+        denyList.add("jti-1", expiresAt);
+
+        assertTrue(denyList.contains("jti-1", expiresAt));
+        assertFalse(denyList.contains("jti-1", expiresAt + TokenDenyList.BUCKET_MILLIS));
+    }
+
+    @Test
+    void bucketsAreDroppedOnceTheirTokensHaveExpired() {
+        TokenDenyList denyList = new TokenDenyList(100);
+        long now = System.currentTimeMillis();
+        long soon = now + 60_000;
+        long later = now + 5 * TokenDenyList.BUCKET_MILLIS;
+        denyList.add("soon", soon);
+        denyList.add("later", later);
+        denyList.add("already-expired", now - 1);
+
+        denyList.purgeExpired(soon + TokenDenyList.BUCKET_MILLIS);
+
+        assertFalse(denyList.contains("soon", soon));
+        assertTrue(denyList.contains("later", later));
+        assertEquals(1, denyList.size());
+    }
+
+    @Test
+    void bloomFilterStaysNearItsTargetFalsePositiveRate() {
+        TokenDenyList.BloomFilter bloom = new TokenDenyList.BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bloom.put("member-" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (bloom.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+}
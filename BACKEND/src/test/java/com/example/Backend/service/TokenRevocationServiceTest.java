@@ -0,0 +1,80 @@
+package com.example.Backend.service;
+
+import com.example.Backend.MongoContainerTest;
+import com.example.Backend.config.JwtVerifier;
+import com.example.Backend.model.RevokedToken;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//two nodes sharing one database: a logout on one is enforced by the other after its next sync
+class TokenRevocationServiceTest extends MongoContainerTest {
+
+    private static final SecretKey KEY = Keys.hmacShaKeyFor(
+            "revocation-secret-revocation-secret-revocation-0123456789".getBytes(StandardCharsets.UTF_8));
+
+    private static MongoTemplate mongoTemplate;
+
+    @BeforeAll
+    static void connect() {
+        mongoTemplate = new MongoTemplate(client(), "token_revocation");
+        new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(RevokedToken.class)
+                .forEach(index -> mongoTemplate.indexOps(RevokedToken.class).ensureIndex(index));
+    }
+
+    @Test
+    void revocationReachesOtherNodesWithoutPerRequestQueries() {
+        JwtVerifier verifier = new JwtVerifier(KEY, new SimpleMeterRegistry(), 1000);
+        TokenRevocationService nodeA = node(verifier);
+        TokenRevocationService nodeB = node(verifier);
+
+        String token = token();
+        JwtVerifier.VerifiedToken verified = verifier.verify(token);
+        assertFalse(nodeB.isRevoked(verified));
+
+        nodeA.revokeBearer("Bearer " + token);
+        assertTrue(nodeA.isRevoked(verified));
+        assertFalse(nodeB.isRevoked(verified));
+
+        nodeB.sync();
+        assertTrue(nodeB.isRevoked(verified));
+
+        //a node started later loads every revocation that still matters
+        TokenRevocationService nodeC = node(verifier);
+        nodeC.sync();
+        assertTrue(nodeC.isRevoked(verified));
+        assertFalse(nodeC.isRevoked(verifier.verify(token())));
+    }
+
+    @Test
+    void revokedIdsAreRemovedFromTheCollectionWhenTheirTokenExpires() {
+        boolean ttl = mongoTemplate.indexOps(RevokedToken.class).getIndexInfo().stream()
+                .filter(index -> index.getName().equals("expiresAt_ttl_idx"))
+                .map(IndexInfo::getExpireAfter)
+                .anyMatch(expireAfter -> expireAfter.isPresent() && expireAfter.get().isZero());
+        assertTrue(ttl);
+    }
+
+    private TokenRevocationService node(JwtVerifier verifier) {
+        return new TokenRevocationService(mongoTemplate, verifier, new SimpleMeterRegistry(), 1000);
+    }
+
+    private String token() {
+        return Jwts.builder().id(UUID.randomUUID().toString()).subject("user-1")
+                .expiration(new Date(System.currentTimeMillis() + 3_600_000)).signWith(KEY).compact();
+    }
+}
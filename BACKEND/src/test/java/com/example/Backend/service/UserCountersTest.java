@@ -0,0 +1,118 @@
+package com.example.Backend.service;
+
+import com.example.Backend.MongoContainerTest;
+import com.example.Backend.config.CacheConfig;
+import com.example.Backend.dto.ProfileUpdateDTO;
+import com.example.Backend.enums.ContentType;
+import com.example.Backend.enums.RegistrationSource;
+import com.example.Backend.model.User;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+//profile edits and sign-ins racing the $inc counter paths: a user loaded before the counters moved must not write
+//the old values back
+class UserCountersTest extends MongoContainerTest {
+
+    private static MongoTemplate mongoTemplate;
+
+    private ContentCountService contentCountService;
+    private UserService userService;
+
+    @BeforeAll
+    static void connect() {
+        mongoTemplate = new MongoTemplate(client(), "user_counters");
+    }
+
+    @BeforeEach
+    void reset() {
+        mongoTemplate.dropCollection(User.class);
+        contentCountService = new ContentCountService(mongoTemplate);
+        //only what profile updates and sign-ins touch
+        userService = new UserService(null, null, null, null, null, mongoTemplate,
+                Keys.hmacShaKeyFor("test-secret-test-secret-test-secret-0123456789".getBytes(StandardCharsets.UTF_8)),
+                null, null, null, null, new ConcurrentMapCacheManager(CacheConfig.PROFILES), contentCountService,
+                null, null, null);
+    }
+
+    @Test
+    void aProfileEditKeepsCountersThatMovedAfterTheUserWasRead() {
+        User user = seedUser("u@example.com");
+        //what the edit would have loaded before the counters below committed
+        User stale = mongoTemplate.findById(user.getId(), User.class);
+        assertEquals(0, stale.getPostCount());
+
+        contentCountService.adjust(user.getId(), ContentType.POST, 1);
+        contentCountService.adjust(user.getId(), ContentType.POST, 1);
+        contentCountService.adjust(user.getId(), ContentType.LEARNING_PLAN, 1);
+        contentCountService.adjust(user.getId(), ContentType.LEARNING_PROGRESS, 1);
+        follow(user.getId());
+
+        ProfileUpdateDTO edit = new ProfileUpdateDTO();
+        edit.setName(stale.getName() + " renamed");
+        edit.setBio("new bio");
+        assertEquals(200, userService.updateUserProfile(user.getId(), edit).getStatusCode().value());
+
+        User stored = mongoTemplate.findById(user.getId(), User.class);
+        assertEquals("User renamed", stored.getName());
+        assertEquals("new bio", stored.getBio());
+        assertEquals(2, stored.getPostCount());
+        assertEquals(1, stored.getLearningPlanCount());
+        assertEquals(1, stored.getLearningProgressCount());
+        assertEquals(1, stored.getFollowerCount());
+    }
+
+    @Test
+    void signingInWithGoogleKeepsCountersAndCreatesNewUsersAtZero() {
+        User user = seedUser("g@example.com");
+        contentCountService.adjust(user.getId(), ContentType.POST, 1);
+        follow(user.getId());
+
+        assertNotNull(userService.generateJwtTokenForOAuthUser(google("g@example.com", "New Name")));
+        User stored = mongoTemplate.findById(user.getId(), User.class);
+        assertEquals("New Name", stored.getName());
+        assertEquals(1, stored.getPostCount());
+        assertEquals(1, stored.getFollowerCount());
+
+        userService.generateJwtTokenForOAuthUser(google("new@example.com", "Newcomer"));
+        User created = mongoTemplate.findOne(new Query(Criteria.where("email").is("new@example.com")), User.class);
+        assertEquals(RegistrationSource.GOOGLE, created.getRegistrationSource());
+        assertEquals(0, created.getPostCount());
+        assertEquals(0, created.getFollowerCount());
+        assertEquals(List.of(), created.getSkills());
+    }
+
+    private User seedUser(String email) {
+        User user = new User();
+        user.setName("User");
+        user.setEmail(email);
+        return mongoTemplate.insert(user);
+    }
+
+    //what FollowService does for the followee
+    private void follow(String userId) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(userId)), new Update().inc("followerCount", 1),
+                User.class);
+    }
+
+    private static User google(String email, String name) {
+        User user = new User();
+        user.setEmail(email);
+        user.setName(name);
+        user.setProfileImage("https://example.com/" + name + ".png");
+        user.setRegistrationSource(RegistrationSource.GOOGLE);
+        return user;
+    }
+}
@@ -6,6 +6,7 @@ import toast from "react-hot-toast";
 import LearningProgressCard from "../components/LearningProgressCard";
 import EditLearningProgressModal from "../components/EditLearningProgressModal";
 import useConfirmModal from "../hooks/useConfirmModal";
+import useEventStream, { applyPushEvent } from "../hooks/useEventStream";
 import ConfirmModal from "../components/ConfirmModal";
 import {
   createLearningProgress,
@@ -91,11 +92,22 @@ const LearningProgressPage = () => {
     fetchProgressEntries();
   }, []);
 
+  //live likes and comments on the entries shown; a reconnect re-reads them in case events were missed
+  useEventStream(
+    currentUser?.token,
+    progressEntries.map((entry) => entry.id),
+    (event) =>
+      setProgressEntries((current) =>
+        current.map((entry) => applyPushEvent(entry, event))
+      ),
+    () => fetchProgressEntries()
+  );
+
   const fetchProgressEntries = async () => {
     setLoading(true);
     try {
       const response = await getAllLearningProgress(currentUser?.token);
-      setProgressEntries(response.data);
+      setProgressEntries(response.data.items);
     } catch (error) {
       console.error("Error fetching learning progress entries:", error);
       toast.error("Failed to load learning progress entries");
@@ -180,37 +192,27 @@ const LearningProgressPage = () => {
     }
 
     try {
-      const isLiked = progressEntries
-        .find((p) => p.id === progressId)
-        ?.likes?.some((like) => like.userId === currentUser.id);
-
-      if (isLiked) {
-        await removeLike(progressId, currentUser.id, currentUser.token);
-        setProgressEntries(
-          progressEntries.map((entry) => {
-            if (entry.id === progressId) {
-              return {
-                ...entry,
-                likes: entry.likes.filter(
-                  (like) => like.userId !== currentUser.id
-                ),
-              };
-            }
-            return entry;
-          })
-        );
-      } else {
-        const likeData = { userId: currentUser.id };
-        const response = await addLike(progressId, likeData, currentUser.token);
-        setProgressEntries(
-          progressEntries.map((entry) => {
-            if (entry.id === progressId) {
-              return response.data;
-            }
-            return entry;
-          })
-        );
-      }
+      const progress = progressEntries.find((p) => p.id === progressId);
+      const isLiked =
+        progress?.likedByViewer ??
+        progress?.likes?.some((like) => like.userId === currentUser.id);
+
+      //the server answers with the new count and whether the viewer now likes it
+      const response = isLiked
+        ? await removeLike(progressId, currentUser.id, currentUser.token)
+        : await addLike(progressId, { userId: currentUser.id }, currentUser.token);
+      setProgressEntries(
+        progressEntries.map((entry) => {
+          if (entry.id === progressId) {
+            return {
+              ...entry,
+              likedByViewer: response.data.liked,
+              likeCount: response.data.likeCount,
+            };
+          }
+          return entry;
+        })
+      );
     } catch (error) {
       console.error("Error toggling like:", error);
       toast.error("Failed to process like");
@@ -276,6 +278,7 @@ const LearningProgressPage = () => {
             comments: progressEntry.comments.filter(
               (comment) => comment.id !== commentId
             ),
+            commentCount: progressEntry.commentCount && progressEntry.commentCount - 1,
           };
         }
         return progressEntry;
@@ -12,21 +12,22 @@ import FollowersModal from "../components/FollowersModal";
 import EditLearningProgressModal from "../components/EditLearningProgressModal";
 import EditLearningPlanModal from "../components/EditLearningPlanModal";
 import useConfirmModal from "../hooks/useConfirmModal";
+import useEventStream, { applyPushEvent } from "../hooks/useEventStream";
 import ConfirmModal from "../components/ConfirmModal";
 import toast from "react-hot-toast";
 
 // API imports
 import {
-  getUserProfile,
+  getProfilePage,
   followUser,
   unfollowUser,
-  getUserTotalPostCount,
 } from "../api/profileAPI";
 import {
   deletePost,
   addLike,
   removeLike,
   getPostsByUserId,
+  streamPostsByUserId,
   addComment as addPostComment,
   updateComment as updatePostComment,
   deleteComment as deletePostComment,
@@ -71,30 +72,33 @@ const ProfilePage = () => {
   const [totalPostCount, setTotalPostCount] = useState(0);
   const [editingProgress, setEditingProgress] = useState(null);
   const [editingPlan, setEditingPlan] = useState(null);
+  const [reloadCount, setReloadCount] = useState(0);
+
+  //live likes and comments on the cards shown; a reconnect re-reads the tab in case events were missed
+  useEventStream(
+    currentUser?.token,
+    [...posts, ...progressEntries, ...learningPlans].map((item) => item.id),
+    (event) => {
+      const patch = (current) => current.map((item) => applyPushEvent(item, event));
+      setPosts(patch);
+      setProgressEntries(patch);
+      setLearningPlans(patch);
+    },
+    () => setReloadCount((count) => count + 1)
+  );
 
   useEffect(() => {
     const fetchProfileData = async () => {
       setIsLoading(true);
       try {
-        // Fetch user profile data
-        const profileData = await getUserProfile(userId);
-        setProfileUser(profileData);
+        // Profile, counts and follow status come back together
+        const page = await getProfilePage(userId, currentUser?.token);
+        setProfileUser(page.user);
 
         // Check if current user is the profile owner
         setIsOwner(currentUser?.id === userId);
-
-        // Check if current user is following this profile
-        setIsFollowing(
-          currentUser?.followingUsers?.includes(userId) ||
-            profileData.followedUsers?.includes(currentUser?.id)
-        );
-
-        // Fetch total post count
-        const postCountData = await getUserTotalPostCount(
-          userId,
-          currentUser?.token
-        );
-        setTotalPostCount(postCountData.totalPosts);
+        setIsFollowing(Boolean(currentUser) && page.following);
+        setTotalPostCount(page.counts.totalPosts);
       } catch (error) {
         console.error("Error fetching profile:", error);
         toast.error("Failed to load profile");
@@ -108,19 +112,28 @@ const ProfilePage = () => {
 
   useEffect(() => {
     // Fetch content based on active tab
+    const controller = new AbortController();
     const fetchContent = async () => {
       if (!profileUser) return;
 
       setContentLoading(true);
       try {
-        let postsData;
         let progressData;
         let plansData;
 
         switch (activeTab) {
           case "posts":
-            postsData = await getPostsByUserId(userId, currentUser?.token);
-            setPosts(postsData.data || []);
+            //cards render as they stream in instead of after the whole list is read
+            setPosts([]);
+            await streamPostsByUserId(
+              userId,
+              currentUser?.token,
+              (post) => {
+                setContentLoading(false);
+                setPosts((current) => [...current, post]);
+              },
+              controller.signal
+            );
             break;
           case "progress":
             progressData = await getLearningProgressByUserId(
@@ -140,6 +153,7 @@ const ProfilePage = () => {
             break;
         }
       } catch (error) {
+        if (error.name === "AbortError") return;
         console.error(`Error fetching ${activeTab}:`, error);
         toast.error(`Failed to load ${activeTab}`);
       } finally {
@@ -148,7 +162,8 @@ const ProfilePage = () => {
     };
 
     fetchContent();
-  }, [activeTab, profileUser, userId, currentUser?.token]);
+    return () => controller.abort();
+  }, [activeTab, profileUser, userId, currentUser?.token, reloadCount]);
 
   const handleFollowToggle = async () => {
     if (!currentUser) {
@@ -158,23 +173,21 @@ const ProfilePage = () => {
     }
 
     try {
+      let result;
       if (isFollowing) {
-        await unfollowUser(userId, currentUser?.token);
+        result = await unfollowUser(userId, currentUser?.token);
         toast.success(`Unfollowed ${profileUser.name}`);
       } else {
-        await followUser(userId, currentUser?.token);
+        result = await followUser(userId, currentUser?.token);
         toast.success(`Now following ${profileUser.name}`);
       }
 
-      // Toggle following state
-      setIsFollowing(!isFollowing);
-
-      // Update followers count in profile data
+      // Follow state and counters come back from the server
+      setIsFollowing(result.following);
       setProfileUser((prev) => ({
         ...prev,
-        followedUsers: isFollowing
-          ? (prev.followedUsers || []).filter((id) => id !== currentUser?.id)
-          : [...(prev.followedUsers || []), currentUser?.id],
+        followerCount: result.user.followerCount,
+        followingCount: result.user.followingCount,
       }));
     } catch (error) {
       console.error("Error following/unfollowing user:", error);
@@ -250,6 +263,7 @@ const ProfilePage = () => {
             comments: post.comments.filter(
               (comment) => comment.id !== commentId
             ),
+            commentCount: post.commentCount && post.commentCount - 1,
           };
         }
         return post;
@@ -462,9 +476,9 @@ const ProfilePage = () => {
     }
 
     const post = posts.find((p) => p.id === postId);
-    const isLiked = post?.likes?.some(
-      (like) => like.userId === currentUser?.id
-    );
+    const isLiked =
+      post?.likedByViewer ??
+      post?.likes?.some((like) => like.userId === currentUser?.id);
 
     // Create a copy of the original posts state for potential rollback
     const originalPosts = [...posts];
@@ -473,22 +487,14 @@ const ProfilePage = () => {
     setPosts(
       posts.map((post) => {
         if (post.id === postId) {
-          if (isLiked) {
-            return {
-              ...post,
-              likes: post.likes.filter(
-                (like) => like.userId !== currentUser?.id
-              ),
-            };
-          } else {
-            return {
-              ...post,
-              likes: [
-                ...post.likes,
-                { userId: currentUser?.id, createdAt: new Date() },
-              ],
-            };
-          }
+          return {
+            ...post,
+            likedByViewer: !isLiked,
+            likeCount: Math.max(
+              0,
+              (post.likeCount ?? post.likes?.length ?? 0) + (isLiked ? -1 : 1)
+            ),
+          };
         }
         return post;
       })
@@ -540,9 +546,9 @@ const ProfilePage = () => {
     }
 
     const progress = progressEntries.find((p) => p.id === progressId);
-    const isLiked = progress?.likes?.some(
-      (like) => like.userId === currentUser?.id
-    );
+    const isLiked =
+      progress?.likedByViewer ??
+      progress?.likes?.some((like) => like.userId === currentUser?.id);
 
     try {
       if (isLiked) {
@@ -560,22 +566,14 @@ const ProfilePage = () => {
       setProgressEntries(
         progressEntries.map((entry) => {
           if (entry.id === progressId) {
-            if (isLiked) {
-              return {
-                ...entry,
-                likes: entry.likes.filter(
-                  (like) => like.userId !== currentUser?.id
-                ),
-              };
-            } else {
-              return {
-                ...entry,
-                likes: [
-                  ...entry.likes,
-                  { userId: currentUser?.id, createdAt: new Date() },
-                ],
-              };
-            }
+            return {
+              ...entry,
+              likedByViewer: !isLiked,
+              likeCount: Math.max(
+                0,
+                (entry.likeCount ?? entry.likes?.length ?? 0) + (isLiked ? -1 : 1)
+              ),
+            };
           }
           return entry;
         })
@@ -649,9 +647,9 @@ const ProfilePage = () => {
     }
 
     const plan = learningPlans.find((p) => p.id === planId);
-    const isLiked = plan?.likes?.some(
-      (like) => like.userId === currentUser?.id
-    );
+    const isLiked =
+      plan?.likedByViewer ??
+      plan?.likes?.some((like) => like.userId === currentUser?.id);
 
     try {
       if (isLiked) {
@@ -665,22 +663,14 @@ const ProfilePage = () => {
       setLearningPlans(
         learningPlans.map((plan) => {
           if (plan.id === planId) {
-            if (isLiked) {
-              return {
-                ...plan,
-                likes: plan.likes.filter(
-                  (like) => like.userId !== currentUser?.id
-                ),
-              };
-            } else {
-              return {
-                ...plan,
-                likes: [
-                  ...plan.likes,
-                  { userId: currentUser?.id, createdAt: new Date() },
-                ],
-              };
-            }
+            return {
+              ...plan,
+              likedByViewer: !isLiked,
+              likeCount: Math.max(
+                0,
+                (plan.likeCount ?? plan.likes?.length ?? 0) + (isLiked ? -1 : 1)
+              ),
+            };
           }
           return plan;
         })
@@ -940,7 +930,8 @@ const ProfilePage = () => {
           isOpen={showFollowers}
           onClose={() => setShowFollowers(false)}
           title="Followers"
-          users={profileUser.followedUsers || []}
+          userId={userId}
+          listType="followers"
           currentUser={currentUser}
           token={currentUser?.token}
         />
@@ -951,7 +942,8 @@ const ProfilePage = () => {
           isOpen={showFollowing}
           onClose={() => setShowFollowing(false)}
           title="Following"
-          users={profileUser.followingUsers || []}
+          userId={userId}
+          listType="following"
           currentUser={currentUser}
           token={currentUser?.token}
         />
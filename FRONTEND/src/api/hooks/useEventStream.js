@@ -0,0 +1,80 @@
+import { useEffect, useRef } from "react";
+import { openEventStream, watchItems } from "../api/skillSharingAPI";
+
+//patches one card with a LIKES or COMMENT event; other events and other items are returned unchanged
+export const applyPushEvent = (item, event) => {
+  if (!item || item.id !== event.itemId) return item;
+  if (event.type === "LIKES") {
+    return { ...item, likeCount: event.data.likeCount };
+  }
+  if (event.type === "COMMENT" && Array.isArray(item.comments)) {
+    //the same comment can arrive from the write response and from the stream
+    if (item.comments.some((comment) => comment.id === event.data.id)) return item;
+    return { ...item, comments: [...item.comments, event.data] };
+  }
+  return item;
+};
+
+//keeps one event stream open while the component is mounted. changes to items are sent with watchItems rather
+//than by reconnecting; when the server ends the stream, onReconnect re-reads what is shown and the stream reopens
+const useEventStream = (token, items, onEvent, onReconnect) => {
+  const itemsRef = useRef(items);
+  const onEventRef = useRef(onEvent);
+  const onReconnectRef = useRef(onReconnect);
+  const connectionIdRef = useRef(null);
+
+  itemsRef.current = items;
+  onEventRef.current = onEvent;
+  onReconnectRef.current = onReconnect;
+
+  useEffect(() => {
+    if (!token) return undefined;
+    const controller = new AbortController();
+    let delay = 1000;
+
+    const run = async () => {
+      while (!controller.signal.aborted) {
+        try {
+          await openEventStream(
+            token,
+            itemsRef.current,
+            (event) => {
+              if (event.type === "READY") {
+                connectionIdRef.current = event.data.connectionId;
+                delay = 1000;
+                return;
+              }
+              onEventRef.current(event);
+            },
+            controller.signal
+          );
+        } catch (error) {
+          if (controller.signal.aborted) return;
+          console.error("Event stream failed:", error);
+          delay = Math.min(delay * 2, 30000);
+        }
+        connectionIdRef.current = null;
+        if (controller.signal.aborted) return;
+        //events may have been missed while disconnected
+        if (onReconnectRef.current) onReconnectRef.current();
+        await new Promise((resolve) => setTimeout(resolve, delay));
+      }
+    };
+    run();
+
+    return () => {
+      controller.abort();
+      connectionIdRef.current = null;
+    };
+  }, [token]);
+
+  const itemsKey = (items || []).join(",");
+  useEffect(() => {
+    if (!token || !connectionIdRef.current) return;
+    watchItems(connectionIdRef.current, itemsRef.current, token).catch((error) =>
+      console.error("Failed to update watched items:", error)
+    );
+  }, [token, itemsKey]);
+};
+
+export default useEventStream;
@@ -114,7 +114,7 @@ const ProfileLayout = ({
               className="flex flex-col items-center py-2 hover:bg-teal-50 rounded-lg transition-colors"
             >
               <span className="text-lg font-bold text-gray-800">
-                {profileUser?.followedUsers?.length || 0}
+                {profileUser?.followerCount || 0}
               </span>
               <span className="text-sm text-gray-600">Followers</span>
             </button>
@@ -124,7 +124,7 @@ const ProfileLayout = ({
               className="flex flex-col items-center py-2 hover:bg-teal-50 rounded-lg transition-colors"
             >
               <span className="text-lg font-bold text-gray-800">
-                {profileUser?.followingUsers?.length || 0}
+                {profileUser?.followingCount || 0}
               </span>
               <span className="text-sm text-gray-600">Following</span>
             </button>
@@ -22,10 +22,10 @@ export const createLearningPlan = async (userId, planData, token) => {
   return apiClient.post(`/learning-plan/user/${userId}`, planData);
 };
 
-// get all learning plans
-export const getAllLearningPlans = async (token) => {
+// get a page of learning plans (pass nextCursor from the previous page to continue)
+export const getAllLearningPlans = async (token, { cursor, limit } = {}) => {
   const apiClient = createApiClient(token);
-  return apiClient.get("/learning-plan");
+  return apiClient.get("/learning-plan", { params: { cursor, limit } });
 };
 
 // get learning plan by id
@@ -64,6 +64,12 @@ export const removeLike = async (planId, userId, token) => {
   return apiClient.delete(`/learning-plan/${planId}/likes/${userId}`);
 };
 
+// get a page of comments, newest first (the item itself only carries the latest few)
+export const getLearningPlanComments = async (planId, token, { cursor, limit } = {}) => {
+  const apiClient = createApiClient(token);
+  return apiClient.get(`/learning-plan/${planId}/comments`, { params: { cursor, limit } });
+};
+
 // add comment
 export const addComment = async (planId, commentData, token) => {
   const apiClient = createApiClient(token);
@@ -22,10 +22,10 @@ export const createLearningProgress = async (userId, progressData, token) => {
   return apiClient.post(`/learning-progress/user/${userId}`, progressData);
 };
 
-//get all learning progress entries
-export const getAllLearningProgress = async (token) => {
+//get a page of learning progress entries (pass nextCursor from the previous page to continue)
+export const getAllLearningProgress = async (token, { cursor, limit } = {}) => {
   const apiClient = createApiClient(token);
-  return apiClient.get("/learning-progress");
+  return apiClient.get("/learning-progress", { params: { cursor, limit } });
 };
 
 //get learning progress by id
@@ -68,6 +68,12 @@ export const removeLike = async (progressId, userId, token) => {
   return apiClient.delete(`/learning-progress/${progressId}/likes/${userId}`);
 };
 
+//get a page of comments, newest first (the item itself only carries the latest few)
+export const getLearningProgressComments = async (progressId, token, { cursor, limit } = {}) => {
+  const apiClient = createApiClient(token);
+  return apiClient.get(`/learning-progress/${progressId}/comments`, { params: { cursor, limit } });
+};
+
 //add comment
 export const addComment = async (progressId, commentData, token) => {
   const apiClient = createApiClient(token);
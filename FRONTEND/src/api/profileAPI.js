@@ -27,6 +27,18 @@ export const getUserProfile = async (userId, token) => {
   }
 };
 
+// Get profile, content counts and follow status in one request
+export const getProfilePage = async (userId, token) => {
+  const apiClient = createApiClient(token);
+  try {
+    const response = await apiClient.get(`/user/profile/${userId}/page`);
+    return response.data;
+  } catch (error) {
+    console.error("Error fetching user profile:", error);
+    throw error;
+  }
+};
+
 // Update user profile
 export const updateUserProfile = async (userId, profileData, token) => {
   const apiClient = createApiClient(token);
@@ -82,6 +94,54 @@ export const unfollowUser = async (userId, token) => {
   }
 };
 
+// Check whether the logged-in user follows a user
+export const getFollowStatus = async (userId, token) => {
+  const apiClient = createApiClient(token);
+  const currentUserId = JSON.parse(localStorage.getItem("user"))?.id;
+
+  if (!currentUserId) {
+    return { following: false };
+  }
+
+  try {
+    const response = await apiClient.get(
+      `/user/${userId}/follow?followerId=${currentUserId}`
+    );
+    return response.data;
+  } catch (error) {
+    console.error("Error fetching follow status:", error);
+    throw error;
+  }
+};
+
+// Get a page of a user's followers (pass nextCursor to continue)
+export const getFollowers = async (userId, token, { cursor, limit } = {}) => {
+  const apiClient = createApiClient(token);
+  try {
+    const response = await apiClient.get(`/user/${userId}/followers`, {
+      params: { cursor, limit },
+    });
+    return response.data;
+  } catch (error) {
+    console.error("Error fetching followers:", error);
+    throw error;
+  }
+};
+
+// Get a page of the accounts a user follows (pass nextCursor to continue)
+export const getFollowing = async (userId, token, { cursor, limit } = {}) => {
+  const apiClient = createApiClient(token);
+  try {
+    const response = await apiClient.get(`/user/${userId}/following`, {
+      params: { cursor, limit },
+    });
+    return response.data;
+  } catch (error) {
+    console.error("Error fetching following:", error);
+    throw error;
+  }
+};
+
 // Get multiple users by IDs
 export const getUsersById = async (userIds, token) => {
   const apiClient = createApiClient(token);
@@ -107,6 +167,20 @@ export const getUserContent = async (userId, token) => {
   }
 };
 
+// Get a page of a user's posts, progress and plans merged newest first (pass nextCursor to continue)
+export const getUserActivity = async (userId, token, { cursor, limit } = {}) => {
+  const apiClient = createApiClient(token);
+  try {
+    const response = await apiClient.get("/activity", {
+      params: { userId, cursor, limit },
+    });
+    return response.data;
+  } catch (error) {
+    console.error("Error fetching user activity:", error);
+    throw error;
+  }
+};
+
 // Additional API functions for posts, progress, and plans
 export const getUserPosts = async (userId, token) => {
   const apiClient = createApiClient(token);
@@ -150,4 +224,66 @@ export const getUserTotalPostCount = async (userId, token) => {
     console.error("Error fetching user learning plans:", error);
     throw error;
   }
-};
\ No newline at end of file
+};
+// Skill autocomplete: most widely held skills starting with prefix
+export const suggestSkills = async (prefix, token, limit) => {
+  const apiClient = createApiClient(token);
+  try {
+    const response = await apiClient.get(`/skills/suggest`, { params: { prefix, limit } });
+    return response.data;
+  } catch (error) {
+    console.error("Error fetching skill suggestions:", error);
+    throw error;
+  }
+};
+
+// People who have every one of skills (pass nextCursor from the previous page to continue)
+export const getUsersBySkills = async (skills, token, { cursor, limit } = {}) => {
+  const apiClient = createApiClient(token);
+  try {
+    const response = await apiClient.get(`/users/by-skills`, {
+      params: { all: skills.join(","), cursor, limit },
+    });
+    return response.data;
+  } catch (error) {
+    console.error("Error fetching users by skills:", error);
+    throw error;
+  }
+};
+
+// The signed-in user's notifications, newest activity first (pass nextCursor from the previous page to continue)
+export const getNotifications = async (token, { cursor, limit } = {}) => {
+  const apiClient = createApiClient(token);
+  try {
+    const response = await apiClient.get(`/notifications`, { params: { cursor, limit } });
+    return response.data;
+  } catch (error) {
+    console.error("Error fetching notifications:", error);
+    throw error;
+  }
+};
+
+// Unread notifications for the badge; counting stops at 100
+export const getUnreadNotificationCount = async (token) => {
+  const apiClient = createApiClient(token);
+  try {
+    const response = await apiClient.get(`/notifications/unread-count`);
+    return response.data.unread;
+  } catch (error) {
+    console.error("Error fetching unread notification count:", error);
+    throw error;
+  }
+};
+
+// Mark one notification, or all of them when notificationId is omitted, as read
+export const markNotificationsRead = async (token, notificationId) => {
+  const apiClient = createApiClient(token);
+  try {
+    const path = notificationId ? `/notifications/${notificationId}/read` : `/notifications/read-all`;
+    const response = await apiClient.post(path);
+    return response.data;
+  } catch (error) {
+    console.error("Error marking notifications as read:", error);
+    throw error;
+  }
+};
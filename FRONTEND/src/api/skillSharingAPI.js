@@ -9,8 +9,7 @@ const createApiClient = (token) => {
       "Content-Type": "application/json",
       Authorization: token ? `Bearer ${token}` : "",
     },
-    //increase the default time out time since we are transfering images and video as base64
-    timeout: 60000, // 60 seconds
+    timeout: 10000, // 10 seconds
   });
 
   return apiClient;
@@ -21,10 +20,10 @@ export const createPost = async (userId, postData, token) => {
   return apiClient.post(`/posts/user/${userId}`, postData);
 };
 
-//get all posts
-export const getAllPosts = async (token) => {
+//get a page of posts (pass nextCursor from the previous page to continue)
+export const getAllPosts = async (token, { cursor, limit } = {}) => {
   const apiClient = createApiClient(token);
-  return apiClient.get("/posts");
+  return apiClient.get("/posts", { params: { cursor, limit } });
 };
 
 //get post by id
@@ -39,6 +38,84 @@ export const getPostsByUserId = async (userId, token) => {
   return apiClient.get(`/posts/user/${userId}`);
 };
 
+//stream a user's posts as NDJSON, calling onPost for each card as soon as it arrives
+//(axios buffers whole responses, so this uses fetch and reads the body incrementally)
+export const streamPostsByUserId = async (userId, token, onPost, signal) => {
+  const response = await fetch(
+    `http://localhost:8080/api/stream/posts?userId=${encodeURIComponent(userId)}`,
+    {
+      credentials: "include",
+      headers: {
+        Accept: "application/x-ndjson",
+        Authorization: token ? `Bearer ${token}` : "",
+      },
+      signal,
+    }
+  );
+  if (!response.ok) {
+    throw new Error(`Failed to stream posts: ${response.status}`);
+  }
+
+  const reader = response.body.getReader();
+  const decoder = new TextDecoder();
+  let buffered = "";
+  for (;;) {
+    const { done, value } = await reader.read();
+    if (done) break;
+    buffered += decoder.decode(value, { stream: true });
+    const lines = buffered.split("\n");
+    buffered = lines.pop();
+    lines.filter((line) => line.trim()).forEach((line) => onPost(JSON.parse(line)));
+  }
+  if (buffered.trim()) {
+    onPost(JSON.parse(buffered));
+  }
+};
+
+//live updates for the items on screen plus the user's notifications and feed; calls onEvent with each parsed
+//event ({ type, contentType, itemId, data }). READY carries the connectionId for watchItems. resolves when the
+//server ends the stream (timeout, or the client fell behind): re-read what is shown, then call again to reconnect
+export const openEventStream = async (token, items, onEvent, signal) => {
+  const query = items && items.length ? `?items=${items.map(encodeURIComponent).join(",")}` : "";
+  const response = await fetch(`http://localhost:8080/api/events${query}`, {
+    credentials: "include",
+    headers: {
+      Accept: "text/event-stream",
+      Authorization: token ? `Bearer ${token}` : "",
+    },
+    signal,
+  });
+  if (!response.ok) {
+    throw new Error(`Failed to open event stream: ${response.status}`);
+  }
+
+  const reader = response.body.getReader();
+  const decoder = new TextDecoder();
+  let buffered = "";
+  for (;;) {
+    const { done, value } = await reader.read();
+    if (done) break;
+    buffered += decoder.decode(value, { stream: true });
+    //events are separated by a blank line; only data lines matter, keep-alive comments are skipped
+    const events = buffered.split("\n\n");
+    buffered = events.pop();
+    events.forEach((event) => {
+      const data = event
+        .split("\n")
+        .filter((line) => line.startsWith("data:"))
+        .map((line) => line.slice(5))
+        .join("\n");
+      if (data) onEvent(JSON.parse(data));
+    });
+  }
+};
+
+//change the items an open event stream watches, e.g. after scrolling to another page
+export const watchItems = async (connectionId, items, token) => {
+  const apiClient = createApiClient(token);
+  return apiClient.put(`/events/${connectionId}/items`, items);
+};
+
 //update post
 export const updatePost = async (postId, postData, token) => {
   const apiClient = createApiClient(token);
@@ -63,6 +140,12 @@ export const removeLike = async (postId, userId, token) => {
   return apiClient.delete(`/posts/${postId}/likes/${userId}`);
 };
 
+//get a page of comments, newest first (the item itself only carries the latest few)
+export const getComments = async (postId, token, { cursor, limit } = {}) => {
+  const apiClient = createApiClient(token);
+  return apiClient.get(`/posts/${postId}/comments`, { params: { cursor, limit } });
+};
+
 //add comment
 export const addComment = async (postId, commentData, token) => {
   const apiClient = createApiClient(token);
@@ -83,7 +166,7 @@ export const deleteComment = async (postId, commentId, userId, token) => {
   );
 };
 
-// // File upload API
+//upload media files; returns references to put in a post's mediaUrls
 export const uploadMedia = async (files, token) => {
   const apiClient = createApiClient(token);
   const formData = new FormData();
@@ -92,9 +175,22 @@ export const uploadMedia = async (files, token) => {
     formData.append("files", file);
   });
 
-  return apiClient.post("/uploads", formData, {
+  return apiClient.post("/media", formData, {
     headers: {
       "Content-Type": "multipart/form-data",
     },
+    //large videos can take a while to upload
+    timeout: 60000,
   });
 };
+
+//search posts, plans and progress, best matches first; types is an optional list of
+//POST, LEARNING_PLAN, LEARNING_PROGRESS (pass nextCursor from the previous page to continue)
+export const searchContent = async (query, token, { types, cursor, limit } = {}) => {
+  const apiClient = createApiClient(token);
+  const params = new URLSearchParams({ q: query });
+  (types || []).forEach((type) => params.append("type", type));
+  if (cursor) params.append("cursor", cursor);
+  if (limit) params.append("limit", limit);
+  return apiClient.get("/search", { params });
+};
@@ -1,7 +1,7 @@
 import React, { useState } from "react";
 import { useForm } from "react-hook-form";
 import { motion } from "framer-motion";
-import { createPost } from "../api/skillSharingAPI";
+import { createPost, uploadMedia } from "../api/skillSharingAPI";
 import { useAuth } from "../context/auth";
 import toast from "react-hot-toast";
 
@@ -11,7 +11,7 @@ const CreatePostForm = ({ onPostCreated }) => {
   const [isSubmitting, setIsSubmitting] = useState(false);
   const [isProcessingFiles, setIsProcessingFiles] = useState(false);
   const [mediaType, setMediaType] = useState(null); // 'image' or 'video' or null
-  const [base64Files, setBase64Files] = useState([]);
+  const [mediaEntries, setMediaEntries] = useState([]);
 
   const {
     register,
@@ -94,26 +94,8 @@ const CreatePostForm = ({ onPostCreated }) => {
         }
       }
 
-      // Convert files to base64
-      const base64Promises = files.map(
-        (file) =>
-          new Promise((resolve, reject) => {
-            const reader = new FileReader();
-            reader.onload = () => {
-              // Add metadata to identify file type
-              resolve({
-                dataUrl: reader.result,
-                type: file.type.startsWith("video/") ? "video" : "image",
-                fileType: file.type,
-              });
-            };
-            reader.onerror = reject;
-            reader.readAsDataURL(file);
-          })
-      );
-
-      // Wait for all files to be converted
-      const mediaItems = await Promise.all(base64Promises);
+      // Upload files to the media store; the post only keeps the returned references
+      const response = await uploadMedia(files, currentUser.token);
 
       // Clear previous preview URLs
       previewUrls.forEach((url) => {
@@ -126,20 +108,13 @@ const CreatePostForm = ({ onPostCreated }) => {
       const newPreviewUrls = files.map((file) => URL.createObjectURL(file));
       setPreviewUrls(newPreviewUrls);
 
-      // Store the actual base64 data with type information for the server
-      const base64Urls = mediaItems.map((item) => {
-        return JSON.stringify({
-          dataUrl: item.dataUrl,
-          type: item.type,
-          fileType: item.fileType,
-        });
-      });
+      const uploadedEntries = response.data.map((item) => JSON.stringify(item));
 
-      setBase64Files(base64Urls);
+      setMediaEntries(uploadedEntries);
       setValue("mediaFiles", files);
     } catch (error) {
-      console.error("Error processing files:", error);
-      toast.error("Error processing files");
+      console.error("Error uploading files:", error);
+      toast.error("Error uploading files");
     } finally {
       setIsProcessingFiles(false);
       e.target.value = "";
@@ -147,7 +122,7 @@ const CreatePostForm = ({ onPostCreated }) => {
   };
 
   const onSubmit = async (data) => {
-    if (!data.description.trim() && base64Files.length === 0) {
+    if (!data.description.trim() && mediaEntries.length === 0) {
       toast.error("Please add a description or at least one file");
       return;
     }
@@ -159,7 +134,7 @@ const CreatePostForm = ({ onPostCreated }) => {
         userId: currentUser.id,
         userName: currentUser.name,
         description: data.description,
-        mediaUrls: base64Files, // Send base64 encoded files instead of blob URLs
+        mediaUrls: mediaEntries, // References to media already uploaded to the media store
       };
 
       await createPost(currentUser.id, postData, currentUser.token);
@@ -167,7 +142,7 @@ const CreatePostForm = ({ onPostCreated }) => {
       toast.success("Post created successfully");
       reset();
       setPreviewUrls([]);
-      setBase64Files([]);
+      setMediaEntries([]);
       setMediaType(null);
       onPostCreated();
     } catch (error) {
@@ -240,7 +215,7 @@ const CreatePostForm = ({ onPostCreated }) => {
                     onClick={() => {
                       // Remove file at index
                       const newPreviewUrls = [...previewUrls];
-                      const newBase64Files = [...base64Files];
+                      const newMediaEntries = [...mediaEntries];
 
                       // Revoke URL object
                       if (url.startsWith("blob:")) {
@@ -248,10 +223,10 @@ const CreatePostForm = ({ onPostCreated }) => {
                       }
 
                       newPreviewUrls.splice(index, 1);
-                      newBase64Files.splice(index, 1);
+                      newMediaEntries.splice(index, 1);
 
                       setPreviewUrls(newPreviewUrls);
-                      setBase64Files(newBase64Files);
+                      setMediaEntries(newMediaEntries);
                       setValue(
                         "mediaFiles",
                         [
@@ -300,7 +275,7 @@ const CreatePostForm = ({ onPostCreated }) => {
             <input
               type="file"
               multiple
-              accept="image/jpeg,image/png,image/gif,video/mp4,video/webm,video/ogg"
+              accept="image/jpeg,image/png,image/gif,image/webp,video/mp4"
               className="hidden"
               onChange={handleFileChange}
               disabled={isSubmitting || isProcessingFiles}
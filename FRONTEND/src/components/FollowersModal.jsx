@@ -3,42 +3,58 @@ import { motion, AnimatePresence } from "framer-motion";
 import { X, UserPlus, UserMinus, Search } from "lucide-react";
 import { useNavigate } from "react-router-dom";
 import toast from "react-hot-toast";
-import { getUsersById, followUser, unfollowUser } from "../api/profileAPI";
+import {
+  getFollowers,
+  getFollowing,
+  getFollowStatus,
+  followUser,
+  unfollowUser,
+} from "../api/profileAPI";
 import UserAvatar from "./UserAvatar";
 
 const FollowersModal = ({
   isOpen,
   onClose,
   title,
-  users = [],
+  userId,
+  listType = "followers",
   currentUser,
   token,
 }) => {
   const navigate = useNavigate();
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [usersList, setUsersList] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [searchQuery, setSearchQuery] = useState("");
   const [followStates, setFollowStates] = useState({});
 
+  const fetchPage = async (cursor) => {
+    const fetchList = listType === "following" ? getFollowing : getFollowers;
+    const page = await fetchList(userId, token, { cursor });
+    const fetchedUsers = page.items || [];
+
+    // Follow state of each listed user for the logged-in user
+    const pageFollowStates = {};
+    await Promise.all(
+      fetchedUsers
+        .filter((user) => currentUser && currentUser.id !== user.id)
+        .map(async (user) => {
+          const status = await getFollowStatus(user.id, token);
+          pageFollowStates[user.id] = status.following;
+        })
+    );
+
+    setFollowStates((prev) => ({ ...prev, ...pageFollowStates }));
+    setNextCursor(page.hasMore ? page.nextCursor : null);
+    return fetchedUsers;
+  };
+
   useEffect(() => {
     const fetchUsers = async () => {
-      if (!users.length) {
-        setLoading(false);
-        setUsersList([]);
-        return;
-      }
-
       setLoading(true);
       try {
-        const fetchedUsers = await getUsersById(users, token);
-        setUsersList(fetchedUsers || []);
-
-        const initialFollowStates = {};
-        fetchedUsers.forEach((user) => {
-          initialFollowStates[user.id] =
-            currentUser?.followingUsers?.includes(user.id) || false;
-        });
-        setFollowStates(initialFollowStates);
+        setUsersList(await fetchPage(null));
       } catch (error) {
         console.error("Error fetching users:", error);
         toast.error("Failed to load users");
@@ -47,10 +63,25 @@ const FollowersModal = ({
       }
     };
 
-    if (isOpen) {
+    if (isOpen && userId) {
       fetchUsers();
     }
-  }, [users, isOpen, token, currentUser]);
+  }, [userId, listType, isOpen, token, currentUser]);
+
+  const handleLoadMore = async () => {
+    if (!nextCursor) return;
+
+    setLoadingMore(true);
+    try {
+      const moreUsers = await fetchPage(nextCursor);
+      setUsersList((prev) => [...prev, ...moreUsers]);
+    } catch (error) {
+      console.error("Error fetching users:", error);
+      toast.error("Failed to load users");
+    } finally {
+      setLoadingMore(false);
+    }
+  };
 
   const handleFollowToggle = async (userId) => {
     if (!currentUser) {
@@ -146,8 +177,6 @@ const FollowersModal = ({
                 <div className="p-6 text-center text-gray-500">
                   {searchQuery
                     ? "No users match your search."
-                    : users.length > 0
-                    ? "No user information available."
                     : `No ${title.toLowerCase()} yet.`}
                 </div>
               ) : (
@@ -217,6 +246,17 @@ const FollowersModal = ({
                   </motion.div>
                 ))
               )}
+              {!loading && nextCursor && (
+                <div className="p-3 flex justify-center">
+                  <button
+                    onClick={handleLoadMore}
+                    disabled={loadingMore}
+                    className="px-4 py-2 text-sm font-medium text-teal-700 bg-teal-50 rounded-lg hover:bg-teal-100 transition-colors cursor-pointer disabled:opacity-50"
+                  >
+                    {loadingMore ? "Loading..." : "Load more"}
+                  </button>
+                </div>
+              )}
             </div>
           </motion.div>
         </motion.div>
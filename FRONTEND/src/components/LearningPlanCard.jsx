@@ -20,9 +20,9 @@ const LearningPlanCard = ({
   const [showComments, setShowComments] = useState(false);
   const { modalState, openModal, closeModal } = useConfirmModal();
 
-  const isLikedByUser = plan.likes?.some(
-    (like) => like.userId === currentUser?.id
-  );
+  const isLikedByUser =
+    plan.likedByViewer ??
+    plan.likes?.some((like) => like.userId === currentUser?.id);
   const isOwner = plan.userId === currentUser?.id;
 
   const handleDeleteClick = () => {
@@ -172,7 +172,7 @@ const LearningPlanCard = ({
             onClick={() => onLike(plan.id)}
           >
             <span className="text-lg">{isLikedByUser ? "❤️" : "🤍"}</span>
-            <span>{plan.likes?.length || 0}</span>
+            <span>{plan.likeCount ?? plan.likes?.length ?? 0}</span>
           </button>
 
           <button
@@ -180,7 +180,7 @@ const LearningPlanCard = ({
             onClick={() => setShowComments(!showComments)}
           >
             <span className="text-lg">💬</span>
-            <span>{plan.comments?.length || 0}</span>
+            <span>{plan.commentCount ?? plan.comments?.length ?? 0}</span>
           </button>
         </div>
       </div>
@@ -32,9 +32,9 @@ const LearningProgressCard = ({
   const [showComments, setShowComments] = useState(false);
   const { modalState, openModal, closeModal } = useConfirmModal();
 
-  const isLikedByUser = progress.likes?.some(
-    (like) => like.userId === currentUser?.id
-  );
+  const isLikedByUser =
+    progress.likedByViewer ??
+    progress.likes?.some((like) => like.userId === currentUser?.id);
   const isOwner = progress.userId === currentUser?.id;
 
   const handleDeleteClick = () => {
@@ -191,7 +191,7 @@ const LearningProgressCard = ({
             onClick={() => onLike(progress.id)}
           >
             <span className="text-lg">{isLikedByUser ? "❤️" : "🤍"}</span>
-            <span>{progress.likes?.length || 0}</span>
+            <span>{progress.likeCount ?? progress.likes?.length ?? 0}</span>
           </button>
 
           <button
@@ -199,7 +199,7 @@ const LearningProgressCard = ({
             onClick={() => setShowComments(!showComments)}
           >
             <span className="text-lg">💬</span>
-            <span>{progress.comments?.length || 0}</span>
+            <span>{progress.commentCount ?? progress.comments?.length ?? 0}</span>
           </button>
         </div>
       </div>
@@ -8,6 +8,8 @@ import EditPostModal from "./EditSkillPostModal";
 import toast from "react-hot-toast";
 import UserAvatar from "./UserAvatar";
 
+const MEDIA_BASE_URL = "http://localhost:8080";
+
 const SkillSharingCard = ({
   post,
   currentUser,
@@ -23,9 +25,9 @@ const SkillSharingCard = ({
   const [showEditModal, setShowEditModal] = useState(false);
   const { modalState, openModal, closeModal } = useConfirmModal();
 
-  const isLikedByUser = post?.likes?.some(
-    (like) => like.userId === currentUser?.id
-  );
+  const isLikedByUser =
+    post?.likedByViewer ??
+    post?.likes?.some((like) => like.userId === currentUser?.id);
   const isOwner = post?.userId === currentUser?.id;
 
   const handleUserClick = () => {
@@ -140,7 +142,10 @@ const SkillSharingCard = ({
 
               try {
                 mediaObject = JSON.parse(urlString);
-                url = mediaObject.dataUrl;
+                // Uploaded media is referenced by URL; older posts embed a base64 dataUrl
+                url = mediaObject.url
+                  ? `${MEDIA_BASE_URL}${mediaObject.url}`
+                  : mediaObject.dataUrl;
                 isVideo = mediaObject.type === "video";
               } catch (error) {
                 isVideo =
@@ -185,7 +190,7 @@ const SkillSharingCard = ({
             whileTap={{ scale: 0.95 }}
           >
             <Heart size={18} className={isLikedByUser ? "fill-red-500" : ""} />
-            <span>{post.likes?.length || 0}</span>
+            <span>{post.likeCount ?? post.likes?.length ?? 0}</span>
           </motion.button>
 
           <motion.button
@@ -195,7 +200,7 @@ const SkillSharingCard = ({
             whileTap={{ scale: 0.95 }}
           >
             <MessageSquare size={18} />
-            <span>{post.comments?.length || 0}</span>
+            <span>{post.commentCount ?? post.comments?.length ?? 0}</span>
           </motion.button>
         </div>
 